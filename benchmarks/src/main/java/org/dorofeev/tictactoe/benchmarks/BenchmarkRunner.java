@@ -0,0 +1,27 @@
+package org.dorofeev.tictactoe.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so the allocation rate
+ * (gc.alloc.rate.norm, bytes per operation) is reported next to the time.
+ * Build with 'mvn package' and run 'java -jar benchmarks/target/benchmarks.jar',
+ * the usual JMH options are accepted, e.g. 'GameStatusBenchmark -f 2' runs one class only
+ * @author Yury Dorofeev
+ * @since  2016-09-27
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,74 @@
+package org.dorofeev.tictactoe.benchmarks;
+
+import org.dorofeev.tictactoe.core.BitGameBoard;
+import org.dorofeev.tictactoe.core.Game;
+import org.dorofeev.tictactoe.core.GameBoard;
+import org.dorofeev.tictactoe.core.GameBoardSize;
+import org.dorofeev.tictactoe.core.GameFigure;
+import org.dorofeev.tictactoe.core.GameRegime;
+import org.dorofeev.tictactoe.core.GameStatus;
+import org.dorofeev.tictactoe.core.IncrementalGameBoard;
+import org.dorofeev.tictactoe.core.ListGameBoard;
+import org.dorofeev.tictactoe.core.Tree;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Game.getGameStatus on every board size and board backend. The board has
+ * two almost full rows, so no line is completed and the whole board is checked
+ * @author Yury Dorofeev
+ * @since  2016-09-27
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStatusBenchmark {
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public GameBoardSize boardSize;
+
+    @Param({"incremental", "bit", "list"})
+    public String board;
+
+    private Game game;
+
+    @Setup
+    public void setUp() throws TicTacToeException {
+        game = new Game(boardSize, GameRegime.BATTLE, new Tree(boardSize.getValue()), createBoard());
+        int lineLength = (int)Math.sqrt(boardSize.getValue());
+        for(int column = 0; column < lineLength - 1; column++) {
+            game.getGameBoard().set(column, GameFigure.X);
+            game.getGameBoard().set(lineLength + column, GameFigure.O);
+        }
+    }
+
+    @Benchmark
+    public GameStatus getGameStatus() {
+        return game.getGameStatus();
+    }
+
+    private GameBoard createBoard() {
+        switch (board) {
+            case "bit":
+                return new BitGameBoard(boardSize);
+            case "list":
+                return new ListGameBoard(boardSize);
+            default:
+                return new IncrementalGameBoard(boardSize);
+        }
+    }
+}
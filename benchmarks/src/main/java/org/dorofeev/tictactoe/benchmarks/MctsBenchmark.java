@@ -0,0 +1,81 @@
+package org.dorofeev.tictactoe.benchmarks;
+
+import org.dorofeev.tictactoe.core.GameBoard;
+import org.dorofeev.tictactoe.core.GameBoardSize;
+import org.dorofeev.tictactoe.core.GameFigure;
+import org.dorofeev.tictactoe.core.IncrementalGameBoard;
+import org.dorofeev.tictactoe.core.MctsEngine;
+import org.dorofeev.tictactoe.core.ParallelMctsEngine;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random games per second of the MCTS search of the first 5x5 move, by the
+ * number of the search threads. Run with -p threads=1,2,4,8 to see how the
+ * search scales across the cores
+ * @author Yury Dorofeev
+ * @since  2016-10-01
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class MctsBenchmark {
+    private static final int ITERATIONS = 20000;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    private GameBoard board;
+    private MctsEngine engine;
+    private ParallelMctsEngine parallelEngine;
+
+    @Setup
+    public void setUp() throws TicTacToeException {
+        board = new IncrementalGameBoard(GameBoardSize.LARGE);
+        engine = new MctsEngine(GameBoardSize.LARGE, MctsEngine.DEFAULT_MAX_NODES, ITERATIONS, 0, new Random(1));
+        parallelEngine = new ParallelMctsEngine(GameBoardSize.LARGE, threads, MctsEngine.DEFAULT_MAX_NODES,
+                ITERATIONS, 0, new Random(1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        parallelEngine.shutdown();
+    }
+
+    /**
+     * The single-threaded engine, it does not depend on the threads parameter
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(ITERATIONS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public int mcts() throws TicTacToeException {
+        return engine.findBestMove(board, GameFigure.X);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(ITERATIONS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public int parallelMcts() throws TicTacToeException {
+        return parallelEngine.findBestMove(board, GameFigure.X);
+    }
+}
@@ -0,0 +1,25 @@
+package org.dorofeev.tictactoe.benchmarks;
+
+import org.dorofeev.tictactoe.core.Game;
+import org.dorofeev.tictactoe.core.GameBoardSize;
+import org.dorofeev.tictactoe.core.GameRegime;
+import org.dorofeev.tictactoe.core.GameTree;
+import org.dorofeev.tictactoe.core.SelfPlayDriver;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+/**
+ * Self-play helpers shared by the benchmarks
+ * @author Yury Dorofeev
+ * @since  2016-09-27
+ */
+final class SelfPlay {
+    static final int MAX_NUMBER_OF_GAMES_FOR_BATTLE_3X3 = 39000;
+
+    private SelfPlay() {
+    }
+
+    static void learn(GameTree tree, GameBoardSize boardSize, GameRegime gameRegime, int numberOfGames)
+            throws TicTacToeException {
+        new SelfPlayDriver(new Game(boardSize, gameRegime, tree)).play(numberOfGames);
+    }
+}
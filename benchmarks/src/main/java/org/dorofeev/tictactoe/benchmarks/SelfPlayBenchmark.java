@@ -0,0 +1,88 @@
+package org.dorofeev.tictactoe.benchmarks;
+
+import org.dorofeev.tictactoe.core.Game;
+import org.dorofeev.tictactoe.core.GameBoardSize;
+import org.dorofeev.tictactoe.core.GameRegime;
+import org.dorofeev.tictactoe.core.GameStatus;
+import org.dorofeev.tictactoe.core.LearningEngine;
+import org.dorofeev.tictactoe.core.SelfPlayDriver;
+import org.dorofeev.tictactoe.core.Tree;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end self-play: games per second on the learned tree and the time
+ * of the whole learning from an empty tree
+ * @author Yury Dorofeev
+ * @since  2016-09-27
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class SelfPlayBenchmark {
+    @Param({"Tree", "CompactTree", "ConcurrentTree"})
+    public String treeType;
+
+    private SelfPlayDriver learnedDriver;
+
+    @Setup
+    public void setUp() throws TicTacToeException {
+        learnedDriver = new SelfPlayDriver(new Game(GameBoardSize.SMALL, GameRegime.BATTLE,
+                TreeStatisticsBenchmark.createTree(treeType, GameBoardSize.SMALL)));
+        learnedDriver.play(SelfPlay.MAX_NUMBER_OF_GAMES_FOR_BATTLE_3X3);
+    }
+
+    /**
+     * One game on the learned 3x3 tree, the score is games per second
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public GameStatus playLearnedGame() throws TicTacToeException {
+        return learnedDriver.playGame();
+    }
+
+    /**
+     * Learning of the 3x3 tree from scratch by 39000 games on one thread
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public long learnFromScratch() throws TicTacToeException {
+        SelfPlayDriver driver = new SelfPlayDriver(new Game(GameBoardSize.SMALL, GameRegime.BATTLE,
+                TreeStatisticsBenchmark.createTree(treeType, GameBoardSize.SMALL)));
+        driver.play(SelfPlay.MAX_NUMBER_OF_GAMES_FOR_BATTLE_3X3);
+        return driver.getGame().getGameTree().getNumberOfNodes();
+    }
+
+    /**
+     * Learning of the 3x3 tree from scratch with the {@link LearningEngine}
+     * on all the processors
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public long learnWithLearningEngine() throws TicTacToeException {
+        Tree tree = new Tree(GameBoardSize.SMALL.getValue());
+        new LearningEngine(Runtime.getRuntime().availableProcessors())
+                .learn(tree, GameRegime.BATTLE, SelfPlay.MAX_NUMBER_OF_GAMES_FOR_BATTLE_3X3);
+        return tree.getNumberOfNodes();
+    }
+}
@@ -0,0 +1,105 @@
+package org.dorofeev.tictactoe.benchmarks;
+
+import org.dorofeev.tictactoe.core.Node;
+import org.dorofeev.tictactoe.core.NodeStatus;
+import org.dorofeev.tictactoe.core.Tree;
+import org.dorofeev.tictactoe.core.exception.NodeNotFoundException;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.dorofeev.tictactoe.core.exception.UpdateStatusException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tree operations of one move and of the end of a game
+ * @author Yury Dorofeev
+ * @since  2016-09-27
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeBenchmark {
+    @Param({"9", "16", "25"})
+    public int rootSize;
+
+    private Tree fullRootTree;
+    private Tree deepBranchTree;
+    private Node leaf;
+
+    @Setup
+    public void setUp() throws TicTacToeException {
+        fullRootTree = new Tree(rootSize);
+        for(int position = 0; position < rootSize; position++) {
+            fullRootTree.addNode(position);
+            fullRootTree.moveToRoot();
+        }
+
+        // every node of the branch has all the other children lost, so the
+        // status of the leaf goes up to the root: LOSE, WIN, LOSE...
+        deepBranchTree = new Tree(rootSize);
+        for(int level = 0; level < rootSize; level++) {
+            for(int position = level + 1; position < rootSize; position++) {
+                deepBranchTree.addNode(position);
+                deepBranchTree.setCurrentStatus(NodeStatus.LOSE);
+                deepBranchTree.moveToParent();
+            }
+            deepBranchTree.addNode(level);
+        }
+        leaf = deepBranchTree.getCurrentNode();
+    }
+
+    /**
+     * Builds a branch from the root to a leaf, one node per move of a game
+     */
+    @Benchmark
+    public Tree addNode() throws TicTacToeException {
+        Tree tree = new Tree(rootSize);
+        for(int position = 0; position < rootSize; position++) {
+            tree.addNode(position);
+        }
+        return tree;
+    }
+
+    /**
+     * Looks up the last child of the root
+     */
+    @Benchmark
+    public Node findChildNodeWithGivenPosition() throws NodeNotFoundException {
+        return fullRootTree.findChildNodeWithGivenPosition(rootSize - 1);
+    }
+
+    /**
+     * Updates statuses of the whole branch. The statuses are reset and the
+     * Current node is moved down to the leaf first, it costs two passes over the branch
+     */
+    @Benchmark
+    public NodeStatus updateTreeStatusDeepBranch() throws UpdateStatusException, NodeNotFoundException {
+        for(Node node = leaf; node != null; node = node.getParent()) {
+            node.setStatus(NodeStatus.UNKNOWN);
+        }
+        leaf.setStatus(NodeStatus.LOSE);
+        deepBranchTree.moveToRoot();
+        moveToLeaf();
+        deepBranchTree.updateTreeStatus();
+        return deepBranchTree.getRootStatus();
+    }
+
+    private void moveToLeaf() throws NodeNotFoundException {
+        for(int level = 0; level < rootSize; level++) {
+            deepBranchTree.moveToChild(level);
+        }
+    }
+}
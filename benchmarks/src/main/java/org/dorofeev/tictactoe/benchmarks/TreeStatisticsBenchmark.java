@@ -0,0 +1,73 @@
+package org.dorofeev.tictactoe.benchmarks;
+
+import org.dorofeev.tictactoe.core.CompactTree;
+import org.dorofeev.tictactoe.core.ConcurrentTree;
+import org.dorofeev.tictactoe.core.GameBoardSize;
+import org.dorofeev.tictactoe.core.GameRegime;
+import org.dorofeev.tictactoe.core.GameTree;
+import org.dorofeev.tictactoe.core.Tree;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tree statistics on the tree learned by 39000 games on the 3x3 board
+ * (about 95000 nodes)
+ * @author Yury Dorofeev
+ * @since  2016-09-27
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeStatisticsBenchmark {
+    @Param({"Tree", "CompactTree", "ConcurrentTree"})
+    public String treeType;
+
+    private GameTree tree;
+
+    @Setup
+    public void setUp() throws TicTacToeException {
+        tree = createTree(treeType, GameBoardSize.SMALL);
+        SelfPlay.learn(tree, GameBoardSize.SMALL, GameRegime.BATTLE, SelfPlay.MAX_NUMBER_OF_GAMES_FOR_BATTLE_3X3);
+    }
+
+    @Benchmark
+    public long getNumberOfNodes() {
+        return tree.getNumberOfNodes();
+    }
+
+    @Benchmark
+    public long getNumberOfNodesPerLevel() {
+        return tree.getNumberOfNodes(5);
+    }
+
+    @Benchmark
+    public int getTreeDepth() {
+        return tree.getTreeDepth();
+    }
+
+    static GameTree createTree(String treeType, GameBoardSize boardSize) throws TicTacToeException {
+        switch (treeType) {
+            case "CompactTree":
+                return new CompactTree(boardSize.getValue());
+            case "ConcurrentTree":
+                return new ConcurrentTree(boardSize.getValue()).newCursor();
+            default:
+                return new Tree(boardSize.getValue());
+        }
+    }
+}
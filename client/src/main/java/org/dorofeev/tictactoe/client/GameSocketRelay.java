@@ -0,0 +1,113 @@
+package org.dorofeev.tictactoe.client;
+
+import javax.websocket.ClientEndpointConfig;
+import javax.websocket.CloseReason;
+import javax.websocket.DeploymentException;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.MessageHandler;
+import javax.websocket.Session;
+import javax.websocket.WebSocketContainer;
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * GameSocketRelay passes the game socket through the gateway. Zuul proxies
+ * HTTP requests only, so every socket of the browser gets its own socket
+ * to the server and the frames are copied both ways as they are, nothing
+ * is parsed here. When one side closes the other one is closed too, with
+ * the same close reason unless its code may not be sent in a close frame
+ * @author Yury Dorofeev
+ * @since 12/10/16
+ */
+public class GameSocketRelay extends Endpoint {
+    public static final String PATH = "/tictactoe/ws/game";
+    private static final String SERVER_SESSION = "serverSession";
+
+    private final WebSocketContainer container;
+    private final String serverUrl;
+
+    public GameSocketRelay(WebSocketContainer container, String serverUrl) {
+        this.container = container;
+        this.serverUrl = serverUrl;
+    }
+
+    @Override
+    public void onOpen(final Session browserSession, EndpointConfig config) {
+        String query = browserSession.getQueryString();
+        URI serverUri = URI.create(query == null ? serverUrl : serverUrl + "?" + query);
+        final Session serverSession;
+        try {
+            serverSession = container.connectToServer(new Endpoint() {
+                @Override
+                public void onOpen(Session serverSession, EndpointConfig config) {
+                    serverSession.addMessageHandler(new MessageHandler.Whole<String>() {
+                        @Override
+                        public void onMessage(String frame) {
+                            send(browserSession, frame);
+                        }
+                    });
+                }
+
+                @Override
+                public void onClose(Session serverSession, CloseReason closeReason) {
+                    close(browserSession, closeReason);
+                }
+            }, ClientEndpointConfig.Builder.create().build(), serverUri);
+        } catch (DeploymentException | IOException e) {
+            System.out.println("..game server socket is not available: " + e.getMessage());
+            close(browserSession, new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "The game server is not available"));
+            return;
+        }
+        browserSession.getUserProperties().put(SERVER_SESSION, serverSession);
+        browserSession.addMessageHandler(new MessageHandler.Whole<String>() {
+            @Override
+            public void onMessage(String frame) {
+                send(serverSession, frame);
+            }
+        });
+    }
+
+    @Override
+    public void onClose(Session browserSession, CloseReason closeReason) {
+        Session serverSession = (Session) browserSession.getUserProperties().get(SERVER_SESSION);
+        if(serverSession != null) {
+            close(serverSession, closeReason);
+        }
+    }
+
+    /**
+     * The frames of one session come one by one, so the blocking send does not overlap
+     */
+    private static void send(Session session, String frame) {
+        try {
+            session.getBasicRemote().sendText(frame);
+        } catch (IOException e) {
+            System.out.println("..socket frame is not relayed: " + e.getMessage());
+        }
+    }
+
+    private static void close(Session session, CloseReason closeReason) {
+        if(!session.isOpen()) {
+            return;
+        }
+        try {
+            session.close(relayedReason(closeReason));
+        } catch (IOException e) {
+            System.out.println("..socket is not closed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 1005 and 1006 only report a close without a status code or without
+     * a close frame, they are reserved and must not be sent to the other side
+     */
+    static CloseReason relayedReason(CloseReason closeReason) {
+        int code = closeReason.getCloseCode().getCode();
+        if(code == CloseReason.CloseCodes.NO_STATUS_CODE.getCode()
+                || code == CloseReason.CloseCodes.CLOSED_ABNORMALLY.getCode()) {
+            return new CloseReason(CloseReason.CloseCodes.NORMAL_CLOSURE, closeReason.getReasonPhrase());
+        }
+        return closeReason;
+    }
+}
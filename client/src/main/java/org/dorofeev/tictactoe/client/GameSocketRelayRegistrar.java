@@ -0,0 +1,52 @@
+package org.dorofeev.tictactoe.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.ServletContextAware;
+
+import javax.servlet.ServletContext;
+import javax.websocket.ContainerProvider;
+import javax.websocket.DeploymentException;
+import javax.websocket.WebSocketContainer;
+import javax.websocket.server.ServerContainer;
+import javax.websocket.server.ServerEndpointConfig;
+
+/**
+ * Registers the {@link GameSocketRelay} in the WebSocket container of the
+ * embedded Tomcat (JSR-356), the relays share one client container
+ * @author Yury Dorofeev
+ * @since 12/10/16
+ */
+@Component
+public class GameSocketRelayRegistrar implements ServletContextAware {
+    private final String serverUrl;
+
+    @Autowired
+    public GameSocketRelayRegistrar(@Value("${tictactoe.server.socket-url}") String serverUrl) {
+        this.serverUrl = serverUrl;
+    }
+
+    @Override
+    public void setServletContext(ServletContext servletContext) {
+        ServerContainer serverContainer = (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName());
+        if(serverContainer == null) {
+            System.out.println("..WebSocket is not supported, the game socket relay is not registered");
+            return;
+        }
+        final WebSocketContainer clientContainer = ContainerProvider.getWebSocketContainer();
+        ServerEndpointConfig config = ServerEndpointConfig.Builder.create(GameSocketRelay.class, GameSocketRelay.PATH)
+                .configurator(new ServerEndpointConfig.Configurator() {
+                    @Override
+                    public <T> T getEndpointInstance(Class<T> endpointClass) {
+                        return endpointClass.cast(new GameSocketRelay(clientContainer, serverUrl));
+                    }
+                })
+                .build();
+        try {
+            serverContainer.addEndpoint(config);
+        } catch (DeploymentException e) {
+            throw new IllegalStateException("The game socket relay is not registered: " + e.getMessage(), e);
+        }
+    }
+}
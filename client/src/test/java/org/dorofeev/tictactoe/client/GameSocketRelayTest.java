@@ -0,0 +1,188 @@
+package org.dorofeev.tictactoe.client;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.websocket.server.WsSci;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServlet;
+import javax.websocket.ClientEndpointConfig;
+import javax.websocket.CloseReason;
+import javax.websocket.ContainerProvider;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.MessageHandler;
+import javax.websocket.Session;
+import javax.websocket.server.ServerContainer;
+import javax.websocket.server.ServerEndpointConfig;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * The relay and a stub of the game socket run in one embedded Tomcat,
+ * the test plays the browser
+ * @author Yury Dorofeev
+ * @since 14/10/16
+ */
+public class GameSocketRelayTest {
+    private static final String SERVER_PATH = "/server";
+
+    private final BlockingQueue<String> serverFrames = new LinkedBlockingQueue<>();
+    private final BlockingQueue<CloseReason> serverCloses = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> browserFrames = new LinkedBlockingQueue<>();
+    private final BlockingQueue<CloseReason> browserCloses = new LinkedBlockingQueue<>();
+    private Tomcat tomcat;
+    private int port;
+
+    @Before
+    public void setUp() throws Exception {
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("relay").toString());
+        tomcat.setPort(0);
+        Context context = tomcat.addContext("", null);
+        context.addServletContainerInitializer(new WsSci(), null);
+        // the upgrade filter runs only for the requests mapped to a servlet
+        Tomcat.addServlet(context, "default", new NoContentServlet());
+        context.addServletMapping("/", "default");
+        tomcat.start();
+        port = tomcat.getConnector().getLocalPort();
+
+        ServerContainer container = (ServerContainer) context.getServletContext()
+                .getAttribute(ServerContainer.class.getName());
+        container.addEndpoint(ServerEndpointConfig.Builder.create(StubGameSocket.class, SERVER_PATH)
+                .configurator(new ServerEndpointConfig.Configurator() {
+                    @Override
+                    public <T> T getEndpointInstance(Class<T> endpointClass) {
+                        return endpointClass.cast(new StubGameSocket());
+                    }
+                })
+                .build());
+        new GameSocketRelayRegistrar("ws://localhost:" + port + SERVER_PATH).setServletContext(context.getServletContext());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Test
+    public void framesAreRelayed() throws Exception {
+        Session browser = connectBrowser("gameId=1");
+        assertEquals("GAME 1", browserFrames.poll(5, TimeUnit.SECONDS));
+
+        browser.getBasicRemote().sendText("X 4");
+        assertEquals("X 4", serverFrames.poll(5, TimeUnit.SECONDS));
+        assertEquals("X 4 CONTINUE", browserFrames.poll(5, TimeUnit.SECONDS));
+        browser.close();
+    }
+
+    @Test
+    public void browserCloseClosesServer() throws Exception {
+        Session browser = connectBrowser(null);
+        assertEquals("GAME new", browserFrames.poll(5, TimeUnit.SECONDS));
+
+        browser.close(new CloseReason(CloseReason.CloseCodes.GOING_AWAY, "bye"));
+        CloseReason reason = serverCloses.poll(5, TimeUnit.SECONDS);
+        assertNotNull(reason);
+        assertEquals(CloseReason.CloseCodes.GOING_AWAY.getCode(), reason.getCloseCode().getCode());
+    }
+
+    @Test
+    public void serverCloseClosesBrowser() throws Exception {
+        Session browser = connectBrowser(null);
+        assertEquals("GAME new", browserFrames.poll(5, TimeUnit.SECONDS));
+
+        browser.getBasicRemote().sendText("QUIT");
+        CloseReason reason = browserCloses.poll(5, TimeUnit.SECONDS);
+        assertNotNull(reason);
+        assertEquals(CloseReason.CloseCodes.NORMAL_CLOSURE.getCode(), reason.getCloseCode().getCode());
+        assertFalse(browser.isOpen());
+    }
+
+    @Test
+    public void reservedCloseCodes() {
+        CloseReason noStatus = new CloseReason(CloseReason.CloseCodes.NO_STATUS_CODE, "");
+        CloseReason abnormal = new CloseReason(CloseReason.CloseCodes.CLOSED_ABNORMALLY, "lost");
+        CloseReason goingAway = new CloseReason(CloseReason.CloseCodes.GOING_AWAY, "bye");
+
+        assertEquals(CloseReason.CloseCodes.NORMAL_CLOSURE, GameSocketRelay.relayedReason(noStatus).getCloseCode());
+        assertEquals(CloseReason.CloseCodes.NORMAL_CLOSURE, GameSocketRelay.relayedReason(abnormal).getCloseCode());
+        assertEquals("lost", GameSocketRelay.relayedReason(abnormal).getReasonPhrase());
+        assertSame(goingAway, GameSocketRelay.relayedReason(goingAway));
+    }
+
+    private Session connectBrowser(String query) throws Exception {
+        URI uri = URI.create("ws://localhost:" + port + GameSocketRelay.PATH + (query == null ? "" : "?" + query));
+        return ContainerProvider.getWebSocketContainer().connectToServer(new Endpoint() {
+            @Override
+            public void onOpen(Session session, EndpointConfig config) {
+                session.addMessageHandler(new MessageHandler.Whole<String>() {
+                    @Override
+                    public void onMessage(String frame) {
+                        browserFrames.add(frame);
+                    }
+                });
+            }
+
+            @Override
+            public void onClose(Session session, CloseReason closeReason) {
+                browserCloses.add(closeReason);
+            }
+        }, ClientEndpointConfig.Builder.create().build(), uri);
+    }
+
+    /**
+     * Maps the requests of the sockets, serves nothing itself
+     */
+    private static class NoContentServlet extends HttpServlet {
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * Says which game it plays, answers a move with CONTINUE and closes on QUIT
+     */
+    private class StubGameSocket extends Endpoint {
+        @Override
+        public void onOpen(final Session session, EndpointConfig config) {
+            String query = session.getQueryString();
+            send(session, "GAME " + (query == null ? "new" : query.substring("gameId=".length())));
+            session.addMessageHandler(new MessageHandler.Whole<String>() {
+                @Override
+                public void onMessage(String frame) {
+                    serverFrames.add(frame);
+                    if(frame.equals("QUIT")) {
+                        try {
+                            session.close(new CloseReason(CloseReason.CloseCodes.NORMAL_CLOSURE, "game over"));
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        return;
+                    }
+                    send(session, frame + " CONTINUE");
+                }
+            });
+        }
+
+        @Override
+        public void onClose(Session session, CloseReason closeReason) {
+            serverCloses.add(closeReason);
+        }
+
+        private void send(Session session, String frame) {
+            try {
+                session.getBasicRemote().sendText(frame);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
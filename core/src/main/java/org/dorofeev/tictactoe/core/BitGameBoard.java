@@ -0,0 +1,127 @@
+package org.dorofeev.tictactoe.core;
+
+/**
+ * BitGameBoard keeps one bit mask per figure, bit i is set when the figure
+ * occupies position i. Win lines (rows, columns and diagonals) are
+ * precomputed masks, so the game status is a few AND/compare operations
+ * @author Yury Dorofeev
+ * @version 2016-09-14
+ */
+public class BitGameBoard implements GameBoard {
+    private static final long[][] WIN_LINES = new long[GameBoardSize.values().length][];
+
+    static {
+        for(GameBoardSize boardSize : GameBoardSize.values()) {
+            WIN_LINES[boardSize.ordinal()] = buildWinLines((int)Math.sqrt(boardSize.getValue()));
+        }
+    }
+
+    private final int boardSize;
+    private final long fullMask;
+    private final long[] winLines;
+    private long xMask;
+    private long oMask;
+
+    public BitGameBoard(GameBoardSize boardSize) {
+        this.boardSize = boardSize.getValue();
+        this.fullMask = boardSize.getValue() == Long.SIZE ? -1L : (1L << boardSize.getValue()) - 1;
+        this.winLines = WIN_LINES[boardSize.ordinal()];
+    }
+
+    @Override
+    public int getSize() {
+        return boardSize;
+    }
+
+    @Override
+    public GameFigure get(int position) {
+        long bit = 1L << position;
+        if((xMask & bit) != 0) {
+            return GameFigure.X;
+        }
+        if((oMask & bit) != 0) {
+            return GameFigure.O;
+        }
+        return GameFigure.EMPTY;
+    }
+
+    @Override
+    public void set(int position, GameFigure figure) {
+        long bit = 1L << position;
+        xMask &= ~bit;
+        oMask &= ~bit;
+        if(figure == GameFigure.X) {
+            xMask |= bit;
+        } else if(figure == GameFigure.O) {
+            oMask |= bit;
+        }
+    }
+
+    @Override
+    public GameStatus getGameStatus() {
+        for(long line : winLines) {
+            if((xMask & line) == line || (oMask & line) == line) {
+                return GameStatus.WIN;
+            }
+        }
+        if((xMask | oMask) == fullMask) {
+            return GameStatus.DRAW;
+        }
+        return GameStatus.CONTINUE;
+    }
+
+    @Override
+    public void clear() {
+        xMask = 0;
+        oMask = 0;
+    }
+
+    /**
+     * @return bit mask of the positions occupied by the figure, for EMPTY the mask of empty positions
+     */
+    public long getMask(GameFigure figure) {
+        switch(figure) {
+            case X:
+                return xMask;
+            case O:
+                return oMask;
+            default:
+                return ~(xMask | oMask) & fullMask;
+        }
+    }
+
+    /**
+     * @return win line masks of the board: rows, columns and two diagonals
+     */
+    public long[] getWinLines() {
+        return winLines.clone();
+    }
+
+    private static long[] buildWinLines(int boardSQRT) {
+        long[] lines = new long[2 * boardSQRT + 2];
+        int index = 0;
+        for(int row = 0; row < boardSQRT; row++) {
+            long line = 0;
+            for(int column = 0; column < boardSQRT; column++) {
+                line |= 1L << (row * boardSQRT + column);
+            }
+            lines[index++] = line;
+        }
+        for(int column = 0; column < boardSQRT; column++) {
+            long line = 0;
+            for(int row = 0; row < boardSQRT; row++) {
+                line |= 1L << (row * boardSQRT + column);
+            }
+            lines[index++] = line;
+        }
+        long leftDiagonal = 0;
+        long rightDiagonal = 0;
+        for(int i = 0; i < boardSQRT; i++) {
+            leftDiagonal |= 1L << (i * boardSQRT + i);
+            rightDiagonal |= 1L << (i * boardSQRT + boardSQRT - 1 - i);
+        }
+        lines[index++] = leftDiagonal;
+        lines[index] = rightDiagonal;
+        return lines;
+    }
+}
@@ -0,0 +1,130 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+/**
+ * BoardGeometry is the shape of the game: the width and the height of the
+ * board and the number of figures in a row needed to win, e.g. 15x15 with 5
+ * in a row for gomoku. Positions are numbered row by row from 0.
+ * The classic square boards where a full row wins are the {@link GameBoardSize}
+ * ones, they are played on the {@link IncrementalGameBoard}, all the other
+ * geometries on the {@link PackedGameBoard}
+ * @author Yury Dorofeev
+ * @version 2016-10-02
+ */
+public final class BoardGeometry {
+    private final int width;
+    private final int height;
+    private final int winLength;
+    private final GameBoardSize boardSize;
+
+    /**
+     * @param width number of columns
+     * @param height number of rows
+     * @param winLength number of figures in a row, column or diagonal needed to win
+     * @throws TicTacToeException if the board is empty or the row can not fit on it
+     */
+    public BoardGeometry(int width, int height, int winLength) throws TicTacToeException {
+        if(width < 1 || height < 1) {
+            throw new TicTacToeException("Invalid board " + width + "x" + height);
+        }
+        if(winLength < 1 || winLength > Math.max(width, height)) {
+            throw new TicTacToeException("Invalid number of figures in a row " + winLength
+                    + " for the board " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.winLength = winLength;
+        this.boardSize = findBoardSize(width, height, winLength);
+    }
+
+    private BoardGeometry(GameBoardSize boardSize) {
+        this.width = (int)Math.sqrt(boardSize.getValue());
+        this.height = width;
+        this.winLength = width;
+        this.boardSize = boardSize;
+    }
+
+    /**
+     * @return square geometry of the board size where a full row wins
+     */
+    public static BoardGeometry of(GameBoardSize boardSize) {
+        return new BoardGeometry(boardSize);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+    /**
+     * @return number of cells on the board
+     */
+    public int getSize() {
+        return width * height;
+    }
+
+    /**
+     * @return the matching classic board size or null if there is none
+     */
+    public GameBoardSize getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * @return new empty game board of this geometry
+     */
+    public GameBoard createGameBoard() {
+        if(boardSize != null) {
+            return new IncrementalGameBoard(boardSize);
+        }
+        return new PackedGameBoard(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(!(o instanceof BoardGeometry)) {
+            return false;
+        }
+        BoardGeometry geometry = (BoardGeometry) o;
+        return width == geometry.width && height == geometry.height && winLength == geometry.winLength;
+    }
+
+    @Override
+    public int hashCode() {
+        return (width * 31 + height) * 31 + winLength;
+    }
+
+    /**
+     * @return name of the classic board size, e.g. SMALL, or the shape, e.g. 15x15/5
+     */
+    @Override
+    public String toString() {
+        if(boardSize != null) {
+            return boardSize.name();
+        }
+        return width + "x" + height + "/" + winLength;
+    }
+
+    private static GameBoardSize findBoardSize(int width, int height, int winLength) {
+        if(width != height || winLength != width) {
+            return null;
+        }
+        for(GameBoardSize boardSize : GameBoardSize.values()) {
+            if(boardSize.getValue() == width * height) {
+                return boardSize;
+            }
+        }
+        return null;
+    }
+}
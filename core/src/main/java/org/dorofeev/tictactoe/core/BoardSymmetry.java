@@ -0,0 +1,115 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+/**
+ * BoardSymmetry maps positions of a square board through its 8 symmetries
+ * (4 rotations and 4 reflections). A board given as a pair of bit masks is
+ * canonicalised to the symmetric board with the minimal key, so all the
+ * strategically identical boards get the same key
+ * @author Yury Dorofeev
+ * @version 2016-09-21
+ */
+public class BoardSymmetry {
+    public static final int NUMBER_OF_TRANSFORMS = 8;
+    public static final int IDENTITY = 0;
+
+    private final int boardSize;
+    private final int[][] positions;  // positions[transform][position]
+    private final int[] inverse;
+
+    public BoardSymmetry(int boardSize) throws TicTacToeException {
+        int boardSQRT = (int)Math.sqrt(boardSize);
+        if(boardSQRT * boardSQRT != boardSize) {
+            throw new TicTacToeException("The board of size " + boardSize + " is not a square");
+        }
+        if(boardSize > Long.SIZE) {
+            throw new TicTacToeException("The board of size " + boardSize + " does not fit a bit mask");
+        }
+        this.boardSize = boardSize;
+        positions = new int[NUMBER_OF_TRANSFORMS][boardSize];
+        for(int row = 0; row < boardSQRT; row++) {
+            for(int column = 0; column < boardSQRT; column++) {
+                int last = boardSQRT - 1;
+                int position = row * boardSQRT + column;
+                positions[0][position] = position;
+                positions[1][position] = column * boardSQRT + (last - row);
+                positions[2][position] = (last - row) * boardSQRT + (last - column);
+                positions[3][position] = (last - column) * boardSQRT + row;
+                positions[4][position] = row * boardSQRT + (last - column);
+                positions[5][position] = (last - row) * boardSQRT + column;
+                positions[6][position] = column * boardSQRT + row;
+                positions[7][position] = (last - column) * boardSQRT + (last - row);
+            }
+        }
+        inverse = new int[NUMBER_OF_TRANSFORMS];
+        for(int transform = 0; transform < NUMBER_OF_TRANSFORMS; transform++) {
+            for(int candidate = 0; candidate < NUMBER_OF_TRANSFORMS; candidate++) {
+                if(isInverse(transform, candidate)) {
+                    inverse[transform] = candidate;
+                    break;
+                }
+            }
+        }
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int transformPosition(int position, int transform) {
+        return positions[transform][position];
+    }
+
+    public long transformMask(long mask, int transform) {
+        int[] map = positions[transform];
+        long result = 0;
+        while(mask != 0) {
+            result |= 1L << map[Long.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+        return result;
+    }
+
+    /**
+     * @return the transform which maps the positions back
+     */
+    public int inverseTransform(int transform) {
+        return inverse[transform];
+    }
+
+    /**
+     * Finds the transform which gives the canonical form of the board: the
+     * symmetric board with the minimal (second, first) pair of masks
+     * @param first positions of the first player
+     * @param second positions of the second player
+     * @return the transform to apply to get the canonical board
+     */
+    public int canonicalTransform(long first, long second) {
+        int best = IDENTITY;
+        long bestFirst = first;
+        long bestSecond = second;
+        for(int transform = 1; transform < NUMBER_OF_TRANSFORMS; transform++) {
+            long transformedSecond = transformMask(second, transform);
+            if(Long.compareUnsigned(transformedSecond, bestSecond) > 0) {
+                continue;
+            }
+            long transformedFirst = transformMask(first, transform);
+            if(transformedSecond != bestSecond || Long.compareUnsigned(transformedFirst, bestFirst) < 0) {
+                best = transform;
+                bestFirst = transformedFirst;
+                bestSecond = transformedSecond;
+            }
+        }
+        return best;
+    }
+
+    private boolean isInverse(int transform, int candidate) {
+        for(int position = 0; position < boardSize; position++) {
+            if(positions[candidate][positions[transform][position]] != position) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,325 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.NodeNotFoundException;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.dorofeev.tictactoe.core.exception.UpdateStatusException;
+
+import java.util.Arrays;
+
+/**
+ * CompactTree keeps the nodes in primitive arrays instead of Node objects.
+ * A node is an int ID, its status, position, level and number of children are
+ * packed into one int and the first-child/next-sibling links into one long,
+ * so a node costs 12 bytes. The path from the root to the Current node is kept
+ * as a stack of IDs, that's why nodes do not need a parent link
+ * @author Yury Dorofeev
+ * @version 2016-09-12
+ */
+public class CompactTree implements GameTree {
+    private static final int NIL = -1;
+    private static final int ROOT = 0;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int STATUS_BITS = 3;
+    private static final int POSITION_BITS = 10;
+    private static final int LEVEL_BITS = 10;
+    private static final int POSITION_SHIFT = STATUS_BITS;
+    private static final int LEVEL_SHIFT = POSITION_SHIFT + POSITION_BITS;
+    private static final int CHILDREN_SHIFT = LEVEL_SHIFT + LEVEL_BITS;
+    private static final int STATUS_MASK = (1 << STATUS_BITS) - 1;
+    private static final int POSITION_MASK = (1 << POSITION_BITS) - 1;
+    private static final int LEVEL_MASK = (1 << LEVEL_BITS) - 1;
+    private static final int MAX_CHILDREN = (1 << (Integer.SIZE - CHILDREN_SHIFT)) - 1;
+
+    private static final NodeStatus[] STATUSES = NodeStatus.values();
+
+    private final int rootSize;
+    private int[] info;   // status | position | level | number of children
+    private long[] links; // first child << 32 | next sibling
+    private int size;
+    private final int[] path;
+    private int depth;
+
+    public CompactTree(int rootSize) throws TicTacToeException {
+        if(rootSize < 0) {
+            throw new TicTacToeException("children collection size is < 0");
+        }
+        if(rootSize > Math.min(POSITION_MASK, MAX_CHILDREN)) {
+            throw new TicTacToeException("children collection size is > " + Math.min(POSITION_MASK, MAX_CHILDREN));
+        }
+        this.rootSize = rootSize;
+        info = new int[INITIAL_CAPACITY];
+        links = new long[INITIAL_CAPACITY];
+        path = new int[rootSize + 1];
+        size = 0;
+        createNode(0, 0);
+        depth = 0;
+        path[0] = ROOT;
+    }
+
+    @Override
+    public void addNode(int position) throws TicTacToeException {
+        int parent = path[depth];
+        if(getChildrenNumber(parent) >= getMaxChildrenCapacity(parent)) {
+            throw new TicTacToeException("The children collection is full. You can not add more nodes!");
+        }
+        int node = createNode(position, getLevel(parent) + 1);
+        int child = getFirstChild(parent);
+        if(child == NIL) {
+            setFirstChild(parent, node);
+        } else {
+            while(getNextSibling(child) != NIL) {
+                child = getNextSibling(child);
+            }
+            setNextSibling(child, node);
+        }
+        info[parent] += 1 << CHILDREN_SHIFT;
+        path[++depth] = node;
+    }
+
+    @Override
+    public void moveToRoot() {
+        depth = 0;
+    }
+
+    @Override
+    public void moveToParent() {
+        if(depth > 0) {
+            depth--;
+        }
+    }
+
+    @Override
+    public void moveToChild(int position) throws NodeNotFoundException {
+        path[depth + 1] = findChild(position);
+        depth++;
+    }
+
+    @Override
+    public boolean tryMoveToChild(int position) {
+        int child = lookupChild(position);
+        if(child == NIL) {
+            return false;
+        }
+        path[depth + 1] = child;
+        depth++;
+        return true;
+    }
+
+    @Override
+    public NodeStatus getChildStatus(int position) throws NodeNotFoundException {
+        return getStatus(findChild(position));
+    }
+
+    @Override
+    public NodeStatus findChildStatus(int position) {
+        int child = lookupChild(position);
+        return child == NIL ? null : getStatus(child);
+    }
+
+    @Override
+    public int findChildPositionWithStatus(NodeStatus status) {
+        for(int child = getFirstChild(path[depth]); child != NIL; child = getNextSibling(child)) {
+            if(getStatus(child) == status) {
+                return getPosition(child);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getCurrentChildrenNumber() {
+        return getChildrenNumber(path[depth]);
+    }
+
+    @Override
+    public int getCurrentMaxChildrenCapacity() {
+        return getMaxChildrenCapacity(path[depth]);
+    }
+
+    @Override
+    public NodeStatus getCurrentStatus() {
+        return getStatus(path[depth]);
+    }
+
+    @Override
+    public void setCurrentStatus(NodeStatus status) {
+        setStatus(path[depth], status);
+    }
+
+    @Override
+    public NodeStatus getRootStatus() {
+        return getStatus(ROOT);
+    }
+
+    @Override
+    public int getRootMaxChildrenCapacity() {
+        return rootSize;
+    }
+
+    @Override
+    public void updateTreeStatus() throws UpdateStatusException {
+        if(getStatus(path[depth]) == NodeStatus.UNKNOWN) {
+            throw new UpdateStatusException("The node status is 'unknown'. It " +
+                    "should be changed before calling 'UpdateBranchStatus' method");
+        }
+        while(depth > 0) {
+            int node = path[--depth];
+            NodeStatus status = calcStatus(node);
+            if(status == NodeStatus.UNKNOWN || getStatus(node) != NodeStatus.UNKNOWN) {
+                return;
+            }
+            setStatus(node, status);
+        }
+    }
+
+    @Override
+    public long getNumberOfNodes() {
+        long numberOfNodes = 0;
+        for(int node = 0; node < size; node++) {
+            if(getLevel(node) >= 2) {
+                numberOfNodes++;
+            }
+        }
+        return numberOfNodes;
+    }
+
+    @Override
+    public long getNumberOfNodes(int level) {
+        long numberOfNodes = 0;
+        if(level <= 0) {
+            return numberOfNodes;
+        }
+        for(int node = 0; node < size; node++) {
+            if(getLevel(node) == level) {
+                numberOfNodes++;
+            }
+        }
+        return numberOfNodes;
+    }
+
+    @Override
+    public int getTreeDepth() {
+        int maxTreeDepth = 0;
+        for(int node = 0; node < size; node++) {
+            maxTreeDepth = Math.max(maxTreeDepth, getLevel(node));
+        }
+        return maxTreeDepth;
+    }
+
+    /**
+     * @return number of node slots allocated by the tree
+     */
+    public int getCapacity() {
+        return info.length;
+    }
+
+    /**
+     * Calculates the status of the node from the statuses of its children. The
+     * rules are the same as in {@link Tree}
+     */
+    private NodeStatus calcStatus(int node) {
+        int losers = 0;
+        int draws = 0;
+        int maxChildrenCapacity = getMaxChildrenCapacity(node);
+        boolean allChildrenHaveStatus = (maxChildrenCapacity == getChildrenNumber(node));
+
+        for(int child = getFirstChild(node); child != NIL; child = getNextSibling(child)) {
+            switch (getStatus(child)) {
+                case WIN:
+                    // if a Child wins then Parent loses
+                    return NodeStatus.LOSE;
+                case LOSE:
+                    losers++;
+                    break;
+                case DRAW:
+                    draws++;
+                    break;
+                default:
+                    allChildrenHaveStatus = false;
+                    break;
+            }
+        }
+
+        if(losers == maxChildrenCapacity) {
+            return NodeStatus.WIN;
+        } else if(draws == maxChildrenCapacity || allChildrenHaveStatus) {
+            return NodeStatus.DRAW;
+        }
+        return NodeStatus.UNKNOWN;
+    }
+
+    private int findChild(int position) throws NodeNotFoundException {
+        int child = lookupChild(position);
+        if(child == NIL) {
+            throw new NodeNotFoundException("Node with position " + position + " is not found");
+        }
+        return child;
+    }
+
+    private int lookupChild(int position) {
+        for(int child = getFirstChild(path[depth]); child != NIL; child = getNextSibling(child)) {
+            if(getPosition(child) == position) {
+                return child;
+            }
+        }
+        return NIL;
+    }
+
+    private int createNode(int position, int level) {
+        if(size == info.length) {
+            info = Arrays.copyOf(info, size * 2);
+            links = Arrays.copyOf(links, size * 2);
+        }
+        int node = size++;
+        info[node] = NodeStatus.UNKNOWN.ordinal()
+                | (position & POSITION_MASK) << POSITION_SHIFT
+                | (level & LEVEL_MASK) << LEVEL_SHIFT;
+        links[node] = pack(NIL, NIL);
+        return node;
+    }
+
+    private NodeStatus getStatus(int node) {
+        return STATUSES[info[node] & STATUS_MASK];
+    }
+
+    private void setStatus(int node, NodeStatus status) {
+        info[node] = (info[node] & ~STATUS_MASK) | status.ordinal();
+    }
+
+    private int getPosition(int node) {
+        return (info[node] >>> POSITION_SHIFT) & POSITION_MASK;
+    }
+
+    private int getLevel(int node) {
+        return (info[node] >>> LEVEL_SHIFT) & LEVEL_MASK;
+    }
+
+    private int getChildrenNumber(int node) {
+        return info[node] >>> CHILDREN_SHIFT;
+    }
+
+    private int getMaxChildrenCapacity(int node) {
+        return rootSize - getLevel(node);
+    }
+
+    private int getFirstChild(int node) {
+        return (int) (links[node] >>> 32);
+    }
+
+    private int getNextSibling(int node) {
+        return (int) links[node];
+    }
+
+    private void setFirstChild(int node, int child) {
+        links[node] = pack(child, getNextSibling(node));
+    }
+
+    private void setNextSibling(int node, int sibling) {
+        links[node] = pack(getFirstChild(node), sibling);
+    }
+
+    private static long pack(int firstChild, int nextSibling) {
+        return ((long) firstChild << 32) | (nextSibling & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,230 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * ConcurrentTree is the node store which can be shared by many games at once.
+ * It has no Current node, every game walks the tree with its own
+ * {@link TreeCursor} (see {@link #newCursor()}). Children of a node are kept in
+ * slots indexed by their position on the game board, a new child is inserted
+ * by CAS, so two games adding the same position end up on the same node.
+ * Statuses are changed by CAS from UNKNOWN only, no global lock is needed
+ * @author Yury Dorofeev
+ * @version 2016-09-24
+ */
+public class ConcurrentTree {
+    private final ConcurrentNode root;
+    private final int rootSize;
+    private final AtomicLongArray numberOfNodesPerLevel;
+
+    public ConcurrentTree(int rootSize) throws TicTacToeException {
+        if(rootSize < 0) {
+            throw new TicTacToeException("children collection size is < 0");
+        }
+        this.rootSize = rootSize;
+        this.root = new ConcurrentNode(null, 0, 0, rootSize);
+        this.numberOfNodesPerLevel = new AtomicLongArray(rootSize + 1);
+    }
+
+    /**
+     * Builds the tree with the nodes and the statuses of the snapshot. The
+     * records are read in their preorder, the Current node of the snapshot is not used
+     * @param source snapshot to copy
+     * @return new tree
+     * @throws TicTacToeException if the snapshot is invalid
+     */
+    public static ConcurrentTree copyOf(MappedTree source) throws TicTacToeException {
+        ConcurrentTree tree = new ConcurrentTree(source.getRootMaxChildrenCapacity());
+        tree.root.setStatus(source.getStatus(0));
+        tree.copyChildren(source, 0, tree.root);
+        return tree;
+    }
+
+    /**
+     * @return new cursor placed at the root, a cursor must not be shared between threads
+     */
+    public TreeCursor newCursor() {
+        return new TreeCursor(this);
+    }
+
+    public int getRootSize() {
+        return rootSize;
+    }
+
+    ConcurrentNode getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the child of the node with the given position, creates it if
+     * there is no such child yet. If another thread inserts the same child
+     * first its node is returned
+     * @throws TicTacToeException if the position is out of the board or the node can not have more children
+     */
+    ConcurrentNode getOrAddChild(ConcurrentNode node, int position) throws TicTacToeException {
+        if(position < 0 || position >= rootSize) {
+            throw new TicTacToeException("Position " + position + " is out of the game board");
+        }
+        ConcurrentNode child = node.getChild(position);
+        if(child != null) {
+            return child;
+        }
+        if(node.getChildrenNumber() >= node.maxChildrenCapacity) {
+            throw new TicTacToeException("The children collection is full. You can not add more nodes!");
+        }
+        ConcurrentNode newChild = new ConcurrentNode(node, position, node.level + 1, node.maxChildrenCapacity - 1);
+        if(node.casChild(position, newChild)) {
+            numberOfNodesPerLevel.incrementAndGet(newChild.level);
+            return newChild;
+        }
+        return node.getChild(position);
+    }
+
+    /**
+     * The children of a record follow it, every child is followed by its subtree
+     */
+    private void copyChildren(MappedTree source, int record, ConcurrentNode node) throws TicTacToeException {
+        int child = record + 1;
+        for(int i = 0; i < source.getChildrenNumber(record); i++) {
+            ConcurrentNode copy = getOrAddChild(node, source.getPosition(child));
+            copy.setStatus(source.getStatus(child));
+            copyChildren(source, child, copy);
+            child += source.getSubtreeSize(child);
+        }
+    }
+
+    /**
+     * @return number of nodes below the first level, the same as {@link Tree#getNumberOfNodes()}
+     */
+    public long getNumberOfNodes() {
+        long numberOfNodes = 0;
+        for(int level = 2; level <= rootSize; level++) {
+            numberOfNodes += numberOfNodesPerLevel.get(level);
+        }
+        return numberOfNodes;
+    }
+
+    public long getNumberOfNodes(int level) {
+        if(level <= 0 || level > rootSize) {
+            return 0;
+        }
+        return numberOfNodesPerLevel.get(level);
+    }
+
+    public int getTreeDepth() {
+        for(int level = rootSize; level > 0; level--) {
+            if(numberOfNodesPerLevel.get(level) > 0) {
+                return level;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Calculates the status of the node from the statuses of its children.
+     * The rules are the same as in {@link Tree}
+     */
+    static NodeStatus calcStatus(ConcurrentNode node) {
+        int losers = 0;
+        int draws = 0;
+        boolean allChildrenHaveStatus = node.getChildrenNumber() == node.maxChildrenCapacity;
+
+        for(int position = 0; position < node.getSlotsNumber(); position++) {
+            ConcurrentNode child = node.getChild(position);
+            if(child == null) {
+                continue;
+            }
+            switch (child.getStatus()) {
+                case WIN:
+                    // if a Child wins then Parent loses
+                    return NodeStatus.LOSE;
+                case LOSE:
+                    losers++;
+                    break;
+                case DRAW:
+                    draws++;
+                    break;
+                default:
+                    allChildrenHaveStatus = false;
+                    break;
+            }
+        }
+
+        if(losers == node.maxChildrenCapacity) {
+            return NodeStatus.WIN;
+        } else if(draws == node.maxChildrenCapacity || allChildrenHaveStatus) {
+            return NodeStatus.DRAW;
+        }
+        return NodeStatus.UNKNOWN;
+    }
+
+    /**
+     * Node of the ConcurrentTree. Position, level and parent never change,
+     * children slots and the status are updated atomically
+     */
+    static final class ConcurrentNode {
+        private static final AtomicReferenceFieldUpdater<ConcurrentNode, NodeStatus> STATUS =
+                AtomicReferenceFieldUpdater.newUpdater(ConcurrentNode.class, NodeStatus.class, "status");
+
+        final ConcurrentNode parent;
+        final int position;
+        final int level;
+        final int maxChildrenCapacity;
+        private final AtomicReferenceArray<ConcurrentNode> children; // indexed by position, null for a leaf
+        private volatile NodeStatus status = NodeStatus.UNKNOWN;
+
+        ConcurrentNode(ConcurrentNode parent, int position, int level, int maxChildrenCapacity) {
+            this.parent = parent;
+            this.position = position;
+            this.level = level;
+            this.maxChildrenCapacity = maxChildrenCapacity;
+            int slots = parent == null ? maxChildrenCapacity : parent.getSlotsNumber();
+            this.children = maxChildrenCapacity > 0 ? new AtomicReferenceArray<ConcurrentNode>(slots) : null;
+        }
+
+        int getSlotsNumber() {
+            return children == null ? 0 : children.length();
+        }
+
+        ConcurrentNode getChild(int position) {
+            return children == null ? null : children.get(position);
+        }
+
+        boolean casChild(int position, ConcurrentNode child) {
+            return children.compareAndSet(position, null, child);
+        }
+
+        /**
+         * Children are counted by their slots, so the number is never ahead of
+         * or behind the children which can be seen
+         */
+        int getChildrenNumber() {
+            int childrenNumber = 0;
+            for(int position = 0; position < getSlotsNumber(); position++) {
+                if(children.get(position) != null) {
+                    childrenNumber++;
+                }
+            }
+            return childrenNumber;
+        }
+
+        NodeStatus getStatus() {
+            return status;
+        }
+
+        void setStatus(NodeStatus status) {
+            this.status = status;
+        }
+
+        /**
+         * @return true if the status was UNKNOWN and is changed by this call
+         */
+        boolean updateUnknownStatus(NodeStatus status) {
+            return STATUS.compareAndSet(this, NodeStatus.UNKNOWN, status);
+        }
+    }
+}
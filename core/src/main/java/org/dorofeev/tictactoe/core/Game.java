@@ -1,8 +1,6 @@
 package org.dorofeev.tictactoe.core;
 
-import org.dorofeev.tictactoe.core.exception.NodeNotFoundException;
 import org.dorofeev.tictactoe.core.exception.TicTacToeException;
-import org.dorofeev.tictactoe.core.exception.CreateNewNodeException;
 import org.dorofeev.tictactoe.core.exception.UpdateStatusException;
 
 import java.util.ArrayList;
@@ -13,27 +11,148 @@ import java.util.ArrayList;
  * @version 2015-09-07
  */
 public class Game {
+    private static final int NEW_NODE_POSITION = -1;
     private ArrayList<NodeStatus> nodeStatusPrioritySchema;
-    private Tree tree;
-    private ArrayList<GameFigure> gameBoard;
+    private GameTree tree;
+    private MoveEngine moveEngine;
+    private GameBoard gameBoard;
+    private BoardGeometry geometry;
 
     /**
-     * Method starts new game instance. Builds new tree or continue building the
-     * previous one
+     * Method starts new game instance. Builds new tree, or the move engine if
+     * the regime uses one
      * @param boardSize the size of the the game board
      * @param gameRegime
      */
     public Game(GameBoardSize boardSize, GameRegime gameRegime) throws TicTacToeException {
+        this(BoardGeometry.of(boardSize), gameRegime);
+    }
+
+    /**
+     * Method starts new game instance on a board of any geometry, e.g. 15x15
+     * with 5 in a row. Builds new tree, or the move engine if the regime uses one
+     * @param geometry the shape of the game board
+     * @param gameRegime
+     * @throws TicTacToeException if the regime uses a move engine which does not support the geometry
+     */
+    public Game(BoardGeometry geometry, GameRegime gameRegime) throws TicTacToeException {
+        this(geometry, gameRegime, gameRegime.usesMoveEngine() ? null : new Tree(geometry.getSize()));
+    }
+
+    /**
+     * Method starts new game instance without a tree and a move engine, the
+     * players choose all the moves, e.g. the players of a {@link SelfPlayDriver}
+     * @param boardSize the size of the the game board
+     */
+    public Game(GameBoardSize boardSize) {
+        this(BoardGeometry.of(boardSize));
+    }
+
+    /**
+     * Method starts new game instance on a board of any geometry without a
+     * tree and a move engine, the players choose all the moves
+     * @param geometry the shape of the game board
+     */
+    public Game(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.gameBoard = geometry.createGameBoard();
+    }
+
+    /**
+     * Method starts new game instance where the computer moves are chosen by
+     * the move engine, no tree is used
+     * @param boardSize the size of the the game board
+     * @param moveEngine the engine, e.g. {@link PerfectPlaySolver} or {@link NegamaxEngine}
+     * @throws TicTacToeException if the engine is empty
+     */
+    public Game(GameBoardSize boardSize, MoveEngine moveEngine) throws TicTacToeException {
+        this(BoardGeometry.of(boardSize), moveEngine);
+    }
 
-        if(tree == null || tree.getRoot().getMaxChildrenCapacity() != boardSize.getValue()) {
-            tree = new Tree(boardSize.getValue());
+    /**
+     * Method starts new game instance on a board of any geometry where the
+     * computer moves are chosen by the move engine, no tree is used
+     * @param geometry the shape of the game board
+     * @param moveEngine the engine
+     * @throws TicTacToeException if the engine is empty
+     */
+    public Game(BoardGeometry geometry, MoveEngine moveEngine) throws TicTacToeException {
+        if(moveEngine == null) {
+            throw new TicTacToeException("The move engine is empty");
         }
-        else {
-            tree.moveToRoot();
+        this.geometry = geometry;
+        this.moveEngine = moveEngine;
+        this.gameBoard = geometry.createGameBoard();
+    }
+
+    /**
+     * Method starts new game instance on the given tree. The tree can be a new
+     * one or the tree of the previous game, in this case building continues
+     * @param boardSize the size of the the game board
+     * @param gameRegime
+     * @param tree the tree backend, e.g. {@link Tree} or {@link CompactTree}
+     * @throws TicTacToeException if the tree does not match the board size
+     */
+    public Game(GameBoardSize boardSize, GameRegime gameRegime, GameTree tree) throws TicTacToeException {
+        this(BoardGeometry.of(boardSize), gameRegime, tree);
+    }
+
+    /**
+     * Method starts new game instance on a board of any geometry on the given tree
+     * @param geometry the shape of the game board
+     * @param gameRegime
+     * @param tree the tree backend, e.g. {@link Tree} or {@link CompactTree}
+     * @throws TicTacToeException if the tree does not match the board size
+     */
+    public Game(BoardGeometry geometry, GameRegime gameRegime, GameTree tree) throws TicTacToeException {
+        this(geometry, gameRegime, tree, geometry.createGameBoard());
+    }
+
+    /**
+     * Method starts new game instance on the given tree and game board
+     * @param boardSize the size of the the game board
+     * @param gameRegime
+     * @param tree the tree backend, e.g. {@link Tree} or {@link CompactTree}
+     * @param gameBoard the board backend, e.g. {@link IncrementalGameBoard}, {@link BitGameBoard} or {@link ListGameBoard}
+     * @throws TicTacToeException if the tree or the game board does not match the board size,
+     * or a tree is given for the regime which uses a move engine
+     */
+    public Game(GameBoardSize boardSize, GameRegime gameRegime, GameTree tree, GameBoard gameBoard) throws TicTacToeException {
+        this(BoardGeometry.of(boardSize), gameRegime, tree, gameBoard);
+    }
+
+    /**
+     * Method starts new game instance on a board of any geometry on the given tree and game board
+     * @param geometry the shape of the game board
+     * @param gameRegime
+     * @param tree the tree backend, e.g. {@link Tree} or {@link CompactTree}
+     * @param gameBoard the board backend, e.g. {@link PackedGameBoard}
+     * @throws TicTacToeException if the tree or the game board does not match the board size,
+     * a tree is given for the regime which uses a move engine, or the move engine
+     * does not support the geometry
+     */
+    public Game(BoardGeometry geometry, GameRegime gameRegime, GameTree tree, GameBoard gameBoard) throws TicTacToeException {
+        if(gameBoard.getSize() != geometry.getSize()) {
+            throw new TicTacToeException("The game board does not match the board size " + geometry);
         }
+        this.geometry = geometry;
+        this.gameBoard = gameBoard;
+        if(gameRegime.usesMoveEngine()) {
+            if(tree != null) {
+                throw new TicTacToeException("The regime " + gameRegime + " does not use a tree");
+            }
+            this.moveEngine = createMoveEngine(geometry, gameRegime);
+            gameBoard.clear();
+            return;
+        }
+        if(tree.getRootMaxChildrenCapacity() != geometry.getSize()) {
+            throw new TicTacToeException("The tree does not match the board size " + geometry);
+        }
+        this.tree = tree;
+        tree.moveToRoot();
 
         initNodeStatusPrioritySchema(gameRegime);
-        initGameBoard(boardSize.getValue());
+        gameBoard.clear();
     }
 
     /**
@@ -42,10 +161,11 @@ public class Game {
      * @throws TicTacToeException if container is already occupied
      */
     public void makeNewMove(GameFigure figure, int position) throws TicTacToeException {
-        try {
-            Node node = tree.findChildNodeWithGivenPosition(position);
-            tree.moveToChild(node);
-        } catch(NodeNotFoundException e) {
+        if(tree == null) {
+            gameBoard.set(position, figure);
+            return;
+        }
+        if(!tree.tryMoveToChild(position)) {
             tree.addNode(position);
         }
         gameBoard.set(position, figure);
@@ -54,35 +174,42 @@ public class Game {
     /**
      * Method registers new step
      * @return new position on the game board
-     * @throws TicTacToeException
+     * @throws TicTacToeException if the game has neither a tree nor a move engine to choose the move
      */
     public int makeNewMove(GameFigure figure) throws TicTacToeException {
         int position;
-        try {
-            Node node = findBestNode();
-            position = node.getPosition();
-            try {
-                tree.moveToChild(node);
-            } catch (NodeNotFoundException e) {
-                throw new TicTacToeException(e.getMessage());
-            }
-        } catch (CreateNewNodeException e) {
+        if(moveEngine != null) {
+            position = moveEngine.findBestMove(gameBoard, figure);
+            gameBoard.set(position, figure);
+            return position;
+        }
+        if(tree == null) {
+            throw new TicTacToeException("The game has no tree or move engine to choose the move");
+        }
+        position = findBestPosition();
+        if(position == NEW_NODE_POSITION) {
             position = findEmptyPositionForNewNode();
             tree.addNode(position);
+        } else if(!tree.tryMoveToChild(position)) {
+            throw new TicTacToeException("Node with position " + position + " is not found");
         }
         gameBoard.set(position, figure);
         return position;
     }
 
     public void gameOver(GameStatus status) throws TicTacToeException {
-        tree.getCurrentNode().setStatus(mapNodeStatus(status));
+        if(tree == null) {
+            gameBoard.clear();
+            return;
+        }
+        tree.setCurrentStatus(mapNodeStatus(status));
         try {
             tree.updateTreeStatus();
         } catch (UpdateStatusException e) {
             throw new TicTacToeException(e.getMessage());
         }
         tree.moveToRoot();
-        initGameBoard(tree.getRoot().getMaxChildrenCapacity());
+        gameBoard.clear();
     }
 
     private NodeStatus mapNodeStatus(GameStatus gameStatus) throws TicTacToeException {
@@ -97,152 +224,62 @@ public class Game {
     }
 
     public GameStatus getGameStatus() {
-        if (checkRows() == GameStatus.WIN) {
-            return GameStatus.WIN;
-        }
-
-        if (checkColumns() == GameStatus.WIN) {
-            return GameStatus.WIN;
-        }
-
-        if (checkDiagonals() == GameStatus.WIN) {
-            return GameStatus.WIN;
-        }
-
-        for(GameFigure figure: gameBoard) {
-            if(figure.equals(GameFigure.EMPTY)) {
-                return GameStatus.CONTINUE;
-            }
-        }
-
-        return GameStatus.DRAW;
+        return gameBoard.getGameStatus();
     }
 
+    /**
+     * @return the tree of the game if it is built with {@link Tree} backend, otherwise null
+     */
     public Tree getTree() {
-        return tree;
+        return tree instanceof Tree ? (Tree) tree : null;
     }
 
-    private GameStatus checkDiagonals() {
-
-        if(checkLeftDiagonal() == GameStatus.WIN) {
-            return GameStatus.WIN;
-        }
-        if(checkRightDiagonal() == GameStatus.WIN) {
-            return GameStatus.WIN;
-        }
-        return GameStatus.CONTINUE;
+    /**
+     * @return the tree of the game or null if the moves are chosen by a move engine or by the players
+     */
+    public GameTree getGameTree() {
+        return tree;
     }
 
-    private GameStatus checkRightDiagonal() {
-        int boardSize = tree.getRoot().getMaxChildrenCapacity();
-        int boardSQRT = (int)Math.sqrt(tree.getRoot().getMaxChildrenCapacity());
-        GameFigure figure = gameBoard.get(boardSize-boardSQRT);
-
-        if(figure == GameFigure.EMPTY) {
-            return GameStatus.CONTINUE;
-        }
-
-        for(int i = boardSize-boardSQRT; i>= boardSQRT-1; i-=(boardSQRT-1)) {
-            if(!ifFigureMatch(figure, i)) {
-                return GameStatus.CONTINUE;
-            }
-        }
-        return GameStatus.WIN;
+    /**
+     * @return the move engine of the game or null if the moves are chosen by the tree
+     */
+    public MoveEngine getMoveEngine() {
+        return moveEngine;
     }
 
-    private GameStatus checkLeftDiagonal() {
-        int boardSize = tree.getRoot().getMaxChildrenCapacity();
-        int boardSQRT = (int)Math.sqrt(tree.getRoot().getMaxChildrenCapacity());
-        GameFigure figure = gameBoard.get(0);
-
-        if(figure == GameFigure.EMPTY) {
-            return GameStatus.CONTINUE;
-        }
-
-        for(int i = 0; i<boardSize; i+=boardSQRT+1) {
-            if(!ifFigureMatch(figure, i)) {
-                return GameStatus.CONTINUE;
-            }
-        }
-        return GameStatus.WIN;
+    public GameBoard getGameBoard() {
+        return gameBoard;
     }
 
-    private GameStatus checkRows() {
-        int boardSize = tree.getRoot().getMaxChildrenCapacity();
-        int boardSQRT = (int)Math.sqrt(tree.getRoot().getMaxChildrenCapacity());
-        int index;
-        GameFigure figure = GameFigure.EMPTY;
-        boolean match = false;
-
-        for(int i=0; i<boardSize; i+=boardSQRT ) {
-            for(int j=0; j<boardSQRT; j++ ) {
-                index = i + j;
-
-                if(gameBoard.get(index) == GameFigure.EMPTY) {
-                    match = false;
-                    break;
-                }
-                if(j==0) {
-                    figure = gameBoard.get(index);
-                } else {
-                    match = ifFigureMatch(figure, index);
-                    if(!match) {
-                        break;
-                    }
-                }
-            }
-            if(match) {
-                return GameStatus.WIN;
-            }
-
-        }
-        return GameStatus.CONTINUE;
+    public BoardGeometry getGeometry() {
+        return geometry;
     }
 
-    private GameStatus checkColumns() {
-        int boardSize = tree.getRoot().getMaxChildrenCapacity();
-        int boardSQRT = (int)Math.sqrt(tree.getRoot().getMaxChildrenCapacity());
-        int index;
-        GameFigure figure = GameFigure.EMPTY;
-        boolean match = false;
-
-        for(int i=0; i<boardSQRT; i++) {
-            for(int j=0; j<boardSize; j+=boardSQRT) {
-                index = i+j;
-
-                if(gameBoard.get(index) == GameFigure.EMPTY) {
-                    match = false;
-                    break;
-                }
-                if(j==0) {
-                    figure = gameBoard.get(index);
-                } else {
-                    match = ifFigureMatch(figure, index);
-                    if(!match) {
-                        break;
-                    }
-                }
-            }
-            if(match) {
-                return GameStatus.WIN;
-            }
+    /**
+     * The engines play on bit masks of the classic square boards only
+     */
+    private static MoveEngine createMoveEngine(BoardGeometry geometry, GameRegime gameRegime) throws TicTacToeException {
+        GameBoardSize boardSize = geometry.getBoardSize();
+        if(boardSize == null) {
+            throw new TicTacToeException("The regime " + gameRegime + " does not support the board " + geometry);
+        }
+        switch(gameRegime) {
+            case PERFECT:
+                return new PerfectPlaySolver(boardSize);
+            case SEARCH:
+                return new NegamaxEngine(boardSize);
+            case MCTS:
+                return new MctsEngine(boardSize);
+            default:
+                throw new TicTacToeException("The regime " + gameRegime + " does not use a move engine");
         }
-        return GameStatus.CONTINUE;
-    }
-
-    private boolean ifFigureMatch(GameFigure figure, int index){
-        return gameBoard.get(index) == figure;
     }
 
     private int findEmptyPositionForNewNode() throws TicTacToeException {
-        for(int i=0; i<gameBoard.size(); i++) {
-            if(gameBoard.get(i) == GameFigure.EMPTY) {
-
-                try {
-                    tree.findChildNodeWithGivenPosition(i);
-                } catch (NodeNotFoundException e) {
-                    return i;
-                }
+        for(int i=0; i<gameBoard.getSize(); i++) {
+            if(gameBoard.get(i) == GameFigure.EMPTY && tree.findChildStatus(i) == null) {
+                return i;
             }
         }
         throw new TicTacToeException("There are no empty slots on the game board");
@@ -250,22 +287,20 @@ public class Game {
 
     /**
      * Finds the best Node according to the Priority schema
-     * @return Node best node
-     * @exception TicTacToeException if there are no empty slots left,
-     * CreateNewNodeException if a new node should be created
+     * @return position of the best node or NEW_NODE_POSITION if a new node should be created
+     * @exception TicTacToeException if there are no empty slots left
      */
-    private Node findBestNode() throws CreateNewNodeException, TicTacToeException {
+    private int findBestPosition() throws TicTacToeException {
 
         for(NodeStatus status : nodeStatusPrioritySchema) {
 
-            if(status == NodeStatus.NEW_NODE && tree.getCurrentNode().getChildren().size() < tree.getCurrentNode().getMaxChildrenCapacity()) {
-                throw new CreateNewNodeException("New node should be created");
+            if(status == NodeStatus.NEW_NODE && tree.getCurrentChildrenNumber() < tree.getCurrentMaxChildrenCapacity()) {
+                return NEW_NODE_POSITION;
             }
 
-            for(Node node : tree.getCurrentNode().getChildren()) {
-                if( node.getStatus() == status) {
-                    return node;
-                }
+            int position = tree.findChildPositionWithStatus(status);
+            if(position >= 0) {
+                return position;
             }
         }
         throw new TicTacToeException("Node not found");
@@ -294,11 +329,4 @@ public class Game {
             nodeStatusPrioritySchema.add(NodeStatus.LOSE);
         }
     }
-
-    private void initGameBoard(int boardSize){
-        gameBoard = new ArrayList<GameFigure>(boardSize);
-        for(int i=0; i<boardSize; i++){
-            gameBoard.add(i, GameFigure.EMPTY);
-        }
-    }
 }
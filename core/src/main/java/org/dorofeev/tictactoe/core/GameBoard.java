@@ -0,0 +1,29 @@
+package org.dorofeev.tictactoe.core;
+
+/**
+ * GameBoard stores the figures on the game board and calculates the game status
+ * @author Yury Dorofeev
+ * @version 2016-09-14
+ */
+public interface GameBoard {
+
+    /**
+     * @return number of cells on the game board
+     */
+    int getSize();
+
+    GameFigure get(int position);
+
+    void set(int position, GameFigure figure);
+
+    /**
+     * @return WIN if any row, column or diagonal is filled with one figure,
+     * DRAW if there are no empty cells left, otherwise CONTINUE
+     */
+    GameStatus getGameStatus();
+
+    /**
+     * Makes all the cells empty
+     */
+    void clear();
+}
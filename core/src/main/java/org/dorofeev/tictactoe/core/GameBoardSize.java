@@ -1,5 +1,7 @@
 package org.dorofeev.tictactoe.core;
 
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
 /**
  * GameBoardSize collection
  * @author Yury Dorofeev
@@ -16,4 +18,12 @@ public enum GameBoardSize {
     public int getValue(){
         return value;
     }
+    public static GameBoardSize fromValue(int value) throws TicTacToeException {
+        for(GameBoardSize boardSize : values()) {
+            if(boardSize.value == value) {
+                return boardSize;
+            }
+        }
+        throw new TicTacToeException("Invalid board size: " + value);
+    }
 }
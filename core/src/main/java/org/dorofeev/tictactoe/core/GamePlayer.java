@@ -0,0 +1,20 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+/**
+ * GamePlayer makes the moves of one figure in the {@link SelfPlayDriver}
+ * @author Yury Dorofeev
+ * @version 2016-10-10
+ */
+public interface GamePlayer {
+
+    /**
+     * Makes the move in the game, the game status is checked by the driver
+     * @param game the game, the move is made with one of its makeNewMove methods
+     * @param figure figure which makes the move
+     * @return position of the move
+     * @throws TicTacToeException if the move can not be made
+     */
+    int makeMove(Game game, GameFigure figure) throws TicTacToeException;
+}
@@ -7,5 +7,15 @@ package org.dorofeev.tictactoe.core;
  */
 public enum GameRegime {
     LEARNING,
-    BATTLE
+    BATTLE,
+    PERFECT,    // perfect play on 3x3 by the PerfectPlaySolver, no tree
+    SEARCH,     // alpha-beta search by the NegamaxEngine, no tree
+    MCTS;       // Monte Carlo tree search by the MctsEngine, no tree
+
+    /**
+     * @return true if the moves are chosen by a {@link MoveEngine} instead of the tree
+     */
+    public boolean usesMoveEngine() {
+        return this == PERFECT || this == SEARCH || this == MCTS;
+    }
 }
@@ -0,0 +1,21 @@
+package org.dorofeev.tictactoe.core;
+
+/**
+ * GameResultSink receives the result of every game of the {@link SelfPlayDriver}
+ * @author Yury Dorofeev
+ * @version 2016-10-10
+ */
+public interface GameResultSink {
+    GameResultSink NONE = new GameResultSink() {
+        @Override
+        public void gameOver(GameStatus status, GameFigure winner, int numberOfMoves) {
+        }
+    };
+
+    /**
+     * @param status WIN or DRAW
+     * @param winner figure which made the last move of the won game, EMPTY for a draw
+     * @param numberOfMoves number of moves in the game
+     */
+    void gameOver(GameStatus status, GameFigure winner, int numberOfMoves);
+}
@@ -0,0 +1,87 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.NodeNotFoundException;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.dorofeev.tictactoe.core.exception.UpdateStatusException;
+
+/**
+ * GameTree is the storage of the learned game positions. Every implementation
+ * keeps a Current node which follows the moves of the game, nodes are
+ * addressed by their position on the game board
+ * @author Yury Dorofeev
+ * @version 2016-09-12
+ */
+public interface GameTree {
+
+    /**
+     * Method adds new Child node to the Current node and moves Current node to the new one
+     * @param position position on the game board
+     * @throws TicTacToeException if the Current node can not have more children
+     */
+    void addNode(int position) throws TicTacToeException;
+
+    void moveToRoot();
+
+    void moveToParent();
+
+    /**
+     * Method moves Current node to its child with the given position
+     * @param position position on the game board
+     * @throws NodeNotFoundException if there is no such child
+     */
+    void moveToChild(int position) throws NodeNotFoundException;
+
+    /**
+     * Method moves Current node to its child with the given position if there
+     * is one. Unlike {@link #moveToChild(int)} it does not throw, so it is the
+     * one to use in the game loop where a missing child is a normal case
+     * @param position position on the game board
+     * @return false if there is no such child, the Current node is not changed then
+     */
+    boolean tryMoveToChild(int position);
+
+    /**
+     * @param position position on the game board
+     * @return status of the Current node child with the given position
+     * @throws NodeNotFoundException if there is no such child
+     */
+    NodeStatus getChildStatus(int position) throws NodeNotFoundException;
+
+    /**
+     * @param position position on the game board
+     * @return status of the Current node child with the given position or null if there is no such child
+     */
+    NodeStatus findChildStatus(int position);
+
+    /**
+     * Finds the first child (in the order children were added) of the Current node with the given status
+     * @param status node status
+     * @return position of the child or -1 if there is no such child
+     */
+    int findChildPositionWithStatus(NodeStatus status);
+
+    int getCurrentChildrenNumber();
+
+    int getCurrentMaxChildrenCapacity();
+
+    NodeStatus getCurrentStatus();
+
+    void setCurrentStatus(NodeStatus status);
+
+    NodeStatus getRootStatus();
+
+    int getRootMaxChildrenCapacity();
+
+    /**
+     * Method updates status of all the nodes in the current branch (up to the
+     * root). Call this method when the game is over. Update current node status
+     * before calling this method!
+     */
+    void updateTreeStatus() throws UpdateStatusException;
+
+    long getNumberOfNodes();
+
+    long getNumberOfNodes(int level);
+
+    int getTreeDepth();
+}
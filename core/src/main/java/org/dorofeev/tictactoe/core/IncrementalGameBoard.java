@@ -0,0 +1,127 @@
+package org.dorofeev.tictactoe.core;
+
+/**
+ * IncrementalGameBoard keeps for every row, column and diagonal the number of
+ * X and O figures on it plus the number of occupied cells. A move updates
+ * only the lines going through its position, so the cost of a move and of
+ * the status check does not depend on the board size
+ * @author Yury Dorofeev
+ * @version 2016-09-16
+ */
+public class IncrementalGameBoard implements GameBoard {
+    private static final int[][][] POSITION_LINES = new int[GameBoardSize.values().length][][];
+
+    static {
+        for(GameBoardSize boardSize : GameBoardSize.values()) {
+            POSITION_LINES[boardSize.ordinal()] = buildPositionLines((int)Math.sqrt(boardSize.getValue()));
+        }
+    }
+
+    private final int boardSize;
+    private final int lineLength;
+    private final int[][] positionLines;  // indexes of the lines going through each position
+    private final GameFigure[] cells;
+    private final int[] xCounters;
+    private final int[] oCounters;
+    private int numberOfMoves;
+    private int completedLines;
+
+    public IncrementalGameBoard(GameBoardSize boardSize) {
+        this.boardSize = boardSize.getValue();
+        this.lineLength = (int)Math.sqrt(this.boardSize);
+        this.positionLines = POSITION_LINES[boardSize.ordinal()];
+        cells = new GameFigure[this.boardSize];
+        xCounters = new int[2 * lineLength + 2];
+        oCounters = new int[2 * lineLength + 2];
+        clear();
+    }
+
+    @Override
+    public int getSize() {
+        return boardSize;
+    }
+
+    @Override
+    public GameFigure get(int position) {
+        return cells[position];
+    }
+
+    @Override
+    public void set(int position, GameFigure figure) {
+        GameFigure previous = cells[position];
+        if(previous == figure) {
+            return;
+        }
+        if(previous != GameFigure.EMPTY) {
+            updateCounters(position, previous, -1);
+            numberOfMoves--;
+        }
+        if(figure != GameFigure.EMPTY) {
+            updateCounters(position, figure, 1);
+            numberOfMoves++;
+        }
+        cells[position] = figure;
+    }
+
+    @Override
+    public GameStatus getGameStatus() {
+        if(completedLines > 0) {
+            return GameStatus.WIN;
+        }
+        if(numberOfMoves == boardSize) {
+            return GameStatus.DRAW;
+        }
+        return GameStatus.CONTINUE;
+    }
+
+    @Override
+    public void clear() {
+        for(int i = 0; i < boardSize; i++) {
+            cells[i] = GameFigure.EMPTY;
+        }
+        for(int i = 0; i < xCounters.length; i++) {
+            xCounters[i] = 0;
+            oCounters[i] = 0;
+        }
+        numberOfMoves = 0;
+        completedLines = 0;
+    }
+
+    private void updateCounters(int position, GameFigure figure, int delta) {
+        int[] counters = figure == GameFigure.X ? xCounters : oCounters;
+        for(int line : positionLines[position]) {
+            if(counters[line] == lineLength) {
+                completedLines--;
+            }
+            counters[line] += delta;
+            if(counters[line] == lineLength) {
+                completedLines++;
+            }
+        }
+    }
+
+    /**
+     * Lines are numbered: rows, then columns, then the left and the right diagonal
+     */
+    private static int[][] buildPositionLines(int boardSQRT) {
+        int[][] lines = new int[boardSQRT * boardSQRT][];
+        for(int row = 0; row < boardSQRT; row++) {
+            for(int column = 0; column < boardSQRT; column++) {
+                boolean leftDiagonal = row == column;
+                boolean rightDiagonal = row + column == boardSQRT - 1;
+                int[] positionLines = new int[2 + (leftDiagonal ? 1 : 0) + (rightDiagonal ? 1 : 0)];
+                int index = 0;
+                positionLines[index++] = row;
+                positionLines[index++] = boardSQRT + column;
+                if(leftDiagonal) {
+                    positionLines[index++] = 2 * boardSQRT;
+                }
+                if(rightDiagonal) {
+                    positionLines[index] = 2 * boardSQRT + 1;
+                }
+                lines[row * boardSQRT + column] = positionLines;
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,242 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.NodeNotFoundException;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LearningEngine plays self-play games on several threads. The first moves
+ * (openings) are split between the workers, every worker learns its openings
+ * on its own thread-local {@link Tree} until they are solved or the games
+ * budget is over. At the end the worker trees are merged into the given tree
+ * and the statuses are recalculated bottom-up. Subtrees of different
+ * openings do not depend on each other, so the merged tree is the same as
+ * the one built by the sequential learner.
+ * A {@link ConcurrentTree} is learned in place, every worker plays on its own
+ * {@link TreeCursor}. A {@link LearningListener} can follow the progress,
+ * pause or stop the learning between the games
+ * @author Yury Dorofeev
+ * @version 2016-09-23
+ */
+public class LearningEngine {
+    private final int numberOfThreads;
+
+    public LearningEngine(int numberOfThreads) throws TicTacToeException {
+        if(numberOfThreads < 1) {
+            throw new TicTacToeException("number of threads is < 1");
+        }
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     * Method learns the tree by self-play, the tree can already contain the
+     * results of the previous learning
+     * @param tree tree to learn
+     * @param gameRegime regime of the self-play games
+     * @param numberOfGames max number of games to play
+     * @return number of games played
+     * @throws TicTacToeException if learning fails
+     */
+    public int learn(final Tree tree, final GameRegime gameRegime, int numberOfGames) throws TicTacToeException {
+        final GameBoardSize boardSize = GameBoardSize.fromValue(tree.getRootMaxChildrenCapacity());
+        final AtomicInteger gamesLeft = new AtomicInteger(numberOfGames);
+
+        List<Callable<Tree>> workers = new ArrayList<Callable<Tree>>();
+        for(final int[] openings : splitOpenings(boardSize)) {
+            workers.add(new Callable<Tree>() {
+                @Override
+                public Tree call() throws TicTacToeException {
+                    Tree workerTree = new Tree(boardSize.getValue());
+                    for(int opening : openings) {
+                        Node node = findChild(tree.getRoot(), opening);
+                        if(node != null) {
+                            mergeNode(node, addChild(workerTree.getRoot(), opening));
+                        }
+                    }
+                    learnOpenings(workerTree, boardSize, gameRegime, openings, gamesLeft, LearningListener.NONE);
+                    return workerTree;
+                }
+            });
+        }
+
+        for(Tree workerTree : runWorkers(workers)) {
+            mergeNode(workerTree.getRoot(), tree.getRoot());
+        }
+        updateStatus(tree.getRoot());
+        tree.moveToRoot();
+        tree.recount();
+        return numberOfGames - Math.max(0, gamesLeft.get());
+    }
+
+    /**
+     * Method learns the shared tree by self-play. The workers play on their
+     * own cursors of the same tree, so nothing has to be merged and the tree
+     * can be used by other games while it is learned
+     * @param tree tree to learn
+     * @param gameRegime regime of the self-play games
+     * @param numberOfGames max number of games to play
+     * @return number of games played
+     * @throws TicTacToeException if learning fails
+     */
+    public int learn(ConcurrentTree tree, GameRegime gameRegime, int numberOfGames) throws TicTacToeException {
+        return learn(tree, gameRegime, numberOfGames, LearningListener.NONE);
+    }
+
+    /**
+     * Method learns the shared tree by self-play, the listener is called around every game
+     * @param tree tree to learn
+     * @param gameRegime regime of the self-play games
+     * @param numberOfGames max number of games to play
+     * @param listener listener of the games
+     * @return number of games played
+     * @throws TicTacToeException if learning fails
+     */
+    public int learn(final ConcurrentTree tree, final GameRegime gameRegime, int numberOfGames,
+                     final LearningListener listener) throws TicTacToeException {
+        final GameBoardSize boardSize = GameBoardSize.fromValue(tree.getRootSize());
+        final AtomicInteger gamesLeft = new AtomicInteger(numberOfGames);
+
+        List<Callable<TreeCursor>> workers = new ArrayList<Callable<TreeCursor>>();
+        for(final int[] openings : splitOpenings(boardSize)) {
+            workers.add(new Callable<TreeCursor>() {
+                @Override
+                public TreeCursor call() throws TicTacToeException {
+                    TreeCursor cursor = tree.newCursor();
+                    learnOpenings(cursor, boardSize, gameRegime, openings, gamesLeft, listener);
+                    return cursor;
+                }
+            });
+        }
+
+        runWorkers(workers);
+        return numberOfGames - Math.max(0, gamesLeft.get());
+    }
+
+    /**
+     * Splits the first moves between the workers round-robin
+     */
+    private List<int[]> splitOpenings(GameBoardSize boardSize) {
+        int numberOfWorkers = Math.min(numberOfThreads, boardSize.getValue());
+        List<int[]> openingsPerWorker = new ArrayList<int[]>(numberOfWorkers);
+        for(int worker = 0; worker < numberOfWorkers; worker++) {
+            int[] openings = new int[(boardSize.getValue() - worker + numberOfWorkers - 1) / numberOfWorkers];
+            for(int i = 0; i < openings.length; i++) {
+                openings[i] = worker + i * numberOfWorkers;
+            }
+            openingsPerWorker.add(openings);
+        }
+        return openingsPerWorker;
+    }
+
+    private <T> List<T> runWorkers(List<Callable<T>> workers) throws TicTacToeException {
+        ExecutorService executor = Executors.newFixedThreadPool(workers.size());
+        try {
+            List<T> results = new ArrayList<T>(workers.size());
+            for(Future<T> future : executor.invokeAll(workers)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TicTacToeException("Learning is interrupted");
+        } catch (ExecutionException e) {
+            throw new TicTacToeException("Learning failed: " + e.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays games until all the given openings are solved, the games budget
+     * is over or the listener stops the learning
+     */
+    private void learnOpenings(GameTree workerTree, GameBoardSize boardSize, GameRegime gameRegime, int[] openings,
+                               AtomicInteger gamesLeft, LearningListener listener) throws TicTacToeException {
+        SelfPlayDriver driver = new SelfPlayDriver(new Game(boardSize, gameRegime, workerTree));
+        boolean unsolved = true;
+        while(unsolved) {
+            unsolved = false;
+            for(int opening : openings) {
+                if(isSolved(workerTree, opening)) {
+                    continue;
+                }
+                unsolved = true;
+                if(!isAllowed(listener)) {
+                    return;
+                }
+                if(gamesLeft.decrementAndGet() < 0) {
+                    return;
+                }
+                driver.playGame(opening);
+                listener.gamePlayed();
+            }
+        }
+    }
+
+    private static boolean isAllowed(LearningListener listener) throws TicTacToeException {
+        try {
+            return listener.beforeGame();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TicTacToeException("Learning is interrupted");
+        }
+    }
+
+    private static boolean isSolved(GameTree tree, int opening) {
+        try {
+            return tree.getChildStatus(opening) != NodeStatus.UNKNOWN;
+        } catch (NodeNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Copies the children of the source node (recursively) into the target
+     * node. Known statuses of the source replace unknown statuses of the target
+     */
+    private static void mergeNode(Node source, Node target) throws TicTacToeException {
+        for(Node sourceChild : source.getChildren()) {
+            Node targetChild = findChild(target, sourceChild.getPosition());
+            if(targetChild == null) {
+                targetChild = addChild(target, sourceChild.getPosition());
+            }
+            if(targetChild.getStatus() == NodeStatus.UNKNOWN) {
+                targetChild.setStatus(sourceChild.getStatus());
+            }
+            // the worker trees start from a copy of the target, so their weights already include it
+            targetChild.setWeight(Math.max(targetChild.getWeight(), sourceChild.getWeight()));
+            mergeNode(sourceChild, targetChild);
+        }
+    }
+
+    /**
+     * Recalculates unknown statuses bottom-up, the merged subtrees can solve their parents
+     */
+    private static void updateStatus(Node node) {
+        for(Node child : node.getChildren()) {
+            updateStatus(child);
+        }
+        if(node.getStatus() == NodeStatus.UNKNOWN) {
+            node.setStatus(Tree.calcStatus(node));
+        }
+    }
+
+    private static Node findChild(Node node, int position) {
+        return node.findChild(position);
+    }
+
+    private static Node addChild(Node node, int position) throws TicTacToeException {
+        Node child = new Node(node.getMaxChildrenCapacity() - 1);
+        child.setPosition(position);
+        node.addChild(child);
+        return child;
+    }
+}
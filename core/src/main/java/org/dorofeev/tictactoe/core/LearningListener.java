@@ -0,0 +1,33 @@
+package org.dorofeev.tictactoe.core;
+
+/**
+ * LearningListener watches and controls the self-play of the
+ * {@link LearningEngine}. The workers call it around every game, so it is
+ * called concurrently and has to be thread-safe
+ * @author Yury Dorofeev
+ * @version 2016-10-09
+ */
+public interface LearningListener {
+    LearningListener NONE = new LearningListener() {
+        @Override
+        public boolean beforeGame() {
+            return true;
+        }
+
+        @Override
+        public void gamePlayed() {
+        }
+    };
+
+    /**
+     * Called by a worker before every game, may block to pause the learning
+     * @return false to stop the learning
+     * @throws InterruptedException if the worker is interrupted while waiting
+     */
+    boolean beforeGame() throws InterruptedException;
+
+    /**
+     * Called by a worker after every game
+     */
+    void gamePlayed();
+}
@@ -0,0 +1,173 @@
+package org.dorofeev.tictactoe.core;
+
+import java.util.ArrayList;
+
+/**
+ * ListGameBoard keeps the figures in a list and scans all the rows, columns
+ * and diagonals to calculate the game status
+ * @author Yury Dorofeev
+ * @version 2016-09-14
+ */
+public class ListGameBoard implements GameBoard {
+    private final ArrayList<GameFigure> gameBoard;
+    private final int boardSize;
+    private final int boardSQRT;
+
+    public ListGameBoard(GameBoardSize boardSize) {
+        this.boardSize = boardSize.getValue();
+        this.boardSQRT = (int)Math.sqrt(this.boardSize);
+        gameBoard = new ArrayList<GameFigure>(this.boardSize);
+        for(int i=0; i<this.boardSize; i++){
+            gameBoard.add(i, GameFigure.EMPTY);
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return boardSize;
+    }
+
+    @Override
+    public GameFigure get(int position) {
+        return gameBoard.get(position);
+    }
+
+    @Override
+    public void set(int position, GameFigure figure) {
+        gameBoard.set(position, figure);
+    }
+
+    @Override
+    public void clear() {
+        for(int i=0; i<boardSize; i++){
+            gameBoard.set(i, GameFigure.EMPTY);
+        }
+    }
+
+    @Override
+    public GameStatus getGameStatus() {
+        if (checkRows() == GameStatus.WIN) {
+            return GameStatus.WIN;
+        }
+
+        if (checkColumns() == GameStatus.WIN) {
+            return GameStatus.WIN;
+        }
+
+        if (checkDiagonals() == GameStatus.WIN) {
+            return GameStatus.WIN;
+        }
+
+        for(GameFigure figure: gameBoard) {
+            if(figure.equals(GameFigure.EMPTY)) {
+                return GameStatus.CONTINUE;
+            }
+        }
+
+        return GameStatus.DRAW;
+    }
+
+    private GameStatus checkDiagonals() {
+
+        if(checkLeftDiagonal() == GameStatus.WIN) {
+            return GameStatus.WIN;
+        }
+        if(checkRightDiagonal() == GameStatus.WIN) {
+            return GameStatus.WIN;
+        }
+        return GameStatus.CONTINUE;
+    }
+
+    private GameStatus checkRightDiagonal() {
+        GameFigure figure = gameBoard.get(boardSize-boardSQRT);
+
+        if(figure == GameFigure.EMPTY) {
+            return GameStatus.CONTINUE;
+        }
+
+        for(int i = boardSize-boardSQRT; i>= boardSQRT-1; i-=(boardSQRT-1)) {
+            if(!ifFigureMatch(figure, i)) {
+                return GameStatus.CONTINUE;
+            }
+        }
+        return GameStatus.WIN;
+    }
+
+    private GameStatus checkLeftDiagonal() {
+        GameFigure figure = gameBoard.get(0);
+
+        if(figure == GameFigure.EMPTY) {
+            return GameStatus.CONTINUE;
+        }
+
+        for(int i = 0; i<boardSize; i+=boardSQRT+1) {
+            if(!ifFigureMatch(figure, i)) {
+                return GameStatus.CONTINUE;
+            }
+        }
+        return GameStatus.WIN;
+    }
+
+    private GameStatus checkRows() {
+        int index;
+        GameFigure figure = GameFigure.EMPTY;
+        boolean match = false;
+
+        for(int i=0; i<boardSize; i+=boardSQRT ) {
+            for(int j=0; j<boardSQRT; j++ ) {
+                index = i + j;
+
+                if(gameBoard.get(index) == GameFigure.EMPTY) {
+                    match = false;
+                    break;
+                }
+                if(j==0) {
+                    figure = gameBoard.get(index);
+                } else {
+                    match = ifFigureMatch(figure, index);
+                    if(!match) {
+                        break;
+                    }
+                }
+            }
+            if(match) {
+                return GameStatus.WIN;
+            }
+
+        }
+        return GameStatus.CONTINUE;
+    }
+
+    private GameStatus checkColumns() {
+        int index;
+        GameFigure figure = GameFigure.EMPTY;
+        boolean match = false;
+
+        for(int i=0; i<boardSQRT; i++) {
+            for(int j=0; j<boardSize; j+=boardSQRT) {
+                index = i+j;
+
+                if(gameBoard.get(index) == GameFigure.EMPTY) {
+                    match = false;
+                    break;
+                }
+                if(j==0) {
+                    figure = gameBoard.get(index);
+                } else {
+                    match = ifFigureMatch(figure, index);
+                    if(!match) {
+                        break;
+                    }
+                }
+            }
+            if(match) {
+                return GameStatus.WIN;
+            }
+        }
+        return GameStatus.CONTINUE;
+    }
+
+    private boolean ifFigureMatch(GameFigure figure, int index){
+        return gameBoard.get(index) == figure;
+    }
+}
@@ -0,0 +1,84 @@
+package org.dorofeev.tictactoe.core;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from long keys to non-negative int values. It
+ * does not box the keys, that's why it is used for the position tables
+ * @author Yury Dorofeev
+ * @version 2016-09-19
+ */
+class LongIntHashMap {
+    static final int NOT_FOUND = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    LongIntHashMap() {
+        keys = new long[INITIAL_CAPACITY];
+        values = new int[INITIAL_CAPACITY];
+        Arrays.fill(values, NOT_FOUND);
+        mask = INITIAL_CAPACITY - 1;
+    }
+
+    /**
+     * @return the value of the key or NOT_FOUND
+     */
+    int get(long key) {
+        for(int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if(values[slot] == NOT_FOUND) {
+                return NOT_FOUND;
+            }
+            if(keys[slot] == key) {
+                return values[slot];
+            }
+        }
+    }
+
+    /**
+     * @param value non-negative value
+     */
+    void put(long key, int value) {
+        if(2 * (size + 1) > keys.length) {
+            resize(keys.length * 2);
+        }
+        int slot = slot(key);
+        while(values[slot] != NOT_FOUND) {
+            if(keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, NOT_FOUND);
+        mask = capacity - 1;
+        size = 0;
+        for(int i = 0; i < oldKeys.length; i++) {
+            if(oldValues[i] != NOT_FOUND) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
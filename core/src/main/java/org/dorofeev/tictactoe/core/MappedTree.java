@@ -0,0 +1,235 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.NodeNotFoundException;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * MappedTree is a read-only tree served straight from a memory-mapped
+ * {@link TreeSnapshot} file. A node is the index of its record, no node
+ * objects are built, so the tree is ready as soon as the file is mapped and
+ * one file can be shared by several processes. Every MappedTree has its own
+ * Current node, call {@link #newCursor()} to get one more for another game.
+ * A game can be played on the snapshot to the end: the nodes added below the
+ * snapshot are not stored, they only count the depth of the Current node,
+ * and the result of the game is not learned
+ * @author Yury Dorofeev
+ * @version 2016-09-26
+ */
+public class MappedTree implements GameTree {
+    private static final NodeStatus[] STATUSES = NodeStatus.values();
+    private static final int NOT_FOUND = -1;
+
+    private final ByteBuffer buffer;
+    private final int rootSize;
+    private final int numberOfRecords;
+    private final int recordsOffset;
+    private final int[] path;
+    private int depth;
+    private int newNodes;  // depth of the Current node below the snapshot
+
+    MappedTree(ByteBuffer buffer, int rootSize, int numberOfRecords) {
+        this.buffer = buffer;
+        this.rootSize = rootSize;
+        this.numberOfRecords = numberOfRecords;
+        this.recordsOffset = TreeSnapshot.headerSize(rootSize);
+        this.path = new int[rootSize + 1];
+    }
+
+    /**
+     * @return new tree over the same mapped file with the Current node at the root
+     */
+    public MappedTree newCursor() {
+        return new MappedTree(buffer.duplicate(), rootSize, numberOfRecords);
+    }
+
+    /**
+     * @return number of the nodes in the snapshot (including the root)
+     */
+    public int getNumberOfRecords() {
+        return numberOfRecords;
+    }
+
+    /**
+     * The snapshot is read-only, the new node is not stored. The Current node
+     * goes below the snapshot, it has no children there
+     * @throws TicTacToeException if the Current node can not have more children
+     */
+    @Override
+    public void addNode(int position) throws TicTacToeException {
+        if(getCurrentMaxChildrenCapacity() <= 0) {
+            throw new TicTacToeException("The children collection is full. You can not add more nodes!");
+        }
+        newNodes++;
+    }
+
+    @Override
+    public void moveToRoot() {
+        depth = 0;
+        newNodes = 0;
+    }
+
+    @Override
+    public void moveToParent() {
+        if(newNodes > 0) {
+            newNodes--;
+        } else if(depth > 0) {
+            depth--;
+        }
+    }
+
+    @Override
+    public void moveToChild(int position) throws NodeNotFoundException {
+        path[depth + 1] = findChild(position);
+        depth++;
+    }
+
+    @Override
+    public boolean tryMoveToChild(int position) {
+        int child = lookupChild(position);
+        if(child == NOT_FOUND) {
+            return false;
+        }
+        path[depth + 1] = child;
+        depth++;
+        return true;
+    }
+
+    @Override
+    public NodeStatus getChildStatus(int position) throws NodeNotFoundException {
+        return getStatus(findChild(position));
+    }
+
+    @Override
+    public NodeStatus findChildStatus(int position) {
+        int child = lookupChild(position);
+        return child == NOT_FOUND ? null : getStatus(child);
+    }
+
+    /**
+     * Children are visited in the order of their positions on the game board
+     */
+    @Override
+    public int findChildPositionWithStatus(NodeStatus status) {
+        if(newNodes > 0) {
+            return -1;
+        }
+        int child = path[depth] + 1;
+        for(int i = 0; i < getChildrenNumber(path[depth]); i++) {
+            if(getStatus(child) == status) {
+                return getPosition(child);
+            }
+            child += getSubtreeSize(child);
+        }
+        return -1;
+    }
+
+    @Override
+    public int getCurrentChildrenNumber() {
+        return newNodes > 0 ? 0 : getChildrenNumber(path[depth]);
+    }
+
+    @Override
+    public int getCurrentMaxChildrenCapacity() {
+        return rootSize - depth - newNodes;
+    }
+
+    @Override
+    public NodeStatus getCurrentStatus() {
+        return newNodes > 0 ? NodeStatus.UNKNOWN : getStatus(path[depth]);
+    }
+
+    /**
+     * Does nothing, the snapshot is read-only
+     */
+    @Override
+    public void setCurrentStatus(NodeStatus status) {
+    }
+
+    @Override
+    public NodeStatus getRootStatus() {
+        return getStatus(0);
+    }
+
+    @Override
+    public int getRootMaxChildrenCapacity() {
+        return rootSize;
+    }
+
+    /**
+     * Does nothing, the snapshot is read-only
+     */
+    @Override
+    public void updateTreeStatus() {
+    }
+
+    @Override
+    public long getNumberOfNodes() {
+        long numberOfNodes = 0;
+        for(int level = 2; level <= rootSize; level++) {
+            numberOfNodes += getNumberOfNodes(level);
+        }
+        return numberOfNodes;
+    }
+
+    @Override
+    public long getNumberOfNodes(int level) {
+        if(level <= 0 || level > rootSize) {
+            return 0;
+        }
+        return buffer.getLong(4 * Integer.BYTES + level * Long.BYTES);
+    }
+
+    @Override
+    public int getTreeDepth() {
+        for(int level = rootSize; level > 0; level--) {
+            if(getNumberOfNodes(level) > 0) {
+                return level;
+            }
+        }
+        return 0;
+    }
+
+    private int findChild(int position) throws NodeNotFoundException {
+        int child = lookupChild(position);
+        if(child == NOT_FOUND) {
+            throw new NodeNotFoundException("Node with position " + position + " is not found");
+        }
+        return child;
+    }
+
+    private int lookupChild(int position) {
+        if(newNodes > 0) {
+            return NOT_FOUND;
+        }
+        int child = path[depth] + 1;
+        for(int i = 0; i < getChildrenNumber(path[depth]); i++) {
+            if(getPosition(child) == position) {
+                return child;
+            }
+            child += getSubtreeSize(child);
+        }
+        return NOT_FOUND;
+    }
+
+    private int getInfo(int record) {
+        return buffer.getInt(recordsOffset + record * TreeSnapshot.RECORD_SIZE);
+    }
+
+    int getSubtreeSize(int record) {
+        return buffer.getInt(recordsOffset + record * TreeSnapshot.RECORD_SIZE + Integer.BYTES);
+    }
+
+    NodeStatus getStatus(int record) {
+        return STATUSES[getInfo(record) & TreeSnapshot.STATUS_MASK];
+    }
+
+    int getPosition(int record) {
+        return (getInfo(record) >>> TreeSnapshot.POSITION_SHIFT) & TreeSnapshot.POSITION_MASK;
+    }
+
+    int getChildrenNumber(int record) {
+        return getInfo(record) >>> TreeSnapshot.CHILDREN_SHIFT;
+    }
+}
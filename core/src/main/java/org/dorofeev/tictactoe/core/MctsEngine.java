@@ -0,0 +1,298 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+import java.util.Random;
+
+/**
+ * MctsEngine chooses the move by the Monte Carlo tree search. Every iteration
+ * goes down the search tree by UCT, adds one node, plays a random game on
+ * bit masks from it and counts the result in the visited nodes. The move
+ * with the most visits is played.
+ * The nodes live in a pool of primitive arrays which is allocated once, the
+ * pool is reused by every search. When the pool is full the search goes on
+ * without new nodes, the random games start from the leaves, so the memory
+ * of the engine never grows
+ * @author Yury Dorofeev
+ * @version 2016-09-30
+ */
+public class MctsEngine implements MoveEngine {
+    public static final int DEFAULT_MAX_NODES = 32768;
+    public static final int DEFAULT_MAX_ITERATIONS = 20000;
+    public static final long DEFAULT_MAX_TIME = 100; // ms
+
+    private static final int NIL = -1;
+    private static final int ROOT = 0;
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int TIME_CHECK_INTERVAL = 256;
+    private static final byte NOT_TERMINAL = 0;
+    private static final byte TERMINAL_WIN = 1;  // the player who moved to the node won
+    private static final byte TERMINAL_DRAW = 2;
+
+    private final int boardSize;
+    private final WinLines winLines;
+    private final int maxIterations;
+    private final long maxTime;
+    private final Random random;
+
+    // node pool
+    private final int[] visits;
+    private final double[] rewards;   // from the side of the player who moved to the node
+    private final long[] untriedMoves;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final byte[] moves;
+    private final byte[] terminal;
+    private int size;
+
+    private final int[] path;
+    private final int[] emptyCells;
+    private int lastSearchIterations;
+
+    public MctsEngine(GameBoardSize boardSize) {
+        this(boardSize, DEFAULT_MAX_NODES, DEFAULT_MAX_ITERATIONS, DEFAULT_MAX_TIME, new Random());
+    }
+
+    /**
+     * @param boardSize the size of the the game board
+     * @param maxNodes size of the node pool
+     * @param maxIterations max number of iterations per move
+     * @param maxTime max time of the search per move (ms), 0 - no time limit
+     * @param random source of the random games
+     */
+    public MctsEngine(GameBoardSize boardSize, int maxNodes, int maxIterations, long maxTime, Random random) {
+        this.boardSize = boardSize.getValue();
+        this.winLines = new WinLines(boardSize);
+        this.maxIterations = maxIterations;
+        this.maxTime = maxTime;
+        this.random = random;
+        int capacity = Math.max(maxNodes, 1);
+        visits = new int[capacity];
+        rewards = new double[capacity];
+        untriedMoves = new long[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        moves = new byte[capacity];
+        terminal = new byte[capacity];
+        path = new int[this.boardSize + 1];
+        emptyCells = new int[this.boardSize];
+    }
+
+    @Override
+    public int findBestMove(GameBoard board, GameFigure figure) throws TicTacToeException {
+        if(board.getSize() != boardSize) {
+            throw new TicTacToeException("The game board does not match the board size " + boardSize);
+        }
+        if(figure == GameFigure.EMPTY) {
+            throw new TicTacToeException("Invalid figure: " + figure);
+        }
+        long own = 0;
+        long opponent = 0;
+        for(int position = 0; position < boardSize; position++) {
+            GameFigure cell = board.get(position);
+            if(cell == figure) {
+                own |= 1L << position;
+            } else if(cell != GameFigure.EMPTY) {
+                opponent |= 1L << position;
+            }
+        }
+        if(Long.bitCount(own | opponent) == boardSize) {
+            throw new TicTacToeException("There are no moves left, the game is over");
+        }
+        return search(own, opponent);
+    }
+
+    /**
+     * @return number of iterations of the last search
+     */
+    public int getLastSearchIterations() {
+        return lastSearchIterations;
+    }
+
+    /**
+     * @return number of nodes used by the last search
+     */
+    public int getLastSearchNodes() {
+        return size;
+    }
+
+    public int getMaxNodes() {
+        return visits.length;
+    }
+
+    private int search(long own, long opponent) {
+        size = 0;
+        createNode(NIL, own | opponent, (byte) 0, NOT_TERMINAL);
+        long deadline = maxTime > 0 ? System.nanoTime() + maxTime * 1000000L : Long.MAX_VALUE;
+
+        int iteration = 0;
+        while(iteration < maxIterations
+                && (iteration % TIME_CHECK_INTERVAL != 0 || iteration == 0 || System.nanoTime() < deadline)) {
+            iterate(own, opponent);
+            iteration++;
+        }
+        lastSearchIterations = iteration;
+
+        int bestMove = NIL;
+        int bestVisits = -1;
+        for(int child = firstChild[ROOT]; child != NIL; child = nextSibling[child]) {
+            if(visits[child] > bestVisits) {
+                bestVisits = visits[child];
+                bestMove = moves[child];
+            }
+        }
+        return bestMove != NIL ? bestMove : Long.numberOfTrailingZeros(~(own | opponent));
+    }
+
+    /**
+     * One iteration: selection, expansion, random game and back propagation
+     */
+    private void iterate(long own, long opponent) {
+        long mover = own;      // the player to move
+        long waiting = opponent;
+        int node = ROOT;
+        int depth = 0;
+        path[0] = ROOT;
+
+        byte result = terminal[node];
+        boolean expanded = false;
+        while(result == NOT_TERMINAL && !expanded) {
+            if(untriedMoves[node] != 0 && size < visits.length) {
+                node = expand(node, mover, waiting);
+                expanded = true;
+            } else if(firstChild[node] != NIL) {
+                node = select(node);
+            } else {
+                // the pool is full, the random game starts from the leaf
+                break;
+            }
+            long newMover = waiting;
+            waiting = mover | (1L << moves[node]);
+            mover = newMover;
+            path[++depth] = node;
+            result = terminal[node];
+        }
+
+        // the last move was made by 'waiting'
+        boolean waitingWon;
+        boolean draw;
+        if(result == TERMINAL_WIN) {
+            waitingWon = true;
+            draw = false;
+        } else if(result == TERMINAL_DRAW) {
+            waitingWon = false;
+            draw = true;
+        } else {
+            int winner = playRandomGame(winLines, fullMask(), mover, waiting, emptyCells, random);
+            waitingWon = winner == 1;
+            draw = winner == 0;
+        }
+
+        // the node at 'depth' was reached by the move of 'waiting', the players alternate upwards
+        boolean movedByWinner = waitingWon;
+        for(int level = depth; level >= 0; level--) {
+            int pathNode = path[level];
+            visits[pathNode]++;
+            if(draw) {
+                rewards[pathNode] += 0.5;
+            } else if(movedByWinner) {
+                rewards[pathNode] += 1;
+            }
+            movedByWinner = !movedByWinner;
+        }
+    }
+
+    private int expand(int node, long mover, long waiting) {
+        long untried = untriedMoves[node];
+        int index = random.nextInt(Long.bitCount(untried));
+        for(int i = 0; i < index; i++) {
+            untried &= untried - 1;
+        }
+        int position = Long.numberOfTrailingZeros(untried);
+        untriedMoves[node] &= ~(1L << position);
+
+        long newMover = mover | (1L << position);
+        long occupied = newMover | waiting;
+        byte result = NOT_TERMINAL;
+        if(winLines.isWin(newMover, position)) {
+            result = TERMINAL_WIN;
+        } else if(Long.bitCount(occupied) == boardSize) {
+            result = TERMINAL_DRAW;
+        }
+        int child = createNode(node, occupied, (byte) position, result);
+        return child;
+    }
+
+    /**
+     * UCT: the child with the best sum of the average reward and the exploration term
+     */
+    private int select(int node) {
+        double logVisits = Math.log(visits[node]);
+        int best = NIL;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for(int child = firstChild[node]; child != NIL; child = nextSibling[child]) {
+            double value = visits[child] == 0 ? Double.POSITIVE_INFINITY
+                    : rewards[child] / visits[child] + EXPLORATION * Math.sqrt(logVisits / visits[child]);
+            if(value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Plays random moves until the end of the game
+     * @param emptyCells buffer for the empty cells, at least as long as the board
+     * @return 1 if the player who made the last move ('waiting') wins, -1 if the 'mover' wins, 0 for a draw
+     */
+    static int playRandomGame(WinLines winLines, long fullMask, long mover, long waiting,
+                              int[] emptyCells, Random random) {
+        int numberOfEmptyCells = 0;
+        long empty = ~(mover | waiting) & fullMask;
+        while(empty != 0) {
+            emptyCells[numberOfEmptyCells++] = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+        }
+        boolean moverMoves = true;
+        while(numberOfEmptyCells > 0) {
+            int index = random.nextInt(numberOfEmptyCells);
+            int position = emptyCells[index];
+            emptyCells[index] = emptyCells[--numberOfEmptyCells];
+            if(moverMoves) {
+                mover |= 1L << position;
+                if(winLines.isWin(mover, position)) {
+                    return -1;
+                }
+            } else {
+                waiting |= 1L << position;
+                if(winLines.isWin(waiting, position)) {
+                    return 1;
+                }
+            }
+            moverMoves = !moverMoves;
+        }
+        return 0;
+    }
+
+    private int createNode(int parent, long occupied, byte move, byte result) {
+        int node = size++;
+        visits[node] = 0;
+        rewards[node] = 0;
+        untriedMoves[node] = result == NOT_TERMINAL ? ~occupied & fullMask() : 0;
+        firstChild[node] = NIL;
+        moves[node] = move;
+        terminal[node] = result;
+        if(parent != NIL) {
+            nextSibling[node] = firstChild[parent];
+            firstChild[parent] = node;
+        } else {
+            nextSibling[node] = NIL;
+        }
+        return node;
+    }
+
+    private long fullMask() {
+        return boardSize == Long.SIZE ? -1L : (1L << boardSize) - 1;
+    }
+}
@@ -0,0 +1,20 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+/**
+ * MoveEngine chooses the move of the computer from the game board only, it
+ * does not need a learned tree
+ * @author Yury Dorofeev
+ * @version 2016-09-28
+ */
+public interface MoveEngine {
+
+    /**
+     * @param board current game board, it is not changed
+     * @param figure figure which makes the move
+     * @return position of the best move
+     * @throws TicTacToeException if there are no empty positions or the board is not supported
+     */
+    int findBestMove(GameBoard board, GameFigure figure) throws TicTacToeException;
+}
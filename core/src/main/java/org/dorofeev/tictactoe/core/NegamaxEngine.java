@@ -0,0 +1,221 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+/**
+ * NegamaxEngine searches the moves instead of learning them, so it plays the
+ * 4x4 and 5x5 boards where a learned tree would be far too big. It is a
+ * negamax search with alpha-beta pruning and iterative deepening: the depth
+ * grows by one until the node or the time budget of the move is over, then
+ * the best move of the last completed depth is played. Moves are ordered by
+ * the number of lines going through the cell, the best move of the previous
+ * depth goes first. Positions beyond the depth are scored by the open lines.
+ * Memory does not depend on the budget, the search keeps only the board masks
+ * @author Yury Dorofeev
+ * @version 2016-09-29
+ */
+public class NegamaxEngine implements MoveEngine {
+    public static final long DEFAULT_MAX_NODES = 500000;
+    public static final long DEFAULT_MAX_TIME = 100; // ms
+
+    private static final int NO_MOVE = -1;
+    private static final int WIN = 1000000;
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+
+    private final int boardSize;
+    private final WinLines winLines;
+    private final int[] moveOrder;        // positions, the ones with more lines first
+    private final int[] lineWeights;      // score of a line by the number of figures on it
+    private final long maxNodes;
+    private final long maxTime;
+
+    private long nodes;
+    private long deadline;
+    private boolean aborted;
+    private int lastSearchDepth;
+    private long lastSearchNodes;
+
+    public NegamaxEngine(GameBoardSize boardSize) {
+        this(boardSize, DEFAULT_MAX_NODES, DEFAULT_MAX_TIME);
+    }
+
+    /**
+     * @param boardSize the size of the the game board
+     * @param maxNodes max number of searched positions per move
+     * @param maxTime max time of the search per move (ms), 0 - no time limit
+     */
+    public NegamaxEngine(GameBoardSize boardSize, long maxNodes, long maxTime) {
+        this.boardSize = boardSize.getValue();
+        this.winLines = new WinLines(boardSize);
+        this.maxNodes = maxNodes;
+        this.maxTime = maxTime;
+
+        // insertion sort, stable, so the cells with the same number of lines keep their order
+        moveOrder = new int[this.boardSize];
+        for(int position = 0; position < this.boardSize; position++) {
+            int i = position;
+            while(i > 0 && winLines.getNumberOfLines(moveOrder[i - 1]) < winLines.getNumberOfLines(position)) {
+                moveOrder[i] = moveOrder[i - 1];
+                i--;
+            }
+            moveOrder[i] = position;
+        }
+
+        int lineLength = (int)Math.sqrt(this.boardSize);
+        lineWeights = new int[lineLength + 1];
+        for(int figures = 1; figures <= lineLength; figures++) {
+            lineWeights[figures] = 1 << (2 * figures);
+        }
+    }
+
+    @Override
+    public int findBestMove(GameBoard board, GameFigure figure) throws TicTacToeException {
+        if(board.getSize() != boardSize) {
+            throw new TicTacToeException("The game board does not match the board size " + boardSize);
+        }
+        if(figure == GameFigure.EMPTY) {
+            throw new TicTacToeException("Invalid figure: " + figure);
+        }
+        long own = 0;
+        long opponent = 0;
+        for(int position = 0; position < boardSize; position++) {
+            GameFigure cell = board.get(position);
+            if(cell == figure) {
+                own |= 1L << position;
+            } else if(cell != GameFigure.EMPTY) {
+                opponent |= 1L << position;
+            }
+        }
+        int emptyCells = boardSize - Long.bitCount(own | opponent);
+        if(emptyCells == 0) {
+            throw new TicTacToeException("There are no moves left, the game is over");
+        }
+        return search(own, opponent, emptyCells);
+    }
+
+    /**
+     * @return depth of the last completed iteration of the last search
+     */
+    public int getLastSearchDepth() {
+        return lastSearchDepth;
+    }
+
+    /**
+     * @return number of the positions searched by the last search
+     */
+    public long getLastSearchNodes() {
+        return lastSearchNodes;
+    }
+
+    private int search(long own, long opponent, int emptyCells) {
+        nodes = 0;
+        aborted = false;
+        deadline = maxTime > 0 ? System.nanoTime() + maxTime * 1000000L : Long.MAX_VALUE;
+        lastSearchDepth = 0;
+
+        int bestMove = firstEmpty(own | opponent);
+        for(int depth = 1; depth <= emptyCells; depth++) {
+            int move = NO_MOVE;
+            int alpha = -INFINITY;
+            for(int i = -1; i < boardSize; i++) {
+                // the best move of the previous depth is searched first
+                int position = i < 0 ? bestMove : moveOrder[i];
+                if((i >= 0 && position == bestMove) || ((own | opponent) & (1L << position)) != 0) {
+                    continue;
+                }
+                int score = scoreMove(own, opponent, position, depth, alpha, INFINITY, emptyCells);
+                if(aborted) {
+                    break;
+                }
+                if(score > alpha) {
+                    alpha = score;
+                    move = position;
+                }
+            }
+            if(aborted) {
+                break;
+            }
+            bestMove = move;
+            lastSearchDepth = depth;
+            if(alpha >= WIN || alpha <= -WIN) {
+                // the result is known, a deeper search does not change it
+                break;
+            }
+        }
+        lastSearchNodes = nodes;
+        return bestMove;
+    }
+
+    /**
+     * @return score of the move from the side of the player who makes it
+     */
+    private int scoreMove(long own, long opponent, int position, int depth, int alpha, int beta, int emptyCells) {
+        long newOwn = own | (1L << position);
+        if(winLines.isWin(newOwn, position)) {
+            // the sooner the win the better
+            return WIN + emptyCells;
+        }
+        return -negamax(opponent, newOwn, depth - 1, -beta, -alpha, emptyCells - 1);
+    }
+
+    private int negamax(long own, long opponent, int depth, int alpha, int beta, int emptyCells) {
+        if(++nodes >= maxNodes || (nodes % TIME_CHECK_INTERVAL == 0 && System.nanoTime() > deadline)) {
+            aborted = true;
+            return 0;
+        }
+        if(emptyCells == 0) {
+            return 0;
+        }
+        if(depth == 0) {
+            return evaluate(own, opponent);
+        }
+        long occupied = own | opponent;
+        int best = -INFINITY;
+        for(int position : moveOrder) {
+            if((occupied & (1L << position)) != 0) {
+                continue;
+            }
+            int score = scoreMove(own, opponent, position, depth, alpha, beta, emptyCells);
+            if(aborted) {
+                return 0;
+            }
+            if(score > best) {
+                best = score;
+            }
+            if(score > alpha) {
+                alpha = score;
+            }
+            if(alpha >= beta) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Every line which is still open for one player only scores for him
+     */
+    private int evaluate(long own, long opponent) {
+        int score = 0;
+        for(long line : winLines.getLines()) {
+            boolean ownOnLine = (own & line) != 0;
+            boolean opponentOnLine = (opponent & line) != 0;
+            if(ownOnLine && !opponentOnLine) {
+                score += lineWeights[Long.bitCount(own & line)];
+            } else if(opponentOnLine && !ownOnLine) {
+                score -= lineWeights[Long.bitCount(opponent & line)];
+            }
+        }
+        return score;
+    }
+
+    private int firstEmpty(long occupied) {
+        for(int position : moveOrder) {
+            if((occupied & (1L << position)) == 0) {
+                return position;
+            }
+        }
+        return NO_MOVE;
+    }
+}
@@ -3,16 +3,29 @@ package org.dorofeev.tictactoe.core;
 import org.dorofeev.tictactoe.core.exception.TicTacToeException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.UUID;
 
 /**
- * Node
+ * Node.
+ * Children are kept in the order they were added. They are also indexed by
+ * their positions: a bit mask of the positions with a child plus the
+ * children sorted by position, the index of a child is the number of the
+ * bits below its position, so a lookup by position is O(1). If several
+ * children share a position, the first of them is found. Add and remove
+ * the children with the Node methods, not through {@link #getChildren()}
  * @author Yury Dorofeev
  * @version 2015-09-07
  */
 public class Node {
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_POSITIONS = new long[0];
+
     private Node parent=null;
     private ArrayList<Node> children = null;
+    private long[] childPositions = NO_POSITIONS;  // bit i is set if there is a child with position i
+    private Node[] childrenByPosition = NO_CHILDREN;
+    private int numberOfIndexedChildren = 0;
     private UUID UID; // unique ID
     private NodeStatus status = NodeStatus.UNKNOWN;
     private int position=0; // position on the game board
@@ -49,6 +62,54 @@ public class Node {
         node.setParent(this);
         node.setLevel(getLevel() + 1);
         children.add(node);
+        if(!hasChild(node.getPosition())) {
+            indexChild(node);
+        }
+    }
+
+    /**
+     * @param position position on the game board
+     * @return the child with the given position or null if there is no such child
+     */
+    public Node findChild(int position) {
+        if(!hasChild(position)) {
+            return null;
+        }
+        return childrenByPosition[rank(position)];
+    }
+
+    public boolean hasChild(int position) {
+        int word = position >>> 6;
+        return position >= 0 && word < childPositions.length && (childPositions[word] & (1L << position)) != 0;
+    }
+
+    /**
+     * @return false if the node is not a child of this node
+     */
+    public boolean removeChild(Node node) {
+        if(findChild(node.getPosition()) != node) {
+            return children != null && children.remove(node);
+        }
+        int position = node.getPosition();
+        int index = rank(position);
+        System.arraycopy(childrenByPosition, index + 1, childrenByPosition, index, numberOfIndexedChildren - index - 1);
+        childrenByPosition[--numberOfIndexedChildren] = null;
+        childPositions[position >>> 6] &= ~(1L << position);
+        children.remove(node);
+        for(Node child : children) {
+            if(child.getPosition() == position) {
+                indexChild(child);  // another child with the same position takes its place
+                break;
+            }
+        }
+        return true;
+    }
+
+    public void removeChildren() {
+        children.clear();
+        childPositions = NO_POSITIONS;
+        childrenByPosition = NO_CHILDREN;
+        numberOfIndexedChildren = 0;
     }
     public Node getChild(int index) throws TicTacToeException {
         try {
@@ -100,6 +161,39 @@ public class Node {
     {
         this.level = level;
     }
+    private void indexChild(Node node) {
+        int position = node.getPosition();
+        int word = position >>> 6;
+        if(word >= childPositions.length) {
+            childPositions = Arrays.copyOf(childPositions, word + 1);
+        }
+        int size = numberOfIndexedChildren;
+        if(size == childrenByPosition.length) {
+            int length = Math.min(Math.max(2 * size, 2), Math.max(getMaxChildrenCapacity(), size + 1));
+            childrenByPosition = Arrays.copyOf(childrenByPosition, length);
+        }
+        int index = rank(position);
+        System.arraycopy(childrenByPosition, index, childrenByPosition, index + 1, size - index);
+        childrenByPosition[index] = node;
+        childPositions[word] |= 1L << position;
+        numberOfIndexedChildren++;
+    }
+
+    /**
+     * @return number of the children with positions below the given one
+     */
+    private int rank(int position) {
+        int word = position >>> 6;
+        int rank = 0;
+        for(int i = 0; i < word && i < childPositions.length; i++) {
+            rank += Long.bitCount(childPositions[i]);
+        }
+        if(word < childPositions.length) {
+            rank += Long.bitCount(childPositions[word] & ((1L << position) - 1));
+        }
+        return rank;
+    }
+
     @Override
     public String toString() {
         StringBuilder value = new StringBuilder();
@@ -0,0 +1,148 @@
+package org.dorofeev.tictactoe.core;
+
+import java.util.Arrays;
+
+/**
+ * PackedGameBoard plays a board of any {@link BoardGeometry}. Every figure
+ * has a bit set packed into longs, 64 cells per long. A move is checked for
+ * the win in the four directions through it only (the row, the column and
+ * the two diagonals), at most 2(k-1) cells each, so the cost of a move does
+ * not depend on the board size. Only making a cell empty again after a win
+ * looks at the whole board, as the win could be anywhere
+ * @author Yury Dorofeev
+ * @version 2016-10-02
+ */
+public class PackedGameBoard implements GameBoard {
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}}; // row and column steps
+
+    private final int width;
+    private final int height;
+    private final int winLength;
+    private final int boardSize;
+    private final long[] xBits;
+    private final long[] oBits;
+    private int numberOfMoves;
+    private boolean won;
+
+    public PackedGameBoard(BoardGeometry geometry) {
+        this.width = geometry.getWidth();
+        this.height = geometry.getHeight();
+        this.winLength = geometry.getWinLength();
+        this.boardSize = geometry.getSize();
+        xBits = new long[(boardSize + Long.SIZE - 1) / Long.SIZE];
+        oBits = new long[xBits.length];
+    }
+
+    @Override
+    public int getSize() {
+        return boardSize;
+    }
+
+    @Override
+    public GameFigure get(int position) {
+        if(isSet(xBits, position)) {
+            return GameFigure.X;
+        }
+        if(isSet(oBits, position)) {
+            return GameFigure.O;
+        }
+        return GameFigure.EMPTY;
+    }
+
+    @Override
+    public void set(int position, GameFigure figure) {
+        GameFigure previous = get(position);
+        if(previous == figure) {
+            return;
+        }
+        if(previous != GameFigure.EMPTY) {
+            flip(bitsOf(previous), position);
+            numberOfMoves--;
+            if(won) {
+                won = findWin();
+            }
+        }
+        if(figure != GameFigure.EMPTY) {
+            long[] bits = bitsOf(figure);
+            flip(bits, position);
+            numberOfMoves++;
+            if(!won) {
+                won = isWin(bits, position);
+            }
+        }
+    }
+
+    @Override
+    public GameStatus getGameStatus() {
+        if(won) {
+            return GameStatus.WIN;
+        }
+        if(numberOfMoves == boardSize) {
+            return GameStatus.DRAW;
+        }
+        return GameStatus.CONTINUE;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(xBits, 0);
+        Arrays.fill(oBits, 0);
+        numberOfMoves = 0;
+        won = false;
+    }
+
+    /**
+     * @return true if the figure at the position has k in a row in any direction
+     */
+    private boolean isWin(long[] bits, int position) {
+        int row = position / width;
+        int column = position % width;
+        for(int[] direction : DIRECTIONS) {
+            int count = 1
+                    + countInDirection(bits, row, column, direction[0], direction[1])
+                    + countInDirection(bits, row, column, -direction[0], -direction[1]);
+            if(count >= winLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return number of the same figures next to the cell in the direction, at most k-1
+     */
+    private int countInDirection(long[] bits, int row, int column, int rowStep, int columnStep) {
+        int count = 0;
+        int r = row + rowStep;
+        int c = column + columnStep;
+        while(count < winLength - 1 && r >= 0 && r < height && c >= 0 && c < width
+                && isSet(bits, r * width + c)) {
+            count++;
+            r += rowStep;
+            c += columnStep;
+        }
+        return count;
+    }
+
+    private boolean findWin() {
+        for(int position = 0; position < boardSize; position++) {
+            if((isSet(xBits, position) && isWin(xBits, position))
+                    || (isSet(oBits, position) && isWin(oBits, position))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long[] bitsOf(GameFigure figure) {
+        return figure == GameFigure.X ? xBits : oBits;
+    }
+
+    private static boolean isSet(long[] bits, int position) {
+        return (bits[position >>> 6] & (1L << position)) != 0;
+    }
+
+    private static void flip(long[] bits, int position) {
+        bits[position >>> 6] ^= 1L << position;
+    }
+}
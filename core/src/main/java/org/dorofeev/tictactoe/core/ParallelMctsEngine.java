@@ -0,0 +1,391 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ParallelMctsEngine is the {@link MctsEngine} search run by several threads
+ * on one shared tree, so one move uses all the cores within its time budget.
+ * The counters of the nodes are atomic. A thread counts the visit of a node
+ * when it goes down through it and adds the result only when the random game
+ * is over, so until then the node looks like a lost one (virtual loss) and
+ * the other threads choose different paths. New nodes are taken from the
+ * shared pool by an atomic counter and linked to the parent by CAS. The
+ * search threads are daemon threads kept by the engine between the moves,
+ * {@link #shutdown()} stops them
+ * @author Yury Dorofeev
+ * @version 2016-10-01
+ */
+public class ParallelMctsEngine implements MoveEngine {
+    private static final int NIL = -1;
+    private static final int ROOT = 0;
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int TIME_CHECK_INTERVAL = 64;
+    private static final byte NOT_TERMINAL = 0;
+    private static final byte TERMINAL_WIN = 1;  // the player who moved to the node won
+    private static final byte TERMINAL_DRAW = 2;
+    private static final int WIN_REWARD = 2;     // rewards are counted in half points
+    private static final int DRAW_REWARD = 1;
+
+    private final int boardSize;
+    private final long fullMask;
+    private final WinLines winLines;
+    private final int numberOfThreads;
+    private final int maxIterations;
+    private final long maxTime;
+    private final Random random;
+    private final ExecutorService executor;  // null if the search runs in the calling thread
+    private boolean shutdown;
+
+    // node pool, the plain arrays are written before the node is linked to its parent
+    private final AtomicIntegerArray visits;
+    private final AtomicLongArray rewards;   // from the side of the player who moved to the node
+    private final AtomicLongArray untriedMoves;
+    private final AtomicIntegerArray firstChild;
+    private final int[] nextSibling;
+    private final byte[] moves;
+    private final byte[] terminal;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger iterations = new AtomicInteger();
+
+    private volatile int lastSearchIterations;
+
+    public ParallelMctsEngine(GameBoardSize boardSize) throws TicTacToeException {
+        this(boardSize, Runtime.getRuntime().availableProcessors(), MctsEngine.DEFAULT_MAX_NODES,
+                MctsEngine.DEFAULT_MAX_ITERATIONS, MctsEngine.DEFAULT_MAX_TIME, new Random());
+    }
+
+    /**
+     * @param boardSize the size of the the game board
+     * @param numberOfThreads number of the search threads
+     * @param maxNodes size of the node pool
+     * @param maxIterations max number of iterations per move of all the threads
+     * @param maxTime max time of the search per move (ms), 0 - no time limit
+     * @param random source of the seeds of the threads
+     * @throws TicTacToeException if the number of threads is < 1
+     */
+    public ParallelMctsEngine(GameBoardSize boardSize, int numberOfThreads, int maxNodes, int maxIterations,
+                              long maxTime, Random random) throws TicTacToeException {
+        if(numberOfThreads < 1) {
+            throw new TicTacToeException("number of threads is < 1");
+        }
+        this.boardSize = boardSize.getValue();
+        this.fullMask = this.boardSize == Long.SIZE ? -1L : (1L << this.boardSize) - 1;
+        this.winLines = new WinLines(boardSize);
+        this.numberOfThreads = numberOfThreads;
+        this.maxIterations = maxIterations;
+        this.maxTime = maxTime;
+        this.random = random;
+        int capacity = Math.max(maxNodes, 1);
+        visits = new AtomicIntegerArray(capacity);
+        rewards = new AtomicLongArray(capacity);
+        untriedMoves = new AtomicLongArray(capacity);
+        firstChild = new AtomicIntegerArray(capacity);
+        nextSibling = new int[capacity];
+        moves = new byte[capacity];
+        terminal = new byte[capacity];
+        executor = numberOfThreads > 1 ? Executors.newFixedThreadPool(numberOfThreads, new SearchThreadFactory()) : null;
+    }
+
+    /**
+     * The search of one move is done by all the threads, the games which
+     * share the engine wait for each other's moves
+     */
+    @Override
+    public synchronized int findBestMove(GameBoard board, GameFigure figure) throws TicTacToeException {
+        if(shutdown) {
+            throw new TicTacToeException("The engine is shut down");
+        }
+        if(board.getSize() != boardSize) {
+            throw new TicTacToeException("The game board does not match the board size " + boardSize);
+        }
+        if(figure == GameFigure.EMPTY) {
+            throw new TicTacToeException("Invalid figure: " + figure);
+        }
+        long own = 0;
+        long opponent = 0;
+        for(int position = 0; position < boardSize; position++) {
+            GameFigure cell = board.get(position);
+            if(cell == figure) {
+                own |= 1L << position;
+            } else if(cell != GameFigure.EMPTY) {
+                opponent |= 1L << position;
+            }
+        }
+        if(Long.bitCount(own | opponent) == boardSize) {
+            throw new TicTacToeException("There are no moves left, the game is over");
+        }
+        return search(own, opponent);
+    }
+
+    /**
+     * Stops the search threads, the running search is finished first
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+        if(executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    /**
+     * @return number of iterations of the last search of all the threads
+     */
+    public int getLastSearchIterations() {
+        return lastSearchIterations;
+    }
+
+    /**
+     * @return number of nodes used by the last search
+     */
+    public int getLastSearchNodes() {
+        return Math.min(size.get(), getMaxNodes());
+    }
+
+    public int getMaxNodes() {
+        return nextSibling.length;
+    }
+
+    private int search(long own, long opponent) throws TicTacToeException {
+        size.set(0);
+        iterations.set(0);
+        initNode(allocateNode(), own | opponent, (byte) 0, NOT_TERMINAL);
+        nextSibling[ROOT] = NIL;
+        long deadline = maxTime > 0 ? System.nanoTime() + maxTime * 1000000L : Long.MAX_VALUE;
+
+        List<Callable<Void>> workers = new ArrayList<Callable<Void>>(numberOfThreads);
+        for(int thread = 0; thread < numberOfThreads; thread++) {
+            workers.add(new Worker(own, opponent, deadline, new Random(random.nextLong())));
+        }
+        runWorkers(workers);
+        lastSearchIterations = Math.min(iterations.get(), maxIterations);
+
+        int bestMove = NIL;
+        int bestVisits = -1;
+        for(int child = firstChild.get(ROOT); child != NIL; child = nextSibling[child]) {
+            if(visits.get(child) > bestVisits) {
+                bestVisits = visits.get(child);
+                bestMove = moves[child];
+            }
+        }
+        return bestMove != NIL ? bestMove : Long.numberOfTrailingZeros(~(own | opponent));
+    }
+
+    private void runWorkers(List<Callable<Void>> workers) throws TicTacToeException {
+        if(executor == null) {
+            try {
+                workers.get(0).call();
+            } catch (Exception e) {
+                throw new TicTacToeException("The search failed: " + e.getMessage());
+            }
+            return;
+        }
+        try {
+            for(Future<Void> future : executor.invokeAll(workers)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TicTacToeException("The search is interrupted");
+        } catch (ExecutionException e) {
+            throw new TicTacToeException("The search failed: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * @return index of the new node, it is >= the pool size if the pool is full
+     */
+    private int allocateNode() {
+        return size.getAndIncrement();
+    }
+
+    private void initNode(int node, long occupied, byte move, byte result) {
+        visits.set(node, 0);
+        rewards.set(node, 0);
+        untriedMoves.set(node, result == NOT_TERMINAL ? ~occupied & fullMask : 0);
+        firstChild.set(node, NIL);
+        moves[node] = move;
+        terminal[node] = result;
+    }
+
+    private static class SearchThreadFactory implements ThreadFactory {
+        private static final AtomicInteger NUMBER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "mcts-search-" + NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private class Worker implements Callable<Void> {
+        private final long own;
+        private final long opponent;
+        private final long deadline;
+        private final Random random;
+        private final int[] path = new int[boardSize + 1];
+        private final int[] emptyCells = new int[boardSize];
+
+        Worker(long own, long opponent, long deadline, Random random) {
+            this.own = own;
+            this.opponent = opponent;
+            this.deadline = deadline;
+            this.random = random;
+        }
+
+        @Override
+        public Void call() {
+            int iteration = 0;
+            while(iterations.getAndIncrement() < maxIterations) {
+                if(iteration++ % TIME_CHECK_INTERVAL == TIME_CHECK_INTERVAL - 1 && System.nanoTime() >= deadline) {
+                    iterations.decrementAndGet();
+                    break;
+                }
+                iterate();
+            }
+            return null;
+        }
+
+        /**
+         * One iteration: selection with virtual loss, expansion, random game and back propagation
+         */
+        private void iterate() {
+            long mover = own;      // the player to move
+            long waiting = opponent;
+            int node = ROOT;
+            int depth = 0;
+            path[0] = ROOT;
+            visits.incrementAndGet(ROOT);
+
+            byte result = terminal[node];
+            while(result == NOT_TERMINAL) {
+                int child = expand(node, mover, waiting);
+                boolean expanded = child != NIL;
+                if(!expanded) {
+                    if(firstChild.get(node) == NIL) {
+                        // the pool is full, the random game starts from the leaf
+                        break;
+                    }
+                    child = select(node);
+                }
+                visits.incrementAndGet(child);
+                node = child;
+                long newMover = waiting;
+                waiting = mover | (1L << moves[node]);
+                mover = newMover;
+                path[++depth] = node;
+                result = terminal[node];
+                if(expanded) {
+                    break;
+                }
+            }
+
+            // the last move was made by 'waiting'
+            int winner;
+            if(result == TERMINAL_WIN) {
+                winner = 1;
+            } else if(result == TERMINAL_DRAW) {
+                winner = 0;
+            } else {
+                winner = MctsEngine.playRandomGame(winLines, fullMask, mover, waiting, emptyCells, random);
+            }
+
+            // the visits are already counted on the way down
+            boolean movedByWinner = winner == 1;
+            for(int level = depth; level >= 0; level--) {
+                if(winner == 0) {
+                    rewards.addAndGet(path[level], DRAW_REWARD);
+                } else if(movedByWinner) {
+                    rewards.addAndGet(path[level], WIN_REWARD);
+                }
+                movedByWinner = !movedByWinner;
+            }
+        }
+
+        /**
+         * Takes a random untried move of the node and adds its child
+         * @return the new child or NIL if there are no untried moves or the pool is full
+         */
+        private int expand(int node, long mover, long waiting) {
+            if(size.get() >= getMaxNodes()) {
+                return NIL;
+            }
+            long untried;
+            long move;
+            do {
+                untried = untriedMoves.get(node);
+                if(untried == 0) {
+                    return NIL;
+                }
+                long rest = untried;
+                for(int i = random.nextInt(Long.bitCount(untried)); i > 0; i--) {
+                    rest &= rest - 1;
+                }
+                move = Long.lowestOneBit(rest);
+            } while(!untriedMoves.compareAndSet(node, untried, untried & ~move));
+
+            int child = allocateNode();
+            if(child >= getMaxNodes()) {
+                // the pool is full, the move is given back
+                do {
+                    untried = untriedMoves.get(node);
+                } while(!untriedMoves.compareAndSet(node, untried, untried | move));
+                return NIL;
+            }
+
+            int position = Long.numberOfTrailingZeros(move);
+            long newMover = mover | move;
+            long occupied = newMover | waiting;
+            byte result = NOT_TERMINAL;
+            if(winLines.isWin(newMover, position)) {
+                result = TERMINAL_WIN;
+            } else if(Long.bitCount(occupied) == boardSize) {
+                result = TERMINAL_DRAW;
+            }
+            initNode(child, occupied, (byte) position, result);
+            int head;
+            do {
+                head = firstChild.get(node);
+                nextSibling[child] = head;
+            } while(!firstChild.compareAndSet(node, head, child));
+            return child;
+        }
+
+        /**
+         * UCT on the counters which include the visits of the games still played by the other threads
+         */
+        private int select(int node) {
+            double logVisits = Math.log(visits.get(node));
+            int best = NIL;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for(int child = firstChild.get(node); child != NIL; child = nextSibling[child]) {
+                int childVisits = visits.get(child);
+                double value = childVisits == 0 ? Double.POSITIVE_INFINITY
+                        : rewards.get(child) / (double) (WIN_REWARD * childVisits)
+                        + EXPLORATION * Math.sqrt(logVisits / childVisits);
+                if(value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+}
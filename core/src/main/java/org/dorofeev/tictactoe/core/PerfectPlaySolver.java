@@ -0,0 +1,165 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+/**
+ * PerfectPlaySolver plays the 3x3 board perfectly. All the 3^9 boards are
+ * solved once by the retrograde analysis (from the full boards back to the
+ * empty one) when the class is loaded. A board is coded in base 3 from the
+ * side of the player who moves: 0 - empty, 1 - own figure, 2 - figure of the
+ * opponent, so one table serves both X and O. The best move of a board is
+ * one table lookup, the fastest win or the slowest loss is chosen
+ * @author Yury Dorofeev
+ * @version 2016-09-28
+ */
+public class PerfectPlaySolver implements MoveEngine {
+    private static final int BOARD_SIZE = GameBoardSize.SMALL.getValue();
+    private static final int NUMBER_OF_CODES = pow3(BOARD_SIZE);
+    private static final int NO_MOVE = -1;
+    private static final int[] POW3 = new int[BOARD_SIZE];
+    private static final byte[] BEST_MOVES = new byte[NUMBER_OF_CODES];
+    private static final byte[] SCORES = new byte[NUMBER_OF_CODES];
+
+    static {
+        for(int i = 0; i < BOARD_SIZE; i++) {
+            POW3[i] = pow3(i);
+        }
+        solve(new BitGameBoard(GameBoardSize.SMALL).getWinLines());
+    }
+
+    public PerfectPlaySolver(GameBoardSize boardSize) throws TicTacToeException {
+        if(boardSize != GameBoardSize.SMALL) {
+            throw new TicTacToeException("The perfect play solver supports only the board size " + GameBoardSize.SMALL);
+        }
+    }
+
+    @Override
+    public int findBestMove(GameBoard board, GameFigure figure) throws TicTacToeException {
+        int move = BEST_MOVES[encode(board, figure)];
+        if(move == NO_MOVE) {
+            throw new TicTacToeException("There are no moves left, the game is over");
+        }
+        return move;
+    }
+
+    /**
+     * @return the result of the perfect play for the figure which moves: WIN, LOSE or DRAW
+     * @throws TicTacToeException if the board is not supported
+     */
+    public NodeStatus solve(GameBoard board, GameFigure figure) throws TicTacToeException {
+        int score = SCORES[encode(board, figure)];
+        return score > 0 ? NodeStatus.WIN : score < 0 ? NodeStatus.LOSE : NodeStatus.DRAW;
+    }
+
+    private static int encode(GameBoard board, GameFigure figure) throws TicTacToeException {
+        if(board.getSize() != BOARD_SIZE) {
+            throw new TicTacToeException("The game board does not match the board size " + GameBoardSize.SMALL);
+        }
+        if(figure == GameFigure.EMPTY) {
+            throw new TicTacToeException("Invalid figure: " + figure);
+        }
+        int code = 0;
+        for(int position = 0; position < BOARD_SIZE; position++) {
+            GameFigure cell = board.get(position);
+            if(cell != GameFigure.EMPTY) {
+                code += POW3[position] * (cell == figure ? 1 : 2);
+            }
+        }
+        return code;
+    }
+
+    /**
+     * The boards are solved in the order of the number of empty cells, a move
+     * leads to a board with one empty cell less which is already solved.
+     * The score is from the side of the player who moves: the number of empty
+     * cells + 1 for a win, the same negative for a loss, 0 for a draw
+     */
+    private static void solve(long[] winLines) {
+        int[] own = new int[NUMBER_OF_CODES];
+        int[] opponent = new int[NUMBER_OF_CODES];
+        int[][] codesByEmptyCells = new int[BOARD_SIZE + 1][];
+        int[] counters = new int[BOARD_SIZE + 1];
+        for(int code = 0; code < NUMBER_OF_CODES; code++) {
+            int rest = code;
+            for(int position = 0; position < BOARD_SIZE; position++) {
+                int digit = rest % 3;
+                rest /= 3;
+                if(digit == 1) {
+                    own[code] |= 1 << position;
+                } else if(digit == 2) {
+                    opponent[code] |= 1 << position;
+                }
+            }
+            counters[emptyCells(own[code], opponent[code])]++;
+        }
+        for(int emptyCells = 0; emptyCells <= BOARD_SIZE; emptyCells++) {
+            codesByEmptyCells[emptyCells] = new int[counters[emptyCells]];
+            counters[emptyCells] = 0;
+        }
+        for(int code = 0; code < NUMBER_OF_CODES; code++) {
+            int emptyCells = emptyCells(own[code], opponent[code]);
+            codesByEmptyCells[emptyCells][counters[emptyCells]++] = code;
+        }
+
+        for(int emptyCells = 0; emptyCells <= BOARD_SIZE; emptyCells++) {
+            for(int code : codesByEmptyCells[emptyCells]) {
+                BEST_MOVES[code] = NO_MOVE;
+                if(hasLine(opponent[code], winLines)) {
+                    SCORES[code] = (byte) -(emptyCells + 1);
+                } else if(hasLine(own[code], winLines)) {
+                    SCORES[code] = (byte) (emptyCells + 1);
+                } else if(emptyCells == 0) {
+                    SCORES[code] = 0;
+                } else {
+                    int bestScore = Integer.MIN_VALUE;
+                    for(int position = 0; position < BOARD_SIZE; position++) {
+                        int bit = 1 << position;
+                        if(((own[code] | opponent[code]) & bit) != 0) {
+                            continue;
+                        }
+                        // after the move the opponent moves, the sides are swapped
+                        int score = -SCORES[encode(opponent[code], own[code] | bit)];
+                        if(score > bestScore) {
+                            bestScore = score;
+                            BEST_MOVES[code] = (byte) position;
+                        }
+                    }
+                    SCORES[code] = (byte) bestScore;
+                }
+            }
+        }
+    }
+
+    private static int encode(int own, int opponent) {
+        int code = 0;
+        for(int position = 0; position < BOARD_SIZE; position++) {
+            if((own & (1 << position)) != 0) {
+                code += POW3[position];
+            } else if((opponent & (1 << position)) != 0) {
+                code += 2 * POW3[position];
+            }
+        }
+        return code;
+    }
+
+    private static boolean hasLine(int mask, long[] winLines) {
+        for(long line : winLines) {
+            if((mask & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int emptyCells(int own, int opponent) {
+        return BOARD_SIZE - Integer.bitCount(own | opponent);
+    }
+
+    private static int pow3(int exponent) {
+        int result = 1;
+        for(int i = 0; i < exponent; i++) {
+            result *= 3;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,151 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+import java.util.Random;
+
+/**
+ * SelfPlayDriver plays games of two players in one game: X and O move in
+ * turns in a loop until the game is over, then the result goes to the sink
+ * and the game starts again. The players can be the learned tree of the
+ * game, random moves or a {@link MoveEngine}. Nothing is allocated per game
+ * or per move. The driver is not thread-safe, every thread needs its own
+ * game and driver
+ * @author Yury Dorofeev
+ * @version 2016-10-10
+ */
+public class SelfPlayDriver {
+    private static final GamePlayer TREE_PLAYER = new GamePlayer() {
+        @Override
+        public int makeMove(Game game, GameFigure figure) throws TicTacToeException {
+            return game.makeNewMove(figure);
+        }
+    };
+
+    private final Game game;
+    private final GamePlayer xPlayer;
+    private final GamePlayer oPlayer;
+    private final GameResultSink sink;
+    private long numberOfGames;
+
+    public SelfPlayDriver(Game game, GamePlayer xPlayer, GamePlayer oPlayer, GameResultSink sink) {
+        this.game = game;
+        this.xPlayer = xPlayer;
+        this.oPlayer = oPlayer;
+        this.sink = sink;
+    }
+
+    /**
+     * Both players play by the tree (or the move engine) of the game
+     */
+    public SelfPlayDriver(Game game) {
+        this(game, treePlayer(), treePlayer(), GameResultSink.NONE);
+    }
+
+    /**
+     * Plays one game, X moves first
+     * @return WIN or DRAW
+     * @throws TicTacToeException if a move fails
+     */
+    public GameStatus playGame() throws TicTacToeException {
+        return play(GameFigure.X, 0);
+    }
+
+    /**
+     * Plays one game where the first move of X is given
+     * @param opening position of the first move
+     * @return WIN or DRAW
+     * @throws TicTacToeException if a move fails
+     */
+    public GameStatus playGame(int opening) throws TicTacToeException {
+        game.makeNewMove(GameFigure.X, opening);
+        return play(GameFigure.O, 1);
+    }
+
+    /**
+     * @return number of games played
+     */
+    public long play(long numberOfGames) throws TicTacToeException {
+        for(long i = 0; i < numberOfGames; i++) {
+            playGame();
+        }
+        return numberOfGames;
+    }
+
+    /**
+     * @return number of games played by this driver
+     */
+    public long getNumberOfGames() {
+        return numberOfGames;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    private GameStatus play(GameFigure figure, int numberOfMoves) throws TicTacToeException {
+        GameFigure lastFigure = figure == GameFigure.X ? GameFigure.O : GameFigure.X;
+        GameStatus status = game.getGameStatus();
+        while(status == GameStatus.CONTINUE) {
+            (figure == GameFigure.X ? xPlayer : oPlayer).makeMove(game, figure);
+            numberOfMoves++;
+            lastFigure = figure;
+            figure = figure == GameFigure.X ? GameFigure.O : GameFigure.X;
+            status = game.getGameStatus();
+        }
+        game.gameOver(status);
+        numberOfGames++;
+        sink.gameOver(status, status == GameStatus.WIN ? lastFigure : GameFigure.EMPTY, numberOfMoves);
+        return status;
+    }
+
+    /**
+     * @return player which moves by the tree or by the move engine of the game
+     */
+    public static GamePlayer treePlayer() {
+        return TREE_PLAYER;
+    }
+
+    /**
+     * @return player which moves to a random empty cell, it is not thread-safe
+     */
+    public static GamePlayer randomPlayer(final Random random) {
+        return new GamePlayer() {
+            private int[] emptyCells = new int[0];
+
+            @Override
+            public int makeMove(Game game, GameFigure figure) throws TicTacToeException {
+                GameBoard board = game.getGameBoard();
+                if(emptyCells.length < board.getSize()) {
+                    emptyCells = new int[board.getSize()];
+                }
+                int numberOfEmptyCells = 0;
+                for(int position = 0; position < board.getSize(); position++) {
+                    if(board.get(position) == GameFigure.EMPTY) {
+                        emptyCells[numberOfEmptyCells++] = position;
+                    }
+                }
+                if(numberOfEmptyCells == 0) {
+                    throw new TicTacToeException("There are no empty slots on the game board");
+                }
+                int position = emptyCells[random.nextInt(numberOfEmptyCells)];
+                game.makeNewMove(figure, position);
+                return position;
+            }
+        };
+    }
+
+    /**
+     * @return player which moves by the given engine, the game can have a tree of its own
+     */
+    public static GamePlayer enginePlayer(final MoveEngine moveEngine) {
+        return new GamePlayer() {
+            @Override
+            public int makeMove(Game game, GameFigure figure) throws TicTacToeException {
+                int position = moveEngine.findBestMove(game.getGameBoard(), figure);
+                game.makeNewMove(figure, position);
+                return position;
+            }
+        };
+    }
+}
@@ -0,0 +1,418 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.NodeNotFoundException;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.dorofeev.tictactoe.core.exception.UpdateStatusException;
+
+import java.util.Arrays;
+
+/**
+ * TranspositionTree stores every board position only once, no matter in which
+ * order the moves were made. The nodes form a DAG: a node is keyed by the pair
+ * of bit masks of the positions taken by the first and by the second player,
+ * so X0-O4-X8 and X8-O4-X0 share one status record. Children and parents are
+ * not stored, they are found by adding or removing a figure and looking the
+ * key up. When a status is known it is propagated to every parent of the
+ * position, not only to the one of the current branch.
+ * With the symmetry switched on every position is stored in its canonical
+ * form (see {@link BoardSymmetry}), so the rotated and reflected boards share
+ * one node too. The cursor keeps the real board, the lookups canonicalise the
+ * keys, that's why the positions seen by the caller are never transformed
+ * @author Yury Dorofeev
+ * @version 2016-09-19
+ */
+public class TranspositionTree implements GameTree {
+    private static final int MAX_ROOT_SIZE = Long.SIZE / 2;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final NodeStatus[] STATUSES = NodeStatus.values();
+
+    private final int rootSize;
+    private final long fullMask;
+    private final BoardSymmetry symmetry;
+    private final LongIntHashMap index = new LongIntHashMap();
+    private long[] keys;
+    private byte[] statuses;
+    private int size;
+
+    private final int[] path;
+    private final int[] pathPositions;
+    private int depth;
+    private long first;  // positions taken by the player who made the first move
+    private long second; // positions taken by the other player
+
+    private int[] stack = new int[64];
+
+    public TranspositionTree(int rootSize) throws TicTacToeException {
+        this(rootSize, false);
+    }
+
+    /**
+     * @param rootSize number of cells on the game board
+     * @param useSymmetry store symmetric positions as one node, the board must be a square
+     * @throws TicTacToeException if the board size is not supported
+     */
+    public TranspositionTree(int rootSize, boolean useSymmetry) throws TicTacToeException {
+        if(rootSize < 0) {
+            throw new TicTacToeException("children collection size is < 0");
+        }
+        if(rootSize > MAX_ROOT_SIZE) {
+            throw new TicTacToeException("children collection size is > " + MAX_ROOT_SIZE);
+        }
+        this.rootSize = rootSize;
+        this.fullMask = (1L << rootSize) - 1;
+        this.symmetry = useSymmetry ? new BoardSymmetry(rootSize) : null;
+        keys = new long[INITIAL_CAPACITY];
+        statuses = new byte[INITIAL_CAPACITY];
+        path = new int[rootSize + 1];
+        pathPositions = new int[rootSize];
+        path[0] = createNode(key(0, 0));
+    }
+
+    /**
+     * Method adds new Child node to the Current node and moves Current node to
+     * the new one. If the position was already reached by another sequence of
+     * moves the existing node is reused
+     * @param position position on the game board
+     * @throws TicTacToeException if the position is occupied or there are no empty positions left
+     */
+    @Override
+    public void addNode(int position) throws TicTacToeException {
+        if(depth == rootSize) {
+            throw new TicTacToeException("The children collection is full. You can not add more nodes!");
+        }
+        if(isOccupied(position)) {
+            throw new TicTacToeException("Position " + position + " is already occupied");
+        }
+        long key = childKey(position);
+        int node = index.get(key);
+        if(node == LongIntHashMap.NOT_FOUND) {
+            node = createNode(key);
+        }
+        push(position, node);
+    }
+
+    @Override
+    public void moveToRoot() {
+        while(depth > 0) {
+            moveToParent();
+        }
+    }
+
+    @Override
+    public void moveToParent() {
+        if(depth == 0) {
+            return;
+        }
+        long bit = 1L << pathPositions[depth - 1];
+        if((depth & 1) == 1) {
+            first &= ~bit;
+        } else {
+            second &= ~bit;
+        }
+        depth--;
+    }
+
+    @Override
+    public void moveToChild(int position) throws NodeNotFoundException {
+        push(position, findChild(position));
+    }
+
+    @Override
+    public boolean tryMoveToChild(int position) {
+        int child = lookupChild(position);
+        if(child == LongIntHashMap.NOT_FOUND) {
+            return false;
+        }
+        push(position, child);
+        return true;
+    }
+
+    @Override
+    public NodeStatus getChildStatus(int position) throws NodeNotFoundException {
+        return getStatus(findChild(position));
+    }
+
+    @Override
+    public NodeStatus findChildStatus(int position) {
+        int child = lookupChild(position);
+        return child == LongIntHashMap.NOT_FOUND ? null : getStatus(child);
+    }
+
+    /**
+     * Children are visited in the order of their positions on the game board
+     */
+    @Override
+    public int findChildPositionWithStatus(NodeStatus status) {
+        long empty = ~(first | second) & fullMask;
+        while(empty != 0) {
+            int position = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            int child = index.get(childKey(position));
+            if(child != LongIntHashMap.NOT_FOUND && getStatus(child) == status) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getCurrentChildrenNumber() {
+        int childrenNumber = 0;
+        long empty = ~(first | second) & fullMask;
+        while(empty != 0) {
+            int position = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            if(index.get(childKey(position)) != LongIntHashMap.NOT_FOUND) {
+                childrenNumber++;
+            }
+        }
+        return childrenNumber;
+    }
+
+    @Override
+    public int getCurrentMaxChildrenCapacity() {
+        return rootSize - depth;
+    }
+
+    @Override
+    public NodeStatus getCurrentStatus() {
+        return getStatus(path[depth]);
+    }
+
+    @Override
+    public void setCurrentStatus(NodeStatus status) {
+        statuses[path[depth]] = (byte) status.ordinal();
+    }
+
+    @Override
+    public NodeStatus getRootStatus() {
+        return getStatus(path[0]);
+    }
+
+    @Override
+    public int getRootMaxChildrenCapacity() {
+        return rootSize;
+    }
+
+    /**
+     * Method updates status of all the parents of the current node, following
+     * every branch which leads to it. The Current node moves up the current
+     * branch to the first node whose status was not changed (or to the root)
+     */
+    @Override
+    public void updateTreeStatus() throws UpdateStatusException {
+        if(getCurrentStatus() == NodeStatus.UNKNOWN) {
+            throw new UpdateStatusException("The node status is 'unknown'. It " +
+                    "should be changed before calling 'UpdateBranchStatus' method");
+        }
+        long unknownNodes = 0;
+        for(int level = 0; level < depth; level++) {
+            if(getStatus(path[level]) == NodeStatus.UNKNOWN) {
+                unknownNodes |= 1L << level;
+            }
+        }
+
+        propagateStatus(path[depth]);
+
+        // a node created after its children got their statuses was never
+        // evaluated by the propagation, check the whole current branch
+        long branchFirst = first;
+        long branchSecond = second;
+        for(int level = depth - 1; level >= 0; level--) {
+            long bit = 1L << pathPositions[level];
+            if(((level + 1) & 1) == 1) {
+                branchFirst &= ~bit;
+            } else {
+                branchSecond &= ~bit;
+            }
+            if(getStatus(path[level]) == NodeStatus.UNKNOWN) {
+                NodeStatus status = calcStatus(branchFirst, branchSecond, level);
+                if(status != NodeStatus.UNKNOWN) {
+                    statuses[path[level]] = (byte) status.ordinal();
+                    propagateStatus(path[level]);
+                }
+            }
+        }
+
+        while(depth > 0) {
+            moveToParent();
+            boolean updated = (unknownNodes & (1L << depth)) != 0 && getStatus(path[depth]) != NodeStatus.UNKNOWN;
+            if(!updated) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public long getNumberOfNodes() {
+        long numberOfNodes = 0;
+        for(int node = 0; node < size; node++) {
+            if(Long.bitCount(keys[node]) >= 2) {
+                numberOfNodes++;
+            }
+        }
+        return numberOfNodes;
+    }
+
+    @Override
+    public long getNumberOfNodes(int level) {
+        long numberOfNodes = 0;
+        if(level <= 0) {
+            return numberOfNodes;
+        }
+        for(int node = 0; node < size; node++) {
+            if(Long.bitCount(keys[node]) == level) {
+                numberOfNodes++;
+            }
+        }
+        return numberOfNodes;
+    }
+
+    @Override
+    public int getTreeDepth() {
+        int maxTreeDepth = 0;
+        for(int node = 0; node < size; node++) {
+            maxTreeDepth = Math.max(maxTreeDepth, Long.bitCount(keys[node]));
+        }
+        return maxTreeDepth;
+    }
+
+    /**
+     * Key of the position. Bits of the first player go to the low half of the
+     * key, bits of the second player to the high half
+     */
+    private long key(long first, long second) {
+        if(symmetry != null) {
+            int transform = symmetry.canonicalTransform(first, second);
+            first = symmetry.transformMask(first, transform);
+            second = symmetry.transformMask(second, transform);
+        }
+        return first | (second << rootSize);
+    }
+
+    private long childKey(int position) {
+        long bit = 1L << position;
+        if(((depth + 1) & 1) == 1) {
+            return key(first | bit, second);
+        }
+        return key(first, second | bit);
+    }
+
+    private void propagateStatus(int node) {
+        int top = 0;
+        stack[top++] = node;
+        while(top > 0) {
+            long key = keys[stack[--top]];
+            long nodeFirst = key & fullMask;
+            long nodeSecond = key >>> rootSize;
+            int level = Long.bitCount(key);
+            boolean firstMovedLast = (level & 1) == 1;
+            long moves = firstMovedLast ? nodeFirst : nodeSecond;
+            while(moves != 0) {
+                long bit = Long.lowestOneBit(moves);
+                moves &= moves - 1;
+                long parentFirst = firstMovedLast ? nodeFirst & ~bit : nodeFirst;
+                long parentSecond = firstMovedLast ? nodeSecond : nodeSecond & ~bit;
+                int parent = index.get(key(parentFirst, parentSecond));
+                if(parent == LongIntHashMap.NOT_FOUND || getStatus(parent) != NodeStatus.UNKNOWN) {
+                    continue;
+                }
+                NodeStatus status = calcStatus(parentFirst, parentSecond, level - 1);
+                if(status != NodeStatus.UNKNOWN) {
+                    statuses[parent] = (byte) status.ordinal();
+                    if(top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = parent;
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the status of the position from the statuses of its children.
+     * The rules are the same as in {@link Tree}
+     */
+    private NodeStatus calcStatus(long first, long second, int level) {
+        int losers = 0;
+        int draws = 0;
+        int maxChildrenCapacity = rootSize - level;
+        boolean allChildrenHaveStatus = true;
+        boolean firstMovesNext = ((level + 1) & 1) == 1;
+
+        long empty = ~(first | second) & fullMask;
+        while(empty != 0) {
+            long bit = Long.lowestOneBit(empty);
+            empty &= empty - 1;
+            int child = index.get(firstMovesNext ? key(first | bit, second) : key(first, second | bit));
+            if(child == LongIntHashMap.NOT_FOUND) {
+                allChildrenHaveStatus = false;
+                continue;
+            }
+            switch (getStatus(child)) {
+                case WIN:
+                    // if a Child wins then Parent loses
+                    return NodeStatus.LOSE;
+                case LOSE:
+                    losers++;
+                    break;
+                case DRAW:
+                    draws++;
+                    break;
+                default:
+                    allChildrenHaveStatus = false;
+                    break;
+            }
+        }
+
+        if(losers == maxChildrenCapacity) {
+            return NodeStatus.WIN;
+        } else if(draws == maxChildrenCapacity || allChildrenHaveStatus) {
+            return NodeStatus.DRAW;
+        }
+        return NodeStatus.UNKNOWN;
+    }
+
+    private int findChild(int position) throws NodeNotFoundException {
+        int child = lookupChild(position);
+        if(child == LongIntHashMap.NOT_FOUND) {
+            throw new NodeNotFoundException("Node with position " + position + " is not found");
+        }
+        return child;
+    }
+
+    private int lookupChild(int position) {
+        return isOccupied(position) ? LongIntHashMap.NOT_FOUND : index.get(childKey(position));
+    }
+
+    private boolean isOccupied(int position) {
+        return ((first | second) & (1L << position)) != 0;
+    }
+
+    private void push(int position, int node) {
+        pathPositions[depth] = position;
+        depth++;
+        path[depth] = node;
+        if((depth & 1) == 1) {
+            first |= 1L << position;
+        } else {
+            second |= 1L << position;
+        }
+    }
+
+    private int createNode(long key) {
+        if(size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            statuses = Arrays.copyOf(statuses, size * 2);
+        }
+        int node = size++;
+        keys[node] = key;
+        statuses[node] = (byte) NodeStatus.UNKNOWN.ordinal();
+        index.put(key, node);
+        return node;
+    }
+
+    private NodeStatus getStatus(int node) {
+        return STATUSES[statuses[node]];
+    }
+}
@@ -4,21 +4,56 @@ import org.dorofeev.tictactoe.core.exception.NodeNotFoundException;
 import org.dorofeev.tictactoe.core.exception.TicTacToeException;
 import org.dorofeev.tictactoe.core.exception.UpdateStatusException;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
 /**
- * Tree class
+ * Tree class.
+ * The weight of a node is the number of games which went through it.
+ * {@link #compact()} drops the parts of the solved subtrees which the best
+ * play never reaches, the statuses are kept. With a node budget the tree is
+ * compacted when it is full, then the lightest branches are evicted: UNKNOWN
+ * ones are removed, solved ones become leaves with their statuses. The budget
+ * counts the nodes, not the heap: the children index of a node grows with
+ * its children, so the bytes per node vary with the shape of the tree.
+ * The statistics are live counters updated by every change of the tree, so
+ * they cost nothing to read. Change the statuses through the tree, not
+ * through the nodes, or call {@link #recount()}
  * @author Yury Dorofeev
  * @version 2015-09-07
  */
-public class Tree {
+public class Tree implements GameTree {
+    private static final Comparator<Node> EVICTION_ORDER = new Comparator<Node>() {
+        @Override
+        public int compare(Node node1, Node node2) {
+            // the lightest first, the deepest of the same weight first
+            if(node1.getWeight() != node2.getWeight()) {
+                return node1.getWeight() < node2.getWeight() ? -1 : 1;
+            }
+            return node2.getLevel() - node1.getLevel();
+        }
+    };
+
     private Node root;
     private Node currentNode;
-    private long numberOfNodes;
-    private long numberOfNodesPerLevel;
-    private int maxTreeDepth;
+    private long numberOfStoredNodes;     // all the nodes except the root
+    private long maxNumberOfStoredNodes;  // 0 - no limit
+    private long nextTrimSize;            // no trim below this size after a trim which did not fit the budget
+    private long numberOfTrims;
+    private final long[] numberOfNodesPerLevel;   // level 0 is the root
+    private final long[] numberOfNodesPerStatus;  // the root is not counted
+    private int treeDepth;
 
     public Tree(int rootSize) throws TicTacToeException {
         root = new Node(rootSize);
         currentNode = root;
+        numberOfNodesPerLevel = new long[rootSize + 1];
+        numberOfNodesPerLevel[0] = 1;
+        numberOfNodesPerStatus = new long[NodeStatus.values().length];
     }
 
     /**
@@ -26,12 +61,24 @@ public class Tree {
      * @param position position on the game board
      * @throws TicTacToeException
      */
+    @Override
     public void addNode(int position) throws TicTacToeException {
         Node node = new Node(currentNode.getMaxChildrenCapacity()-1);
         node.setPosition(position);
+        node.setWeight(1);
         currentNode.addChild(node);
         currentNode = node;
+        numberOfStoredNodes++;
+        numberOfNodesPerLevel[node.getLevel()]++;
+        numberOfNodesPerStatus[node.getStatus().ordinal()]++;
+        if(node.getLevel() > treeDepth) {
+            treeDepth = node.getLevel();
+        }
+        if(isOverBudget()) {
+            trim();
+        }
     }
+    @Override
     public void moveToRoot()
     {
         currentNode = root;
@@ -40,6 +87,7 @@ public class Tree {
     {
         return root;
     }
+    @Override
     public void moveToParent() {
         if(currentNode.equals(root)) {
             return;
@@ -48,19 +96,87 @@ public class Tree {
     }
 
     public Node findChildNodeWithGivenPosition(int position) throws NodeNotFoundException {
-        for(Node node : currentNode.getChildren()) {
-            if(node.getPosition() == position) {
-                return node;
-            }
+        Node node = lookupChild(position);
+        if(node == null) {
+            throw new NodeNotFoundException("Node with position "+position+" is not found");
         }
-        throw new NodeNotFoundException("Node with position "+position+" is not found");
+        return node;
     }
 
     public void moveToChild(Node node) throws NodeNotFoundException {
-        if(!currentNode.getChildren().contains(node)) {
-            throw new NodeNotFoundException("Given child node is not found. Node: " + node.toString());
+        if(node == null || currentNode.findChild(node.getPosition()) != node) {
+            throw new NodeNotFoundException("Given child node is not found. Node: " + node);
         }
         currentNode = node;
+        currentNode.setWeight(currentNode.getWeight() + 1);
+    }
+
+    @Override
+    public void moveToChild(int position) throws NodeNotFoundException {
+        currentNode = findChildNodeWithGivenPosition(position);
+        currentNode.setWeight(currentNode.getWeight() + 1);
+    }
+
+    @Override
+    public boolean tryMoveToChild(int position) {
+        Node node = lookupChild(position);
+        if(node == null) {
+            return false;
+        }
+        currentNode = node;
+        currentNode.setWeight(currentNode.getWeight() + 1);
+        return true;
+    }
+
+    @Override
+    public NodeStatus getChildStatus(int position) throws NodeNotFoundException {
+        return findChildNodeWithGivenPosition(position).getStatus();
+    }
+
+    @Override
+    public NodeStatus findChildStatus(int position) {
+        Node node = lookupChild(position);
+        return node == null ? null : node.getStatus();
+    }
+
+    @Override
+    public int findChildPositionWithStatus(NodeStatus status) {
+        for(Node node : currentNode.getChildren()) {
+            if(node.getStatus() == status) {
+                return node.getPosition();
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getCurrentChildrenNumber() {
+        return currentNode.getChildren().size();
+    }
+
+    @Override
+    public int getCurrentMaxChildrenCapacity() {
+        return currentNode.getMaxChildrenCapacity();
+    }
+
+    @Override
+    public NodeStatus getCurrentStatus() {
+        return currentNode.getStatus();
+    }
+
+    @Override
+    public void setCurrentStatus(NodeStatus status) {
+        changeStatus(currentNode, status);
+    }
+
+    @Override
+    public NodeStatus getRootStatus() {
+        return root.getStatus();
+    }
+
+    @Override
+    public int getRootMaxChildrenCapacity() {
+        return root.getMaxChildrenCapacity();
     }
 
     public Node getCurrentNode()
@@ -73,59 +189,301 @@ public class Tree {
      * root). Call this method when the game is over. Update current node status
      * before calling this method!
      */
+    @Override
     public void updateTreeStatus() throws UpdateStatusException {
         updateBranchStatus(true);
     }
 
+    @Override
     public long getNumberOfNodes() {
-        numberOfNodes = 0;
-        calcNumberOfNodes(root);
-        return numberOfNodes;
+        return numberOfStoredNodes - getNumberOfNodes(1);
     }
 
+    @Override
     public long getNumberOfNodes(int level) {
-        numberOfNodesPerLevel = 0;
-        calcNumberOfNodesPerLevel(root, level);
-        return numberOfNodesPerLevel;
+        if(level <= 0 || level >= numberOfNodesPerLevel.length) {
+            return 0;
+        }
+        return numberOfNodesPerLevel[level];
     }
 
+    /**
+     * @return number of the nodes with the status, the root is not counted
+     */
+    public long getNumberOfNodes(NodeStatus status) {
+        return numberOfNodesPerStatus[status.ordinal()];
+    }
+
+    @Override
     public int getTreeDepth() {
-        maxTreeDepth = 0;
-        calcTreeDepth(root);
-        return maxTreeDepth;
+        return treeDepth;
     }
 
-    private void calcNumberOfNodesPerLevel(Node node, int level) {
-        for(Node child : node.getChildren()) {
-            if(child.getLevel() == level) {
-                numberOfNodesPerLevel ++;
+    /**
+     * @return number of the nodes kept in memory, the root is not counted
+     */
+    public long getNumberOfStoredNodes() {
+        return numberOfStoredNodes;
+    }
+
+    public long getMaxNumberOfStoredNodes() {
+        return maxNumberOfStoredNodes;
+    }
+
+    /**
+     * Sets the node budget of the tree. When a new node does not fit, the
+     * tree is compacted and then the lightest branches are evicted until 90%
+     * of the budget is used. The branch of the Current node and the solved
+     * leaves are never evicted, so the tree can stay over the budget; then
+     * the next trim waits until 10% of the budget more nodes are added.
+     * The budget is a number of nodes, not of bytes, see {@link Tree}
+     * @param maxNumberOfStoredNodes max number of the nodes (the root is not counted), 0 - no limit
+     * @throws TicTacToeException if the budget is < 0
+     */
+    public void setMaxNumberOfStoredNodes(long maxNumberOfStoredNodes) throws TicTacToeException {
+        if(maxNumberOfStoredNodes < 0) {
+            throw new TicTacToeException("max number of nodes is < 0");
+        }
+        this.maxNumberOfStoredNodes = maxNumberOfStoredNodes;
+        nextTrimSize = 0;
+        if(isOverBudget()) {
+            trim();
+        }
+    }
+
+    /**
+     * Drops the nodes which the best play does not need. A LOSE node keeps
+     * all its children, as the choice of the move is made by their statuses,
+     * but only its first WIN child (the one the game chooses) keeps its
+     * subtree, the other children become leaves with their statuses.
+     * The learned statuses are not changed, the Current node branch is not touched
+     * @return number of the removed nodes
+     */
+    public long compact() {
+        long numberOfNodesBefore = numberOfStoredNodes;
+        ArrayDeque<Node> stack = new ArrayDeque<Node>();
+        stack.push(root);
+        while(!stack.isEmpty()) {
+            Node node = stack.pop();
+            Node proof = node.getStatus() == NodeStatus.LOSE ? findChildWithStatus(node, NodeStatus.WIN) : null;
+            for(Node child : node.getChildren()) {
+                if(proof != null && child != proof && !isOnCurrentBranch(child)) {
+                    collapse(child);
+                } else {
+                    stack.push(child);
+                }
+            }
+        }
+        updateTreeDepth();
+        return numberOfNodesBefore - numberOfStoredNodes;
+    }
+
+    /**
+     * Recounts all the counters by a walk over the whole tree. Call it after
+     * the nodes were changed directly, e.g. by the {@link LearningEngine} merge
+     */
+    public void recount() {
+        Counters counters = walk();
+        numberOfStoredNodes = counters.numberOfStoredNodes;
+        System.arraycopy(counters.numberOfNodesPerLevel, 0, numberOfNodesPerLevel, 0, numberOfNodesPerLevel.length);
+        System.arraycopy(counters.numberOfNodesPerStatus, 0, numberOfNodesPerStatus, 0, numberOfNodesPerStatus.length);
+        updateTreeDepth();
+        if(isOverBudget()) {
+            trim();
+        }
+    }
+
+    /**
+     * Audit: walks over the whole tree without recursion and compares the
+     * result with the live counters
+     * @throws TicTacToeException if a counter does not match the tree
+     */
+    public void verifyCounters() throws TicTacToeException {
+        Counters counters = walk();
+        if(counters.numberOfStoredNodes != numberOfStoredNodes) {
+            throw new TicTacToeException("The number of nodes is " + numberOfStoredNodes
+                    + ", the tree has " + counters.numberOfStoredNodes);
+        }
+        if(!Arrays.equals(counters.numberOfNodesPerLevel, numberOfNodesPerLevel)) {
+            throw new TicTacToeException("The numbers of nodes per level are " + Arrays.toString(numberOfNodesPerLevel)
+                    + ", the tree has " + Arrays.toString(counters.numberOfNodesPerLevel));
+        }
+        if(!Arrays.equals(counters.numberOfNodesPerStatus, numberOfNodesPerStatus)) {
+            throw new TicTacToeException("The numbers of nodes per status are " + Arrays.toString(numberOfNodesPerStatus)
+                    + ", the tree has " + Arrays.toString(counters.numberOfNodesPerStatus));
+        }
+    }
+
+    private Counters walk() {
+        Counters counters = new Counters(numberOfNodesPerLevel.length);
+        counters.numberOfNodesPerLevel[0] = 1;
+        ArrayDeque<Node> stack = new ArrayDeque<Node>(root.getChildren());
+        while(!stack.isEmpty()) {
+            Node node = stack.pop();
+            counters.numberOfStoredNodes++;
+            counters.numberOfNodesPerLevel[node.getLevel()]++;
+            counters.numberOfNodesPerStatus[node.getStatus().ordinal()]++;
+            for(Node child : node.getChildren()) {
+                stack.push(child);
+            }
+        }
+        return counters;
+    }
+
+    private static class Counters {
+        private long numberOfStoredNodes;
+        private final long[] numberOfNodesPerLevel;
+        private final long[] numberOfNodesPerStatus = new long[NodeStatus.values().length];
+
+        Counters(int numberOfLevels) {
+            numberOfNodesPerLevel = new long[numberOfLevels];
+        }
+    }
+
+    /**
+     * @return number of the compactions and evictions run by the node budget
+     */
+    long getNumberOfTrims() {
+        return numberOfTrims;
+    }
+
+    private boolean isOverBudget() {
+        return maxNumberOfStoredNodes > 0 && numberOfStoredNodes > maxNumberOfStoredNodes
+                && numberOfStoredNodes >= nextTrimSize;
+    }
+
+    private void trim() {
+        numberOfTrims++;
+        compact();
+        long target = maxNumberOfStoredNodes - maxNumberOfStoredNodes / 10;
+        if(numberOfStoredNodes > target) {
+            evict(target);
+        }
+        nextTrimSize = numberOfStoredNodes > maxNumberOfStoredNodes
+                ? numberOfStoredNodes + Math.max(1, maxNumberOfStoredNodes / 10) : 0;
+    }
+
+    /**
+     * The lightest nodes go first: an UNKNOWN node is removed with its
+     * subtree, a solved one loses its subtree and stays as a leaf with its status
+     */
+    private void evict(long target) {
+        List<Node> candidates = collectEvictionCandidates();
+        Collections.sort(candidates, EVICTION_ORDER);
+        for(Node node : candidates) {
+            if(numberOfStoredNodes <= target) {
+                return;
+            }
+            if(!isAttached(node)) {
+                continue;
+            }
+            if(node.getStatus() == NodeStatus.UNKNOWN) {
+                node.getParent().removeChild(node);
+                node.setParent(null);
+                forget(node);
             } else {
-                calcNumberOfNodesPerLevel(child, level);
+                collapse(node);
             }
         }
+        updateTreeDepth();
     }
 
-    private void calcTreeDepth(Node node) {
+    private List<Node> collectEvictionCandidates() {
+        List<Node> candidates = new ArrayList<Node>();
+        ArrayDeque<Node> stack = new ArrayDeque<Node>(root.getChildren());
+        while(!stack.isEmpty()) {
+            Node node = stack.pop();
+            if((node.getStatus() == NodeStatus.UNKNOWN || !node.getChildren().isEmpty())
+                    && !isOnCurrentBranch(node)) {
+                candidates.add(node);
+            }
+            for(Node child : node.getChildren()) {
+                stack.push(child);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Removes the subtree of the node, the node stays as a leaf
+     */
+    private void collapse(Node node) {
         for(Node child : node.getChildren()) {
-            if(child.getLevel() > maxTreeDepth) {
-                maxTreeDepth = child.getLevel();
+            child.setParent(null);
+            forget(child);
+        }
+        node.removeChildren();
+    }
+
+    /**
+     * Takes the removed node and its subtree off the counters
+     */
+    private void forget(Node node) {
+        ArrayDeque<Node> stack = new ArrayDeque<Node>();
+        stack.push(node);
+        while(!stack.isEmpty()) {
+            Node removedNode = stack.pop();
+            numberOfStoredNodes--;
+            numberOfNodesPerLevel[removedNode.getLevel()]--;
+            numberOfNodesPerStatus[removedNode.getStatus().ordinal()]--;
+            for(Node child : removedNode.getChildren()) {
+                stack.push(child);
+            }
+        }
+    }
+
+    private void updateTreeDepth() {
+        treeDepth = numberOfNodesPerLevel.length - 1;
+        while(treeDepth > 0 && numberOfNodesPerLevel[treeDepth] == 0) {
+            treeDepth--;
+        }
+    }
+
+    private void changeStatus(Node node, NodeStatus status) {
+        if(node != root) {
+            numberOfNodesPerStatus[node.getStatus().ordinal()]--;
+            numberOfNodesPerStatus[status.ordinal()]++;
+        }
+        node.setStatus(status);
+    }
+
+    private boolean isOnCurrentBranch(Node node) {
+        for(Node branchNode = currentNode; branchNode != null; branchNode = branchNode.getParent()) {
+            if(branchNode == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return false if the node or one of its parents is evicted
+     */
+    private boolean isAttached(Node node) {
+        Node attachedNode = node;
+        while(attachedNode != root) {
+            if(attachedNode == null) {
+                return false;
             }
-            calcTreeDepth(child);
+            attachedNode = attachedNode.getParent();
         }
+        return true;
+    }
+
+    private Node lookupChild(int position) {
+        return currentNode.findChild(position);
     }
 
-    private void calcNumberOfNodes(Node node) {
+    private static Node findChildWithStatus(Node node, NodeStatus status) {
         for(Node child : node.getChildren()) {
-            numberOfNodes += child.getChildren().size();
-            calcNumberOfNodes(child);
+            if(child.getStatus() == status) {
+                return child;
+            }
         }
+        return null;
     }
 
     private void updateBranchStatus(boolean isFirstCall) throws UpdateStatusException {
-        int losers = 0;
-        int draws = 0;
-        boolean allChildrenHaveStatus = (currentNode.getMaxChildrenCapacity() == currentNode.getChildren().size());
-
         if(isFirstCall) {
             if(currentNode.getStatus() == NodeStatus.UNKNOWN) {
                 throw new UpdateStatusException("The node status is 'unknown'. It " +
@@ -135,13 +493,27 @@ public class Tree {
             return;
         }
 
-        for(Node node : currentNode.getChildren()) {
-            switch (node.getStatus())
+        NodeStatus status = calcStatus(currentNode);
+        if(status != NodeStatus.UNKNOWN) {
+            updateStatusAndMoveToParent(status);
+        }
+    }
+
+    /**
+     * Calculates the status of the node from the statuses of its children
+     * @return the new status or UNKNOWN if it can not be defined yet
+     */
+    static NodeStatus calcStatus(Node node) {
+        int losers = 0;
+        int draws = 0;
+        boolean allChildrenHaveStatus = (node.getMaxChildrenCapacity() == node.getChildren().size());
+
+        for(Node child : node.getChildren()) {
+            switch (child.getStatus())
             {
                 case WIN:
                     // if a Child wins then Parent loses
-                    updateStatusAndMoveToParent(NodeStatus.LOSE);
-                    return;
+                    return NodeStatus.LOSE;
                 case LOSE:
                     // if ALL children lose then parent wins
                     losers++;
@@ -155,11 +527,12 @@ public class Tree {
             }
         }
 
-        if(losers == currentNode.getMaxChildrenCapacity()) {
-            updateStatusAndMoveToParent(NodeStatus.WIN);
-        } else if(draws == currentNode.getMaxChildrenCapacity() || allChildrenHaveStatus) {
-            updateStatusAndMoveToParent(NodeStatus.DRAW);
+        if(losers == node.getMaxChildrenCapacity()) {
+            return NodeStatus.WIN;
+        } else if(draws == node.getMaxChildrenCapacity() || allChildrenHaveStatus) {
+            return NodeStatus.DRAW;
         }
+        return NodeStatus.UNKNOWN;
     }
 
     private void gotoParentAndUpdateBranch() throws UpdateStatusException {
@@ -171,7 +544,7 @@ public class Tree {
 
     private void updateStatusAndMoveToParent(NodeStatus status) throws UpdateStatusException {
         if(currentNode.getStatus() == NodeStatus.UNKNOWN) {
-            currentNode.setStatus(status);
+            changeStatus(currentNode, status);
             gotoParentAndUpdateBranch();
         }
     }
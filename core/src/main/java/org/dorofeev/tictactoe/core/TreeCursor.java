@@ -0,0 +1,167 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.NodeNotFoundException;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.dorofeev.tictactoe.core.exception.UpdateStatusException;
+
+/**
+ * TreeCursor is the Current node of one game on a shared {@link ConcurrentTree}.
+ * Every game gets its own cursor, so many games can read and extend the same
+ * tree at once. A cursor itself is not thread-safe
+ * @author Yury Dorofeev
+ * @version 2016-09-24
+ */
+public class TreeCursor implements GameTree {
+    private final ConcurrentTree tree;
+    private ConcurrentTree.ConcurrentNode currentNode;
+
+    TreeCursor(ConcurrentTree tree) {
+        this.tree = tree;
+        this.currentNode = tree.getRoot();
+    }
+
+    public ConcurrentTree getTree() {
+        return tree;
+    }
+
+    /**
+     * Method moves Current node to the child with the given position, the
+     * child is created if it does not exist yet
+     * @param position position on the game board
+     * @throws TicTacToeException if the position is out of the board or the Current node can not have more children
+     */
+    @Override
+    public void addNode(int position) throws TicTacToeException {
+        currentNode = tree.getOrAddChild(currentNode, position);
+    }
+
+    @Override
+    public void moveToRoot() {
+        currentNode = tree.getRoot();
+    }
+
+    @Override
+    public void moveToParent() {
+        if(currentNode.parent != null) {
+            currentNode = currentNode.parent;
+        }
+    }
+
+    @Override
+    public void moveToChild(int position) throws NodeNotFoundException {
+        currentNode = findChild(position);
+    }
+
+    @Override
+    public boolean tryMoveToChild(int position) {
+        ConcurrentTree.ConcurrentNode child = lookupChild(position);
+        if(child == null) {
+            return false;
+        }
+        currentNode = child;
+        return true;
+    }
+
+    @Override
+    public NodeStatus getChildStatus(int position) throws NodeNotFoundException {
+        return findChild(position).getStatus();
+    }
+
+    @Override
+    public NodeStatus findChildStatus(int position) {
+        ConcurrentTree.ConcurrentNode child = lookupChild(position);
+        return child == null ? null : child.getStatus();
+    }
+
+    /**
+     * Children are visited in the order of their positions on the game board
+     */
+    @Override
+    public int findChildPositionWithStatus(NodeStatus status) {
+        for(int position = 0; position < currentNode.getSlotsNumber(); position++) {
+            ConcurrentTree.ConcurrentNode child = currentNode.getChild(position);
+            if(child != null && child.getStatus() == status) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getCurrentChildrenNumber() {
+        return currentNode.getChildrenNumber();
+    }
+
+    @Override
+    public int getCurrentMaxChildrenCapacity() {
+        return currentNode.maxChildrenCapacity;
+    }
+
+    @Override
+    public NodeStatus getCurrentStatus() {
+        return currentNode.getStatus();
+    }
+
+    @Override
+    public void setCurrentStatus(NodeStatus status) {
+        currentNode.setStatus(status);
+    }
+
+    @Override
+    public NodeStatus getRootStatus() {
+        return tree.getRoot().getStatus();
+    }
+
+    @Override
+    public int getRootMaxChildrenCapacity() {
+        return tree.getRootSize();
+    }
+
+    /**
+     * Method updates status of the nodes in the current branch (up to the
+     * root) and moves Current node up like {@link Tree} does. A parent is
+     * updated only by the game which changes its status from UNKNOWN, if
+     * another game was first the update stops there
+     */
+    @Override
+    public void updateTreeStatus() throws UpdateStatusException {
+        if(currentNode.getStatus() == NodeStatus.UNKNOWN) {
+            throw new UpdateStatusException("The node status is 'unknown'. It " +
+                    "should be changed before calling 'UpdateBranchStatus' method");
+        }
+        while(currentNode.parent != null) {
+            currentNode = currentNode.parent;
+            NodeStatus status = ConcurrentTree.calcStatus(currentNode);
+            if(status == NodeStatus.UNKNOWN || !currentNode.updateUnknownStatus(status)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public long getNumberOfNodes() {
+        return tree.getNumberOfNodes();
+    }
+
+    @Override
+    public long getNumberOfNodes(int level) {
+        return tree.getNumberOfNodes(level);
+    }
+
+    @Override
+    public int getTreeDepth() {
+        return tree.getTreeDepth();
+    }
+
+    private ConcurrentTree.ConcurrentNode findChild(int position) throws NodeNotFoundException {
+        ConcurrentTree.ConcurrentNode child = lookupChild(position);
+        if(child == null) {
+            throw new NodeNotFoundException("Node with position " + position + " is not found");
+        }
+        return child;
+    }
+
+    private ConcurrentTree.ConcurrentNode lookupChild(int position) {
+        return position < 0 || position >= currentNode.getSlotsNumber() ? null : currentNode.getChild(position);
+    }
+}
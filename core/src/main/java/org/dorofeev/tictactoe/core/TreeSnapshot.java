@@ -0,0 +1,153 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.NodeNotFoundException;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * TreeSnapshot is the binary file format of a learned tree.
+ * Header: magic, version, root size, number of records (ints) and the number
+ * of nodes on every level 0..rootSize (longs). Then one 8 byte record per
+ * node in the preorder: an int with the status, the position and the number
+ * of children, and an int with the size of the subtree of the node, so the
+ * first child of a record is the next record and the next sibling is the
+ * record after the subtree. There are no IDs and no links to store
+ * @author Yury Dorofeev
+ * @version 2016-09-26
+ */
+public final class TreeSnapshot {
+    static final int MAGIC = 0x54545453; // TTTS
+    static final int VERSION = 1;
+    static final int RECORD_SIZE = 2 * Integer.BYTES;
+
+    static final int STATUS_BITS = 3;
+    static final int POSITION_BITS = 10;
+    static final int POSITION_SHIFT = STATUS_BITS;
+    static final int CHILDREN_SHIFT = POSITION_SHIFT + POSITION_BITS;
+    static final int STATUS_MASK = (1 << STATUS_BITS) - 1;
+    static final int POSITION_MASK = (1 << POSITION_BITS) - 1;
+
+    private TreeSnapshot() {
+    }
+
+    static int headerSize(int rootSize) {
+        return 4 * Integer.BYTES + (rootSize + 1) * Long.BYTES;
+    }
+
+    /**
+     * Writes the tree to the file. The tree is walked from the root with its
+     * own Current node, which is left at the root. Children are written in the
+     * order of their positions. The file is written next to the target and
+     * then moved over it, so the readers which mapped the old file keep it
+     * @param tree tree to write
+     * @param file snapshot file
+     * @return number of the written nodes (including the root)
+     * @throws TicTacToeException if the tree is too big or the file can not be written
+     */
+    public static int write(GameTree tree, Path file) throws TicTacToeException {
+        int rootSize = tree.getRootMaxChildrenCapacity();
+        if(rootSize > POSITION_MASK) {
+            throw new TicTacToeException("children collection size is > " + POSITION_MASK);
+        }
+        Records records = new Records();
+        long[] levels = new long[rootSize + 1];
+        tree.moveToRoot();
+        writeNode(tree, 0, 0, records, levels);
+
+        ByteBuffer buffer = ByteBuffer.allocate(headerSize(rootSize) + records.size * RECORD_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(rootSize).putInt(records.size);
+        for(long level : levels) {
+            buffer.putLong(level);
+        }
+        for(int record = 0; record < records.size; record++) {
+            buffer.putInt(records.info[record]).putInt(records.subtreeSizes[record]);
+        }
+        buffer.flip();
+
+        Path directory = file.toAbsolutePath().getParent();
+        try {
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while(buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new TicTacToeException("The snapshot can not be written to " + file + ": " + e.getMessage());
+        }
+        return records.size;
+    }
+
+    /**
+     * Maps the snapshot file into memory, nothing is read until the tree is used
+     * @param file snapshot file
+     * @return read-only tree served from the mapped file
+     * @throws TicTacToeException if the file can not be read or it is not a tree snapshot
+     */
+    public static MappedTree map(Path file) throws TicTacToeException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new TicTacToeException("The snapshot can not be read from " + file + ": " + e.getMessage());
+        }
+        if(buffer.capacity() < 4 * Integer.BYTES || buffer.getInt(0) != MAGIC) {
+            throw new TicTacToeException("The file " + file + " is not a tree snapshot");
+        }
+        if(buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new TicTacToeException("The snapshot version " + buffer.getInt(Integer.BYTES) + " is not supported");
+        }
+        int rootSize = buffer.getInt(2 * Integer.BYTES);
+        int numberOfRecords = buffer.getInt(3 * Integer.BYTES);
+        if(rootSize < 0 || rootSize > POSITION_MASK || numberOfRecords < 1
+                || buffer.capacity() != headerSize(rootSize) + (long) numberOfRecords * RECORD_SIZE) {
+            throw new TicTacToeException("The snapshot " + file + " is damaged");
+        }
+        return new MappedTree(buffer, rootSize, numberOfRecords);
+    }
+
+    private static void writeNode(GameTree tree, int position, int level, Records records, long[] levels) {
+        int record = records.add();
+        levels[level]++;
+        int childrenNumber = 0;
+        for(int child = 0; child < tree.getRootMaxChildrenCapacity(); child++) {
+            try {
+                tree.moveToChild(child);
+            } catch (NodeNotFoundException e) {
+                continue;
+            }
+            writeNode(tree, child, level + 1, records, levels);
+            tree.moveToParent();
+            childrenNumber++;
+        }
+        records.info[record] = tree.getCurrentStatus().ordinal()
+                | (position << POSITION_SHIFT)
+                | (childrenNumber << CHILDREN_SHIFT);
+        records.subtreeSizes[record] = records.size - record;
+    }
+
+    private static class Records {
+        private int[] info = new int[1024];
+        private int[] subtreeSizes = new int[1024];
+        private int size;
+
+        int add() {
+            if(size == info.length) {
+                info = Arrays.copyOf(info, size * 2);
+                subtreeSizes = Arrays.copyOf(subtreeSizes, size * 2);
+            }
+            return size++;
+        }
+    }
+}
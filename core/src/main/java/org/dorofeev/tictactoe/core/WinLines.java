@@ -0,0 +1,53 @@
+package org.dorofeev.tictactoe.core;
+
+/**
+ * WinLines are the masks of the rows, columns and diagonals of the board,
+ * grouped by the positions they go through, so a move is checked against
+ * its own lines only. Shared by the search engines which play on bit masks
+ * @author Yury Dorofeev
+ * @version 2016-09-30
+ */
+final class WinLines {
+    private final long[] lines;
+    private final long[][] positionLines;
+
+    WinLines(GameBoardSize boardSize) {
+        lines = new BitGameBoard(boardSize).getWinLines();
+        positionLines = new long[boardSize.getValue()][];
+        for(int position = 0; position < boardSize.getValue(); position++) {
+            int numberOfLines = 0;
+            for(long line : lines) {
+                if((line & (1L << position)) != 0) {
+                    numberOfLines++;
+                }
+            }
+            positionLines[position] = new long[numberOfLines];
+            int index = 0;
+            for(long line : lines) {
+                if((line & (1L << position)) != 0) {
+                    positionLines[position][index++] = line;
+                }
+            }
+        }
+    }
+
+    long[] getLines() {
+        return lines;
+    }
+
+    int getNumberOfLines(int position) {
+        return positionLines[position].length;
+    }
+
+    /**
+     * @return true if the last move at the position completed a line of the mask
+     */
+    boolean isWin(long mask, int position) {
+        for(long line : positionLines[position]) {
+            if((mask & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package org.dorofeev.tictactoe.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-09-14
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class BitGameBoardTest {
+    private static final GameFigure[] FIGURES = GameFigure.values();
+
+    @Test
+    public void setAndGet() {
+        BitGameBoard board = new BitGameBoard(GameBoardSize.SMALL);
+        board.set(4, GameFigure.X);
+        board.set(8, GameFigure.O);
+        assertEquals(GameFigure.X, board.get(4));
+        assertEquals(GameFigure.O, board.get(8));
+        assertEquals(GameFigure.EMPTY, board.get(0));
+
+        board.set(4, GameFigure.O);
+        assertEquals(GameFigure.O, board.get(4));
+        assertEquals(0, board.getMask(GameFigure.X));
+        assertEquals(0x0EF, board.getMask(GameFigure.EMPTY));
+
+        board.clear();
+        assertEquals(GameFigure.EMPTY, board.get(4));
+        assertEquals(GameStatus.CONTINUE, board.getGameStatus());
+    }
+
+    @Test
+    public void winLines() {
+        assertEquals(8, new BitGameBoard(GameBoardSize.SMALL).getWinLines().length);
+        assertEquals(10, new BitGameBoard(GameBoardSize.MEDIUM).getWinLines().length);
+        assertEquals(12, new BitGameBoard(GameBoardSize.LARGE).getWinLines().length);
+    }
+
+    @Test
+    public void sameStatusAsListGameBoard() {
+        Random random = new Random(2016);
+        for(GameBoardSize boardSize : GameBoardSize.values()) {
+            BitGameBoard bitGameBoard = new BitGameBoard(boardSize);
+            ListGameBoard listGameBoard = new ListGameBoard(boardSize);
+            for(int i = 0; i < 20000; i++) {
+                int emptyCells = random.nextInt(boardSize.getValue() + 1);
+                for(int position = 0; position < boardSize.getValue(); position++) {
+                    GameFigure figure = random.nextInt(boardSize.getValue()) < emptyCells
+                            ? GameFigure.EMPTY : FIGURES[random.nextInt(2)];
+                    bitGameBoard.set(position, figure);
+                    listGameBoard.set(position, figure);
+                }
+                assertEquals(listGameBoard.getGameStatus(), bitGameBoard.getGameStatus());
+            }
+        }
+    }
+}
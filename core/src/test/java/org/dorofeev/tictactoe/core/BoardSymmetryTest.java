@@ -0,0 +1,78 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-09-21
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class BoardSymmetryTest {
+    @Rule
+    public ExpectedException expectException = ExpectedException.none();
+
+    @Test
+    public void notSquareError() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("The board of size 8 is not a square");
+
+        new BoardSymmetry(8);
+    }
+
+    @Test
+    public void cornersAndEdges() throws TicTacToeException {
+        BoardSymmetry symmetry = new BoardSymmetry(GameBoardSize.SMALL.getValue());
+        Set<Integer> corners = new HashSet<Integer>();
+        Set<Integer> edges = new HashSet<Integer>();
+        for(int transform = 0; transform < BoardSymmetry.NUMBER_OF_TRANSFORMS; transform++) {
+            corners.add(symmetry.transformPosition(0, transform));
+            edges.add(symmetry.transformPosition(1, transform));
+            assertEquals(4, symmetry.transformPosition(4, transform));
+        }
+        assertEquals(4, corners.size());
+        assertTrue(corners.containsAll(java.util.Arrays.asList(0, 2, 6, 8)));
+        assertEquals(4, edges.size());
+        assertTrue(edges.containsAll(java.util.Arrays.asList(1, 3, 5, 7)));
+    }
+
+    @Test
+    public void inverseTransform() throws TicTacToeException {
+        for(GameBoardSize boardSize : GameBoardSize.values()) {
+            BoardSymmetry symmetry = new BoardSymmetry(boardSize.getValue());
+            for(int transform = 0; transform < BoardSymmetry.NUMBER_OF_TRANSFORMS; transform++) {
+                int inverse = symmetry.inverseTransform(transform);
+                for(int position = 0; position < boardSize.getValue(); position++) {
+                    assertEquals(position, symmetry.transformPosition(symmetry.transformPosition(position, transform), inverse));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void symmetricBoardsHaveOneCanonicalForm() throws TicTacToeException {
+        BoardSymmetry symmetry = new BoardSymmetry(GameBoardSize.MEDIUM.getValue());
+        long first = 1L << 0 | 1L << 5 | 1L << 7;
+        long second = 1L << 1 | 1L << 14;
+        int transform = symmetry.canonicalTransform(first, second);
+        long canonicalFirst = symmetry.transformMask(first, transform);
+        long canonicalSecond = symmetry.transformMask(second, transform);
+
+        for(int t = 0; t < BoardSymmetry.NUMBER_OF_TRANSFORMS; t++) {
+            long symmetricFirst = symmetry.transformMask(first, t);
+            long symmetricSecond = symmetry.transformMask(second, t);
+            int symmetricTransform = symmetry.canonicalTransform(symmetricFirst, symmetricSecond);
+            assertEquals(canonicalFirst, symmetry.transformMask(symmetricFirst, symmetricTransform));
+            assertEquals(canonicalSecond, symmetry.transformMask(symmetricSecond, symmetricTransform));
+        }
+    }
+}
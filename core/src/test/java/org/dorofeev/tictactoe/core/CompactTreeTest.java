@@ -0,0 +1,196 @@
+package org.dorofeev.tictactoe.core;
+
+import static org.junit.Assert.*;
+
+import org.dorofeev.tictactoe.core.exception.NodeNotFoundException;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.dorofeev.tictactoe.core.exception.UpdateStatusException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-09-12
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CompactTreeTest {
+    @Rule
+    public ExpectedException expectException = ExpectedException.none();
+
+    @Test
+    public void create() throws TicTacToeException {
+        CompactTree tree = new CompactTree(2);
+        assertEquals(2, tree.getRootMaxChildrenCapacity());
+        assertEquals(2, tree.getCurrentMaxChildrenCapacity());
+        assertEquals(0, tree.getCurrentChildrenNumber());
+        assertEquals(NodeStatus.UNKNOWN, tree.getRootStatus());
+    }
+
+    @Test
+    public void addNode() throws TicTacToeException {
+        CompactTree tree = new CompactTree(2);
+        tree.addNode(0);
+        assertEquals(1, tree.getCurrentMaxChildrenCapacity());
+        tree.moveToRoot();
+        assertEquals(1, tree.getCurrentChildrenNumber());
+    }
+
+    @Test
+    public void childrenCollectionIsFullError() throws TicTacToeException {
+        CompactTree tree = new CompactTree(2);
+        tree.addNode(0);
+        tree.moveToRoot();
+        tree.addNode(1);
+        tree.moveToRoot();
+
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("The children collection is full. You can not add more nodes!");
+
+        tree.addNode(2);
+    }
+
+    @Test
+    public void growsBeyondInitialCapacity() throws TicTacToeException, NodeNotFoundException {
+        CompactTree tree = new CompactTree(9);
+        new SelfPlayDriver(new Game(GameBoardSize.SMALL, GameRegime.LEARNING, tree)).play(1000);
+        assertTrue(tree.getCapacity() > 1024);
+        tree.moveToRoot();
+        tree.moveToChild(0);
+        assertEquals(8, tree.getCurrentMaxChildrenCapacity());
+    }
+
+    @Test
+    public void moveToParent() throws TicTacToeException {
+        CompactTree tree = new CompactTree(2);
+        tree.addNode(0);
+        tree.moveToParent();
+        assertEquals(2, tree.getCurrentMaxChildrenCapacity());
+        tree.moveToParent();
+        assertEquals(2, tree.getCurrentMaxChildrenCapacity());
+    }
+
+    @Test
+    public void nodeWithGivenPositionNotFound() throws TicTacToeException, NodeNotFoundException {
+        CompactTree tree = new CompactTree(2);
+        tree.addNode(0);
+        tree.moveToParent();
+        tree.addNode(1);
+        tree.setCurrentStatus(NodeStatus.DRAW);
+        tree.moveToParent();
+        assertEquals(NodeStatus.DRAW, tree.getChildStatus(1));
+        assertEquals(1, tree.findChildPositionWithStatus(NodeStatus.DRAW));
+        assertEquals(0, tree.findChildPositionWithStatus(NodeStatus.UNKNOWN));
+        assertEquals(-1, tree.findChildPositionWithStatus(NodeStatus.WIN));
+
+        expectException.expect(NodeNotFoundException.class);
+        expectException.expectMessage("Node with position 2 is not found");
+
+        tree.moveToChild(2);
+    }
+
+    @Test
+    public void updateBranchStatusException() throws UpdateStatusException, TicTacToeException {
+        CompactTree tree = new CompactTree(2);
+        tree.addNode(0);
+        tree.moveToParent();
+        tree.addNode(1);
+        expectException.expect(UpdateStatusException.class);
+        expectException.expectMessage("The node status is 'unknown'. It should be changed before calling 'UpdateBranchStatus' method");
+
+        tree.updateTreeStatus();
+    }
+
+    @Test
+    public void updateBranchStatusWinTwoIterations() throws UpdateStatusException, TicTacToeException {
+        CompactTree tree = new CompactTree(2);
+        tree.addNode(0);
+        tree.addNode(2);
+        tree.setCurrentStatus(NodeStatus.WIN);
+        assertEquals(0, tree.getCurrentMaxChildrenCapacity());
+        tree.updateTreeStatus();
+
+        assertEquals(NodeStatus.UNKNOWN, tree.getCurrentStatus());
+        assertEquals(2, tree.getCurrentMaxChildrenCapacity());
+
+        tree.moveToRoot();
+        tree.addNode(1);
+        tree.addNode(3);
+        tree.setCurrentStatus(NodeStatus.WIN);
+        tree.updateTreeStatus();
+
+        assertEquals(NodeStatus.WIN, tree.getCurrentStatus());
+        assertEquals(NodeStatus.WIN, tree.getRootStatus());
+    }
+
+    @Test
+    public void updateBranchStatusLoseOneIteration() throws TicTacToeException, NodeNotFoundException, UpdateStatusException {
+        CompactTree tree = new CompactTree(2);
+        tree.addNode(0);
+        tree.addNode(2);
+        tree.setCurrentStatus(NodeStatus.LOSE);
+
+        tree.moveToRoot();
+        tree.addNode(1);
+        tree.addNode(3);
+        tree.moveToRoot();
+        tree.moveToChild(0);
+        tree.moveToChild(2);
+        assertEquals(NodeStatus.LOSE, tree.getCurrentStatus());
+
+        tree.updateTreeStatus();
+
+        assertEquals(NodeStatus.LOSE, tree.getRootStatus());
+        assertEquals(2, tree.getCurrentMaxChildrenCapacity());
+    }
+
+    @Test
+    public void updateBranchStatusDrawUnknown() throws TicTacToeException, UpdateStatusException {
+        CompactTree tree = new CompactTree(2);
+        tree.addNode(0);
+        tree.addNode(2);
+        tree.setCurrentStatus(NodeStatus.DRAW);
+        tree.updateTreeStatus();
+
+        assertEquals(NodeStatus.UNKNOWN, tree.getRootStatus());
+
+        tree.moveToRoot();
+        tree.addNode(1);
+        tree.addNode(3);
+        tree.setCurrentStatus(NodeStatus.WIN);
+        tree.updateTreeStatus();
+
+        assertEquals(NodeStatus.DRAW, tree.getRootStatus());
+    }
+
+    @Test
+    public void statistics() throws TicTacToeException {
+        CompactTree tree = new CompactTree(3);
+        tree.addNode(0);
+        tree.addNode(1);
+        tree.addNode(2);
+        tree.moveToRoot();
+        tree.addNode(1);
+        tree.addNode(0);
+
+        assertEquals(3, tree.getNumberOfNodes());
+        assertEquals(2, tree.getNumberOfNodes(1));
+        assertEquals(2, tree.getNumberOfNodes(2));
+        assertEquals(1, tree.getNumberOfNodes(3));
+        assertEquals(3, tree.getTreeDepth());
+    }
+
+    @Test
+    public void tryMoveToChild() throws TicTacToeException {
+        CompactTree tree = new CompactTree(9);
+        tree.addNode(4);
+        tree.moveToRoot();
+        assertNull(tree.findChildStatus(0));
+        assertFalse(tree.tryMoveToChild(0));
+        assertEquals(NodeStatus.UNKNOWN, tree.findChildStatus(4));
+        assertTrue(tree.tryMoveToChild(4));
+        assertEquals(8, tree.getCurrentMaxChildrenCapacity());
+    }
+}
@@ -0,0 +1,201 @@
+package org.dorofeev.tictactoe.core;
+
+import static org.junit.Assert.*;
+
+import org.dorofeev.tictactoe.core.exception.NodeNotFoundException;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.dorofeev.tictactoe.core.exception.UpdateStatusException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-09-24
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ConcurrentTreeTest {
+    @Rule
+    public ExpectedException expectException = ExpectedException.none();
+
+    @Test
+    public void create() throws TicTacToeException {
+        TreeCursor cursor = new ConcurrentTree(2).newCursor();
+        assertEquals(2, cursor.getRootMaxChildrenCapacity());
+        assertEquals(2, cursor.getCurrentMaxChildrenCapacity());
+        assertEquals(0, cursor.getCurrentChildrenNumber());
+        assertEquals(NodeStatus.UNKNOWN, cursor.getRootStatus());
+    }
+
+    @Test
+    public void childrenCollectionSizeError() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("children collection size is < 0");
+
+        new ConcurrentTree(-1);
+    }
+
+    @Test
+    public void positionOutOfBoardError() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("Position 2 is out of the game board");
+
+        new ConcurrentTree(2).newCursor().addNode(2);
+    }
+
+    @Test
+    public void cursorsAreIndependent() throws TicTacToeException, NodeNotFoundException {
+        ConcurrentTree tree = new ConcurrentTree(3);
+        TreeCursor first = tree.newCursor();
+        TreeCursor second = tree.newCursor();
+        first.addNode(1);
+        assertEquals(2, first.getCurrentMaxChildrenCapacity());
+        assertEquals(3, second.getCurrentMaxChildrenCapacity());
+        assertEquals(1, second.getCurrentChildrenNumber());
+
+        // the second cursor reuses the node added by the first one
+        second.addNode(1);
+        second.addNode(0);
+        assertEquals(1, tree.getNumberOfNodes(1));
+        assertEquals(1, tree.getNumberOfNodes(2));
+        assertEquals(2, tree.getTreeDepth());
+        assertEquals(1, first.getCurrentChildrenNumber());
+
+        first.moveToChild(0);
+        first.moveToParent();
+        first.moveToParent();
+        first.moveToParent();
+        assertEquals(3, first.getCurrentMaxChildrenCapacity());
+    }
+
+    @Test
+    public void nodeWithGivenPositionNotFound() throws TicTacToeException, NodeNotFoundException {
+        TreeCursor cursor = new ConcurrentTree(2).newCursor();
+        cursor.addNode(0);
+        cursor.moveToRoot();
+        assertEquals(-1, cursor.findChildPositionWithStatus(NodeStatus.WIN));
+
+        expectException.expect(NodeNotFoundException.class);
+        expectException.expectMessage("Node with position 1 is not found");
+
+        cursor.getChildStatus(1);
+    }
+
+    @Test
+    public void childrenCollectionIsFullError() throws TicTacToeException {
+        TreeCursor cursor = new ConcurrentTree(3).newCursor();
+        cursor.addNode(0);
+        cursor.addNode(1);
+        cursor.addNode(2);
+
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("The children collection is full. You can not add more nodes!");
+
+        cursor.moveToParent();
+        cursor.addNode(0);
+        cursor.addNode(1);
+    }
+
+    @Test
+    public void updateTreeStatus() throws TicTacToeException, NodeNotFoundException, UpdateStatusException {
+        ConcurrentTree tree = new ConcurrentTree(2);
+        TreeCursor first = tree.newCursor();
+        TreeCursor second = tree.newCursor();
+        first.addNode(0);
+        first.addNode(1);
+        second.addNode(1);
+        second.addNode(0);
+
+        first.setCurrentStatus(NodeStatus.WIN);
+        first.updateTreeStatus();
+        assertEquals(NodeStatus.UNKNOWN, first.getRootStatus());
+        assertEquals(NodeStatus.LOSE, first.getChildStatus(0));
+        assertEquals(2, first.getCurrentMaxChildrenCapacity());
+
+        second.setCurrentStatus(NodeStatus.WIN);
+        second.updateTreeStatus();
+        assertEquals(NodeStatus.LOSE, second.getChildStatus(1));
+        assertEquals(NodeStatus.WIN, first.getRootStatus());
+        assertEquals(2, second.getCurrentMaxChildrenCapacity());
+    }
+
+    @Test
+    public void updateTreeStatusError() throws TicTacToeException, UpdateStatusException {
+        TreeCursor cursor = new ConcurrentTree(2).newCursor();
+        cursor.addNode(0);
+
+        expectException.expect(UpdateStatusException.class);
+        expectException.expectMessage("The node status is 'unknown'. It should be changed before calling 'UpdateBranchStatus' method");
+
+        cursor.updateTreeStatus();
+    }
+
+    @Test
+    public void concurrentInsertionCreatesOneNode() throws Exception {
+        final ConcurrentTree tree = new ConcurrentTree(GameBoardSize.LARGE.getValue());
+        final int numberOfThreads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for(int i = 0; i < numberOfThreads; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        TreeCursor cursor = tree.newCursor();
+                        start.await();
+                        for(int position = 0; position < GameBoardSize.LARGE.getValue(); position++) {
+                            cursor.addNode(position);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            for(Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for(int level = 1; level <= GameBoardSize.LARGE.getValue(); level++) {
+            assertEquals(1, tree.getNumberOfNodes(level));
+        }
+        assertEquals(GameBoardSize.LARGE.getValue() - 1, tree.getNumberOfNodes());
+    }
+
+    @Test
+    public void concurrentGamesLearnTheSameTree() throws TicTacToeException {
+        ConcurrentTree tree = new ConcurrentTree(GameBoardSize.SMALL.getValue());
+        new LearningEngine(4).learn(tree, GameRegime.LEARNING, 39000);
+
+        Tree sequentialTree = new Tree(GameBoardSize.SMALL.getValue());
+        new LearningEngine(1).learn(sequentialTree, GameRegime.LEARNING, 39000);
+
+        assertEquals(NodeStatus.DRAW, tree.newCursor().getRootStatus());
+        assertEquals(sequentialTree.getNumberOfNodes(), tree.getNumberOfNodes());
+        assertEquals(sequentialTree.getTreeDepth(), tree.getTreeDepth());
+    }
+
+    @Test
+    public void tryMoveToChild() throws TicTacToeException {
+        TreeCursor tree = new ConcurrentTree(9).newCursor();
+        tree.addNode(4);
+        tree.moveToRoot();
+        assertNull(tree.findChildStatus(0));
+        assertFalse(tree.tryMoveToChild(0));
+        assertEquals(NodeStatus.UNKNOWN, tree.findChildStatus(4));
+        assertTrue(tree.tryMoveToChild(4));
+        assertEquals(8, tree.getCurrentMaxChildrenCapacity());
+    }
+}
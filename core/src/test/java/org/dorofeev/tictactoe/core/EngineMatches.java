@@ -0,0 +1,49 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+/**
+ * Matches of the move engines in the tests
+ * @author Yury Dorofeev
+ * @version 2016-10-15
+ */
+final class EngineMatches {
+    private EngineMatches() {
+    }
+
+    /**
+     * Tries every move of the opponent, the engine answers
+     * @return number of games the engine loses
+     */
+    static int countLostGames(MoveEngine engine, GameBoard board, GameFigure opponent, GameFigure figure)
+            throws TicTacToeException {
+        int lostGames = 0;
+        for(int position = 0; position < board.getSize(); position++) {
+            if(board.get(position) != GameFigure.EMPTY) {
+                continue;
+            }
+            board.set(position, opponent);
+            if(board.getGameStatus() == GameStatus.WIN) {
+                lostGames++;
+            } else if(board.getGameStatus() == GameStatus.CONTINUE) {
+                int answer = engine.findBestMove(board, figure);
+                board.set(answer, figure);
+                if(board.getGameStatus() == GameStatus.CONTINUE) {
+                    lostGames += countLostGames(engine, board, opponent, figure);
+                }
+                board.set(answer, GameFigure.EMPTY);
+            }
+            board.set(position, GameFigure.EMPTY);
+        }
+        return lostGames;
+    }
+
+    /**
+     * Plays one game on the small board, the first engine plays X
+     * @return WIN or DRAW
+     */
+    static GameStatus play(MoveEngine first, MoveEngine second) throws TicTacToeException {
+        return new SelfPlayDriver(new Game(GameBoardSize.SMALL), SelfPlayDriver.enginePlayer(first),
+                SelfPlayDriver.enginePlayer(second), GameResultSink.NONE).playGame();
+    }
+}
@@ -278,12 +278,7 @@ public class GameTest {
     public void testBattleRegime() throws TicTacToeException {
         Game game = new Game(GameBoardSize.SMALL, GameRegime.BATTLE);
 
-        int numberOfGames = 0;
-        while (numberOfGames < MAX_NUMBER_OF_GAMES_FOR_BATTLE_3X3) {
-            if( playNewGame(game, GameFigure.X)) {
-                numberOfGames ++;
-            }
-        }
+        long numberOfGames = new SelfPlayDriver(game).play(MAX_NUMBER_OF_GAMES_FOR_BATTLE_3X3);
 
         assertEquals(MAX_NUMBER_OF_GAMES_FOR_BATTLE_3X3, numberOfGames);
         assertEquals(MAX_REAL_NUMBER_OF_NODES_BATTLE_3X3, game.getTree().getNumberOfNodes());
@@ -307,16 +302,115 @@ public class GameTest {
         }
     }
 
+    @Test
+    public void testBattleRegimeCompactTree() throws TicTacToeException {
+        CompactTree tree = new CompactTree(GameBoardSize.SMALL.getValue());
+        Game game = new Game(GameBoardSize.SMALL, GameRegime.BATTLE, tree);
+
+        long numberOfGames = new SelfPlayDriver(game).play(MAX_NUMBER_OF_GAMES_FOR_BATTLE_3X3);
+
+        assertNull(game.getTree());
+        assertEquals(MAX_REAL_NUMBER_OF_NODES_BATTLE_3X3, tree.getNumberOfNodes());
+        assertEquals(NodeStatus.DRAW, tree.getRootStatus());
+        assertEquals(9, tree.getTreeDepth());
+    }
+
+    @Test
+    public void testTreeDoesNotMatchBoardSize() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("The tree does not match the board size MEDIUM");
+
+        new Game(GameBoardSize.MEDIUM, GameRegime.BATTLE, new CompactTree(GameBoardSize.SMALL.getValue()));
+    }
+
+    @Test
+    public void testGomokuGeometry() throws TicTacToeException {
+        BoardGeometry geometry = new BoardGeometry(15, 15, 5);
+        Game game = new Game(geometry, GameRegime.BATTLE);
+        assertTrue(game.getGameBoard() instanceof PackedGameBoard);
+        assertEquals(225, game.getGameTree().getRootMaxChildrenCapacity());
+        assertEquals(geometry, game.getGeometry());
+
+        for(int i = 0; i < 4; i++) {
+            game.makeNewMove(GameFigure.X, 112 + i);
+            game.makeNewMove(GameFigure.O, 127 + i);
+        }
+        assertEquals(GameStatus.CONTINUE, game.getGameStatus());
+        game.makeNewMove(GameFigure.X, 111);
+        assertEquals(GameStatus.WIN, game.getGameStatus());
+    }
+
+    @Test
+    public void testClassicGeometry() throws TicTacToeException {
+        BoardGeometry geometry = new BoardGeometry(4, 4, 4);
+        assertEquals(GameBoardSize.MEDIUM, geometry.getBoardSize());
+        assertEquals(BoardGeometry.of(GameBoardSize.MEDIUM), geometry);
+        assertTrue(new Game(geometry, GameRegime.SEARCH).getMoveEngine() instanceof NegamaxEngine);
+        assertNull(new BoardGeometry(4, 4, 3).getBoardSize());
+    }
+
+    @Test
+    public void testEngineDoesNotSupportGeometry() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("The regime MCTS does not support the board 15x15/5");
+
+        new Game(new BoardGeometry(15, 15, 5), GameRegime.MCTS);
+    }
+
+    @Test
+    public void testInvalidGeometry() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("Invalid number of figures in a row 6 for the board 5x4");
+
+        new BoardGeometry(5, 4, 6);
+    }
+
+    @Test
+    public void testPerfectRegime() throws TicTacToeException {
+        Game game = new Game(GameBoardSize.SMALL, GameRegime.PERFECT);
+        assertNull(game.getGameTree());
+        assertTrue(game.getMoveEngine() instanceof PerfectPlaySolver);
+
+        game.makeNewMove(GameFigure.X, 0);
+        // the center is the only answer to the corner which does not lose
+        assertEquals(4, game.makeNewMove(GameFigure.O));
+        game.gameOver(GameStatus.DRAW);
+        assertEquals(GameFigure.EMPTY, game.getGameBoard().get(0));
+    }
+
+    @Test
+    public void testGameWithoutTree() throws TicTacToeException {
+        Game game = new Game(new BoardGeometry(15, 15, 5));
+        assertNull(game.getGameTree());
+        assertNull(game.getMoveEngine());
+
+        game.makeNewMove(GameFigure.X, 112);
+        assertEquals(GameFigure.X, game.getGameBoard().get(112));
+        game.gameOver(GameStatus.DRAW);
+        assertEquals(GameFigure.EMPTY, game.getGameBoard().get(112));
+    }
+
+    @Test
+    public void testGameWithoutTreeMoveError() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("The game has no tree or move engine to choose the move");
+
+        new Game(GameBoardSize.SMALL).makeNewMove(GameFigure.X);
+    }
+
+    @Test
+    public void testPerfectRegimeWithTreeError() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("The regime PERFECT does not use a tree");
+
+        new Game(GameBoardSize.SMALL, GameRegime.PERFECT, new Tree(GameBoardSize.SMALL.getValue()));
+    }
+
     @Test
     public void testLearningRegime() throws TicTacToeException {
         Game game = new Game(GameBoardSize.SMALL, GameRegime.LEARNING);
 
-        int numberOfGames = 0;
-        while (numberOfGames < MAX_NUMBER_OF_GAMES_FOR_LEARNING_3X3) {
-            if (playNewGame(game, GameFigure.X)) {
-                numberOfGames++;
-            }
-        }
+        long numberOfGames = new SelfPlayDriver(game).play(MAX_NUMBER_OF_GAMES_FOR_LEARNING_3X3);
         System.out.println("..number of nodes in the tree = " + game.getTree().getNumberOfNodes());
         System.out.println("..max tree depth = " + game.getTree().getTreeDepth());
         System.out.println("..tree root status = " + game.getTree().getRoot().getStatus());
@@ -339,15 +433,4 @@ public class GameTest {
             System.out.println("..node status level 1 = " + node.getStatus());
         }
     }
-
-    private boolean playNewGame(Game game, GameFigure figure) throws TicTacToeException {
-        GameStatus status = game.getGameStatus();
-        if(status == GameStatus.CONTINUE) {
-            game.makeNewMove(figure);
-            return playNewGame(game, figure == GameFigure.X ? GameFigure.O : GameFigure.X);
-        } else {
-            game.gameOver(status);
-            return true;
-        }
-    }
 }
@@ -0,0 +1,63 @@
+package org.dorofeev.tictactoe.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-09-16
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class IncrementalGameBoardTest {
+    private static final GameFigure[] FIGURES = GameFigure.values();
+
+    @Test
+    public void winRightDiagonal() {
+        IncrementalGameBoard board = new IncrementalGameBoard(GameBoardSize.MEDIUM);
+        board.set(3, GameFigure.O);
+        board.set(6, GameFigure.O);
+        board.set(9, GameFigure.O);
+        assertEquals(GameStatus.CONTINUE, board.getGameStatus());
+        board.set(12, GameFigure.O);
+        assertEquals(GameStatus.WIN, board.getGameStatus());
+        board.set(12, GameFigure.X);
+        assertEquals(GameStatus.CONTINUE, board.getGameStatus());
+    }
+
+    @Test
+    public void draw() {
+        IncrementalGameBoard board = new IncrementalGameBoard(GameBoardSize.SMALL);
+        GameFigure[] figures = {GameFigure.X, GameFigure.O, GameFigure.X,
+                                GameFigure.X, GameFigure.O, GameFigure.O,
+                                GameFigure.O, GameFigure.X, GameFigure.X};
+        for(int i = 0; i < figures.length; i++) {
+            assertEquals(GameStatus.CONTINUE, board.getGameStatus());
+            board.set(i, figures[i]);
+        }
+        assertEquals(GameStatus.DRAW, board.getGameStatus());
+        board.clear();
+        assertEquals(GameStatus.CONTINUE, board.getGameStatus());
+        assertEquals(GameFigure.EMPTY, board.get(0));
+    }
+
+    @Test
+    public void sameStatusAsListGameBoard() {
+        Random random = new Random(2016);
+        for(GameBoardSize boardSize : GameBoardSize.values()) {
+            IncrementalGameBoard incrementalGameBoard = new IncrementalGameBoard(boardSize);
+            ListGameBoard listGameBoard = new ListGameBoard(boardSize);
+            for(int i = 0; i < 200000; i++) {
+                int position = random.nextInt(boardSize.getValue());
+                GameFigure figure = FIGURES[random.nextInt(FIGURES.length)];
+                incrementalGameBoard.set(position, figure);
+                listGameBoard.set(position, figure);
+                assertEquals(listGameBoard.getGameStatus(), incrementalGameBoard.getGameStatus());
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-09-23
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LearningEngineTest {
+    @Rule
+    public ExpectedException expectException = ExpectedException.none();
+    private static int MAX_NUMBER_OF_GAMES_FOR_LEARNING_3X3 = 39000;
+    private static long MAX_REAL_NUMBER_OF_NODES_LEARNING_3X3 = 94968;
+
+    @Test
+    public void numberOfThreadsError() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("number of threads is < 1");
+
+        new LearningEngine(0);
+    }
+
+    @Test
+    public void sameTreeAsSequentialLearning() throws TicTacToeException {
+        Tree tree = new Tree(GameBoardSize.SMALL.getValue());
+        int numberOfGames = new LearningEngine(4).learn(tree, GameRegime.LEARNING, MAX_NUMBER_OF_GAMES_FOR_LEARNING_3X3);
+        System.out.println("..number of games = " + numberOfGames);
+
+        assertTrue(numberOfGames < MAX_NUMBER_OF_GAMES_FOR_LEARNING_3X3);
+        assertEquals(MAX_REAL_NUMBER_OF_NODES_LEARNING_3X3, tree.getNumberOfNodes());
+        assertEquals(NodeStatus.DRAW, tree.getRoot().getStatus());
+        assertEquals(9, tree.getRoot().getChildren().size());
+        assertTrue(tree.getCurrentNode().equals(tree.getRoot()));
+    }
+
+    @Test
+    public void learningContinuesOnTheGivenTree() throws TicTacToeException {
+        Tree tree = new Tree(GameBoardSize.SMALL.getValue());
+        LearningEngine engine = new LearningEngine(3);
+        assertEquals(1000, engine.learn(tree, GameRegime.BATTLE, 1000));
+        assertEquals(NodeStatus.UNKNOWN, tree.getRoot().getStatus());
+        long numberOfNodes = tree.getNumberOfNodes();
+
+        engine.learn(tree, GameRegime.BATTLE, MAX_NUMBER_OF_GAMES_FOR_LEARNING_3X3);
+        assertTrue(tree.getNumberOfNodes() > numberOfNodes);
+        assertEquals(NodeStatus.DRAW, tree.getRoot().getStatus());
+
+        Game game = new Game(GameBoardSize.SMALL, GameRegime.BATTLE, tree);
+        game.makeNewMove(GameFigure.X, 0);
+        // the center is the only answer to the corner which does not lose
+        assertEquals(4, game.makeNewMove(GameFigure.O));
+    }
+
+    @Test
+    public void listenerStopsLearning() throws TicTacToeException {
+        ConcurrentTree tree = new ConcurrentTree(GameBoardSize.SMALL.getValue());
+        final AtomicInteger allowed = new AtomicInteger(100);
+        final AtomicInteger played = new AtomicInteger();
+        LearningListener listener = new LearningListener() {
+            @Override
+            public boolean beforeGame() {
+                return allowed.decrementAndGet() >= 0;
+            }
+
+            @Override
+            public void gamePlayed() {
+                played.incrementAndGet();
+            }
+        };
+
+        int numberOfGames = new LearningEngine(3).learn(tree, GameRegime.BATTLE, MAX_NUMBER_OF_GAMES_FOR_LEARNING_3X3, listener);
+        assertEquals(100, numberOfGames);
+        assertEquals(100, played.get());
+    }
+}
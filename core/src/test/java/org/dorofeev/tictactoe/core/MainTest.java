@@ -16,13 +16,10 @@ public class MainTest {
 
         System.out.println("..Computer learning");
 
-        Game game = new Game(GameBoardSize.SMALL, GameRegime.BATTLE);
-        int numberOfGames = 0;
-        while (numberOfGames < MAX_NUMBER_OF_GAMES_FOR_BATTLE_3X3) {
-            if( playNewGame(game, GameFigure.X)) {
-                numberOfGames ++;
-            }
-        }
+        Tree tree = new Tree(GameBoardSize.SMALL.getValue());
+        new LearningEngine(Runtime.getRuntime().availableProcessors())
+                .learn(tree, GameRegime.BATTLE, MAX_NUMBER_OF_GAMES_FOR_BATTLE_3X3);
+        Game game = new Game(GameBoardSize.SMALL, GameRegime.BATTLE, tree);
 
         System.out.println("..Lets play TicTacToe 3x3 with a smart computer!");
 
@@ -62,15 +59,4 @@ public class MainTest {
         game.makeNewMove(GameFigure.X, position);
         return game.getGameStatus();
     }
-
-    private static boolean playNewGame(Game game, GameFigure figure) throws TicTacToeException {
-        GameStatus status = game.getGameStatus();
-        if(status == GameStatus.CONTINUE) {
-            game.makeNewMove(figure);
-            return playNewGame(game, figure == GameFigure.X ? GameFigure.O : GameFigure.X);
-        } else {
-            game.gameOver(status);
-            return true;
-        }
-    }
 }
@@ -0,0 +1,85 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-09-30
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MctsEngineTest {
+    @Rule
+    public ExpectedException expectException = ExpectedException.none();
+
+    @Test
+    public void winsAtOnce() throws TicTacToeException {
+        MctsEngine engine = new MctsEngine(GameBoardSize.MEDIUM, 32768, 20000, 0, new Random(1));
+        GameBoard board = new IncrementalGameBoard(GameBoardSize.MEDIUM);
+        for(int position = 4; position < 7; position++) {
+            board.set(position, GameFigure.O);
+            board.set(position + 8, GameFigure.X);
+        }
+        assertEquals(7, engine.findBestMove(board, GameFigure.O));
+    }
+
+    @Test
+    public void blocksTheOpponent() throws TicTacToeException {
+        MctsEngine engine = new MctsEngine(GameBoardSize.SMALL, 32768, 20000, 0, new Random(1));
+        GameBoard board = new IncrementalGameBoard(GameBoardSize.SMALL);
+        board.set(0, GameFigure.X);
+        board.set(4, GameFigure.O);
+        board.set(1, GameFigure.X);
+        assertEquals(2, engine.findBestMove(board, GameFigure.O));
+    }
+
+    @Test
+    public void drawsWithPerfectPlayer() throws TicTacToeException {
+        PerfectPlaySolver solver = new PerfectPlaySolver(GameBoardSize.SMALL);
+        MctsEngine engine = new MctsEngine(GameBoardSize.SMALL, 32768, 20000, 0, new Random(1));
+        assertEquals(GameStatus.DRAW, EngineMatches.play(engine, solver));
+        assertEquals(GameStatus.DRAW, EngineMatches.play(solver, engine));
+    }
+
+    @Test
+    public void nodePoolIsKept() throws TicTacToeException {
+        MctsEngine engine = new MctsEngine(GameBoardSize.LARGE, 1000, 5000, 0, new Random(1));
+        int position = engine.findBestMove(new IncrementalGameBoard(GameBoardSize.LARGE), GameFigure.X);
+        assertTrue(position >= 0 && position < GameBoardSize.LARGE.getValue());
+        assertEquals(5000, engine.getLastSearchIterations());
+        assertEquals(1000, engine.getLastSearchNodes());
+        assertEquals(1000, engine.getMaxNodes());
+
+        // the pool is reused by the next search
+        engine.findBestMove(new IncrementalGameBoard(GameBoardSize.LARGE), GameFigure.X);
+        assertEquals(1000, engine.getLastSearchNodes());
+    }
+
+    @Test
+    public void mctsRegimeFinishesLargeGame() throws TicTacToeException {
+        Game game = new Game(GameBoardSize.LARGE, GameRegime.MCTS);
+        assertTrue(game.getMoveEngine() instanceof MctsEngine);
+        assertNotEquals(GameStatus.CONTINUE, new SelfPlayDriver(game).playGame());
+    }
+
+    @Test
+    public void gameOverError() throws TicTacToeException {
+        GameBoard board = new IncrementalGameBoard(GameBoardSize.SMALL);
+        for(int position = 0; position < GameBoardSize.SMALL.getValue(); position++) {
+            board.set(position, GameFigure.X);
+        }
+
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("There are no moves left, the game is over");
+
+        new MctsEngine(GameBoardSize.SMALL).findBestMove(board, GameFigure.O);
+    }
+}
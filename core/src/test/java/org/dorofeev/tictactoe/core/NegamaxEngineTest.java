@@ -0,0 +1,85 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-09-29
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class NegamaxEngineTest {
+    @Rule
+    public ExpectedException expectException = ExpectedException.none();
+
+    @Test
+    public void winsAtOnce() throws TicTacToeException {
+        NegamaxEngine engine = new NegamaxEngine(GameBoardSize.MEDIUM, 100000, 0);
+        GameBoard board = new IncrementalGameBoard(GameBoardSize.MEDIUM);
+        for(int position = 4; position < 7; position++) {
+            board.set(position, GameFigure.O);
+            board.set(position + 8, GameFigure.X);
+        }
+        // X can win at 15 but O wins first at 7
+        assertEquals(7, engine.findBestMove(board, GameFigure.O));
+        assertEquals(1, engine.getLastSearchDepth());
+    }
+
+    @Test
+    public void blocksTheOpponent() throws TicTacToeException {
+        NegamaxEngine engine = new NegamaxEngine(GameBoardSize.LARGE, 200000, 0);
+        GameBoard board = new IncrementalGameBoard(GameBoardSize.LARGE);
+        for(int position = 0; position < 4; position++) {
+            board.set(position * 6, GameFigure.X);
+        }
+        board.set(1, GameFigure.O);
+        board.set(2, GameFigure.O);
+        board.set(3, GameFigure.O);
+        // the diagonal 0-6-12-18 is open at 24
+        assertEquals(24, engine.findBestMove(board, GameFigure.O));
+    }
+
+    @Test
+    public void nodeBudgetIsKept() throws TicTacToeException {
+        NegamaxEngine engine = new NegamaxEngine(GameBoardSize.LARGE, 10000, 0);
+        int position = engine.findBestMove(new IncrementalGameBoard(GameBoardSize.LARGE), GameFigure.X);
+        assertTrue(position >= 0 && position < GameBoardSize.LARGE.getValue());
+        assertTrue(engine.getLastSearchNodes() <= 10000);
+        assertTrue(engine.getLastSearchDepth() >= 1);
+    }
+
+    @Test
+    public void neverLosesOnSmallBoard() throws TicTacToeException {
+        NegamaxEngine engine = new NegamaxEngine(GameBoardSize.SMALL, Long.MAX_VALUE, 0);
+        GameBoard board = new IncrementalGameBoard(GameBoardSize.SMALL);
+        assertEquals(0, EngineMatches.countLostGames(engine, board, GameFigure.X, GameFigure.O));
+        board.set(engine.findBestMove(board, GameFigure.X), GameFigure.X);
+        assertEquals(0, EngineMatches.countLostGames(engine, board, GameFigure.O, GameFigure.X));
+    }
+
+    @Test
+    public void searchRegimeFinishesLargeGame() throws TicTacToeException {
+        Game game = new Game(GameBoardSize.LARGE, GameRegime.SEARCH);
+        assertTrue(game.getMoveEngine() instanceof NegamaxEngine);
+        assertNotEquals(GameStatus.CONTINUE, new SelfPlayDriver(game).playGame());
+    }
+
+    @Test
+    public void gameOverError() throws TicTacToeException {
+        GameBoard board = new IncrementalGameBoard(GameBoardSize.SMALL);
+        for(int position = 0; position < GameBoardSize.SMALL.getValue(); position++) {
+            board.set(position, GameFigure.X);
+        }
+
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("There are no moves left, the game is over");
+
+        new NegamaxEngine(GameBoardSize.SMALL).findBestMove(board, GameFigure.O);
+    }
+}
@@ -83,4 +83,52 @@ public class NodeTest {
         assertTrue(child.getWeight() == 1);
     }
 
+
+    @Test
+    public void childrenByPosition() throws TicTacToeException {
+        Node root = new Node(225);
+        int[] positions = {100, 3, 64, 0, 224, 63};
+        for(int position : positions) {
+            Node child = new Node(224);
+            child.setPosition(position);
+            root.addChild(child);
+        }
+        for(int position : positions) {
+            assertTrue(root.hasChild(position));
+            assertEquals(position, root.findChild(position).getPosition());
+        }
+        assertNull(root.findChild(1));
+        assertNull(root.findChild(-1));
+        assertNull(root.findChild(1000));
+        // the children list keeps the order of adding
+        assertEquals(100, root.getChild(0).getPosition());
+
+        Node child = root.findChild(64);
+        assertTrue(root.removeChild(child));
+        assertFalse(root.removeChild(child));
+        assertNull(root.findChild(64));
+        assertEquals(224, root.findChild(224).getPosition());
+        assertEquals(5, root.getChildren().size());
+
+        root.removeChildren();
+        assertNull(root.findChild(100));
+        assertTrue(root.getChildren().isEmpty());
+    }
+
+    @Test
+    public void sharedChildPosition() throws TicTacToeException {
+        Node root = new Node(3);
+        Node first = new Node(2);
+        first.setPosition(1);
+        root.addChild(first);
+        Node second = new Node(2);
+        second.setPosition(1);
+        root.addChild(second);
+
+        assertSame(first, root.findChild(1));
+        assertTrue(root.removeChild(first));
+        assertSame(second, root.findChild(1));
+        assertTrue(root.removeChild(second));
+        assertFalse(root.hasChild(1));
+    }
 }
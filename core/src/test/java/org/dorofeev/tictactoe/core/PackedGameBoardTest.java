@@ -0,0 +1,124 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-10-02
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PackedGameBoardTest {
+    private static final GameFigure[] FIGURES = GameFigure.values();
+
+    @Test
+    public void setAndGet() throws TicTacToeException {
+        PackedGameBoard board = new PackedGameBoard(new BoardGeometry(15, 15, 5));
+        assertEquals(225, board.getSize());
+        board.set(0, GameFigure.X);
+        board.set(64, GameFigure.O);
+        board.set(224, GameFigure.X);
+        assertEquals(GameFigure.X, board.get(0));
+        assertEquals(GameFigure.O, board.get(64));
+        assertEquals(GameFigure.X, board.get(224));
+        assertEquals(GameFigure.EMPTY, board.get(63));
+
+        board.set(64, GameFigure.X);
+        assertEquals(GameFigure.X, board.get(64));
+
+        board.clear();
+        assertEquals(GameFigure.EMPTY, board.get(64));
+        assertEquals(GameStatus.CONTINUE, board.getGameStatus());
+    }
+
+    @Test
+    public void winsInFourDirections() throws TicTacToeException {
+        int[][] steps = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        PackedGameBoard board = new PackedGameBoard(new BoardGeometry(15, 15, 5));
+        for(int[] step : steps) {
+            board.clear();
+            // the last move is in the middle of the row
+            int[] order = {0, 1, 3, 4, 2};
+            for(int i = 0; i < order.length; i++) {
+                assertEquals(GameStatus.CONTINUE, board.getGameStatus());
+                board.set((7 + order[i] * step[0]) * 15 + 5 + order[i] * step[1], GameFigure.O);
+            }
+            assertEquals(GameStatus.WIN, board.getGameStatus());
+        }
+    }
+
+    @Test
+    public void brokenRowDoesNotWin() throws TicTacToeException {
+        PackedGameBoard board = new PackedGameBoard(new BoardGeometry(15, 15, 5));
+        for(int column = 0; column < 6; column++) {
+            board.set(column, column == 4 ? GameFigure.O : GameFigure.X);
+        }
+        // the row must not go on to the next line of the board
+        board.set(13, GameFigure.X);
+        board.set(14, GameFigure.X);
+        board.set(15, GameFigure.X);
+        board.set(16, GameFigure.X);
+        assertEquals(GameStatus.CONTINUE, board.getGameStatus());
+    }
+
+    @Test
+    public void rectangularBoard() throws TicTacToeException {
+        // connect four: 7 columns, 6 rows
+        PackedGameBoard board = new PackedGameBoard(new BoardGeometry(7, 6, 4));
+        board.set(5 * 7, GameFigure.X);
+        board.set(4 * 7 + 1, GameFigure.X);
+        board.set(3 * 7 + 2, GameFigure.X);
+        assertEquals(GameStatus.CONTINUE, board.getGameStatus());
+        board.set(2 * 7 + 3, GameFigure.X);
+        assertEquals(GameStatus.WIN, board.getGameStatus());
+    }
+
+    @Test
+    public void emptyCellAfterWin() throws TicTacToeException {
+        PackedGameBoard board = new PackedGameBoard(new BoardGeometry(4, 4, 3));
+        board.set(0, GameFigure.X);
+        board.set(1, GameFigure.X);
+        board.set(2, GameFigure.X);
+        assertEquals(GameStatus.WIN, board.getGameStatus());
+        board.set(2, GameFigure.EMPTY);
+        assertEquals(GameStatus.CONTINUE, board.getGameStatus());
+        board.set(2, GameFigure.O);
+        assertEquals(GameStatus.CONTINUE, board.getGameStatus());
+    }
+
+    @Test
+    public void draw() throws TicTacToeException {
+        PackedGameBoard board = new PackedGameBoard(new BoardGeometry(4, 3, 3));
+        String figures = "XXOO" + "OOXX" + "XXOO";
+        for(int position = 0; position < figures.length(); position++) {
+            assertEquals(GameStatus.CONTINUE, board.getGameStatus());
+            board.set(position, GameFigure.valueOf(figures.substring(position, position + 1)));
+        }
+        assertEquals(GameStatus.DRAW, board.getGameStatus());
+    }
+
+    @Test
+    public void sameStatusAsListGameBoard() {
+        Random random = new Random(2016);
+        for(GameBoardSize boardSize : GameBoardSize.values()) {
+            PackedGameBoard packedGameBoard = new PackedGameBoard(BoardGeometry.of(boardSize));
+            ListGameBoard listGameBoard = new ListGameBoard(boardSize);
+            for(int i = 0; i < 20000; i++) {
+                int emptyCells = random.nextInt(boardSize.getValue() + 1);
+                for(int position = 0; position < boardSize.getValue(); position++) {
+                    GameFigure figure = random.nextInt(boardSize.getValue()) < emptyCells
+                            ? GameFigure.EMPTY : FIGURES[random.nextInt(2)];
+                    packedGameBoard.set(position, figure);
+                    listGameBoard.set(position, figure);
+                }
+                assertEquals(listGameBoard.getGameStatus(), packedGameBoard.getGameStatus());
+            }
+        }
+    }
+}
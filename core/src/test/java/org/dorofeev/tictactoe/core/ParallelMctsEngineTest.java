@@ -0,0 +1,149 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-10-01
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ParallelMctsEngineTest {
+    @Rule
+    public ExpectedException expectException = ExpectedException.none();
+    private final List<ParallelMctsEngine> engines = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        for(ParallelMctsEngine engine : engines) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    public void winsAtOnce() throws TicTacToeException {
+        ParallelMctsEngine engine = newEngine(new ParallelMctsEngine(GameBoardSize.MEDIUM, 4, 32768, 20000, 0,
+                new Random(1)));
+        GameBoard board = new IncrementalGameBoard(GameBoardSize.MEDIUM);
+        for(int position = 4; position < 7; position++) {
+            board.set(position, GameFigure.O);
+            board.set(position + 8, GameFigure.X);
+        }
+        assertEquals(7, engine.findBestMove(board, GameFigure.O));
+    }
+
+    @Test
+    public void drawsWithPerfectPlayer() throws TicTacToeException {
+        PerfectPlaySolver solver = new PerfectPlaySolver(GameBoardSize.SMALL);
+        ParallelMctsEngine engine = newEngine(new ParallelMctsEngine(GameBoardSize.SMALL, 4, 32768, 20000, 0,
+                new Random(1)));
+        assertEquals(GameStatus.DRAW, EngineMatches.play(engine, solver));
+        assertEquals(GameStatus.DRAW, EngineMatches.play(solver, engine));
+    }
+
+    @Test
+    public void budgetsAreShared() throws TicTacToeException {
+        ParallelMctsEngine engine = newEngine(new ParallelMctsEngine(GameBoardSize.LARGE, 4, 1000, 5000, 0,
+                new Random(1)));
+        int position = engine.findBestMove(new IncrementalGameBoard(GameBoardSize.LARGE), GameFigure.X);
+        assertTrue(position >= 0 && position < GameBoardSize.LARGE.getValue());
+        assertEquals(5000, engine.getLastSearchIterations());
+        assertEquals(1000, engine.getLastSearchNodes());
+        assertEquals(4, engine.getNumberOfThreads());
+    }
+
+    @Test
+    public void gameMoveKeepsDeadline() throws TicTacToeException {
+        ParallelMctsEngine engine = newEngine(new ParallelMctsEngine(GameBoardSize.LARGE, 2, 32768, Integer.MAX_VALUE,
+                50, new Random(1)));
+        Game game = new Game(GameBoardSize.LARGE, engine);
+        long start = System.nanoTime();
+        int position = game.makeNewMove(GameFigure.X);
+        long time = (System.nanoTime() - start) / 1000000L;
+        assertEquals(GameFigure.X, game.getGameBoard().get(position));
+        assertTrue("the move took " + time + " ms", time < 1000);
+        assertTrue(engine.getLastSearchIterations() > 0);
+    }
+
+    @Test
+    public void threadsAreKeptBetweenMoves() throws TicTacToeException {
+        ParallelMctsEngine engine = newEngine(new ParallelMctsEngine(GameBoardSize.SMALL, 2, 32768, 2000, 0,
+                new Random(1)));
+        Set<Thread> before = searchThreads();
+        engine.findBestMove(new IncrementalGameBoard(GameBoardSize.SMALL), GameFigure.X);
+        Set<Thread> threads = searchThreads();
+        threads.removeAll(before);
+        assertEquals(2, threads.size());
+        for(Thread thread : threads) {
+            assertTrue(thread.isDaemon());
+        }
+        engine.findBestMove(new IncrementalGameBoard(GameBoardSize.SMALL), GameFigure.X);
+        Set<Thread> after = searchThreads();
+        after.removeAll(before);
+        assertEquals(threads, after);
+    }
+
+    @Test
+    public void shutdownError() throws TicTacToeException {
+        ParallelMctsEngine engine = newEngine(new ParallelMctsEngine(GameBoardSize.SMALL, 2, 1000, 1000, 0,
+                new Random(1)));
+        engine.shutdown();
+
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("The engine is shut down");
+
+        engine.findBestMove(new IncrementalGameBoard(GameBoardSize.SMALL), GameFigure.X);
+    }
+
+    @Test
+    public void invalidNumberOfThreads() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("number of threads is < 1");
+
+        new ParallelMctsEngine(GameBoardSize.SMALL, 0, 1000, 1000, 0, new Random());
+    }
+
+    @Test
+    public void gameOverError() throws TicTacToeException {
+        GameBoard board = new IncrementalGameBoard(GameBoardSize.SMALL);
+        for(int position = 0; position < GameBoardSize.SMALL.getValue(); position++) {
+            board.set(position, GameFigure.X);
+        }
+
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("There are no moves left, the game is over");
+
+        newEngine(new ParallelMctsEngine(GameBoardSize.SMALL)).findBestMove(board, GameFigure.O);
+    }
+
+    /**
+     * The engine is shut down after the test
+     */
+    private ParallelMctsEngine newEngine(ParallelMctsEngine engine) {
+        engines.add(engine);
+        return engine;
+    }
+
+    private static Set<Thread> searchThreads() {
+        Set<Thread> threads = new HashSet<>();
+        for(Thread thread : Thread.getAllStackTraces().keySet()) {
+            if(thread.getName().startsWith("mcts-search-")) {
+                threads.add(thread);
+            }
+        }
+        return threads;
+    }
+}
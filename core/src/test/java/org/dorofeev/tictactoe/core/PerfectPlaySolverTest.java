@@ -0,0 +1,82 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-09-28
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PerfectPlaySolverTest {
+    @Rule
+    public ExpectedException expectException = ExpectedException.none();
+
+    @Test
+    public void boardSizeError() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("The perfect play solver supports only the board size SMALL");
+
+        new PerfectPlaySolver(GameBoardSize.MEDIUM);
+    }
+
+    @Test
+    public void emptyBoardIsDraw() throws TicTacToeException {
+        PerfectPlaySolver solver = new PerfectPlaySolver(GameBoardSize.SMALL);
+        GameBoard board = new IncrementalGameBoard(GameBoardSize.SMALL);
+        assertEquals(NodeStatus.DRAW, solver.solve(board, GameFigure.X));
+        assertEquals(NodeStatus.DRAW, solver.solve(board, GameFigure.O));
+    }
+
+    @Test
+    public void winsAndBlocks() throws TicTacToeException {
+        PerfectPlaySolver solver = new PerfectPlaySolver(GameBoardSize.SMALL);
+        GameBoard board = new IncrementalGameBoard(GameBoardSize.SMALL);
+        board.set(0, GameFigure.X);
+        board.set(1, GameFigure.X);
+        board.set(4, GameFigure.O);
+        // O must block the top row
+        assertEquals(2, solver.findBestMove(board, GameFigure.O));
+
+        board.set(8, GameFigure.O);
+        // X wins at once instead of blocking the diagonal
+        assertEquals(NodeStatus.WIN, solver.solve(board, GameFigure.X));
+        assertEquals(2, solver.findBestMove(board, GameFigure.X));
+    }
+
+    @Test
+    public void gameOverError() throws TicTacToeException {
+        GameBoard board = new IncrementalGameBoard(GameBoardSize.SMALL);
+        for(int position = 0; position < GameBoardSize.SMALL.getValue(); position++) {
+            board.set(position, position % 2 == 0 ? GameFigure.X : GameFigure.O);
+        }
+
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("There are no moves left, the game is over");
+
+        new PerfectPlaySolver(GameBoardSize.SMALL).findBestMove(board, GameFigure.O);
+    }
+
+    @Test
+    public void neverLoses() throws TicTacToeException {
+        PerfectPlaySolver solver = new PerfectPlaySolver(GameBoardSize.SMALL);
+        GameBoard board = new IncrementalGameBoard(GameBoardSize.SMALL);
+        // the solver plays O against every possible X, then X against every possible O
+        assertEquals(0, EngineMatches.countLostGames(solver, board, GameFigure.X, GameFigure.O));
+        board.clear();
+        board.set(solver.findBestMove(board, GameFigure.X), GameFigure.X);
+        assertEquals(0, EngineMatches.countLostGames(solver, board, GameFigure.O, GameFigure.X));
+    }
+
+    @Test
+    public void perfectGamesAreDraws() throws TicTacToeException {
+        Game game = new Game(GameBoardSize.SMALL, GameRegime.PERFECT);
+        assertEquals(GameStatus.DRAW, new SelfPlayDriver(game).playGame());
+    }
+}
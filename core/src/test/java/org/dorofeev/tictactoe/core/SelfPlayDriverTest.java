@@ -0,0 +1,103 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-10-10
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SelfPlayDriverTest {
+    @Rule
+    public ExpectedException expectException = ExpectedException.none();
+
+    @Test
+    public void learnsTheTree() throws TicTacToeException {
+        Game game = new Game(GameBoardSize.SMALL, GameRegime.BATTLE);
+        SelfPlayDriver driver = new SelfPlayDriver(game);
+        assertEquals(39000, driver.play(39000));
+        assertEquals(39000, driver.getNumberOfGames());
+        assertEquals(NodeStatus.DRAW, game.getTree().getRoot().getStatus());
+        assertEquals(GameStatus.DRAW, driver.playGame());
+    }
+
+    @Test
+    public void randomPlayersOnLargeBoard() throws TicTacToeException {
+        Game game = new Game(new BoardGeometry(15, 15, 5));
+        Results results = new Results();
+        Random random = new Random(1);
+        SelfPlayDriver driver = new SelfPlayDriver(game,
+                SelfPlayDriver.randomPlayer(random), SelfPlayDriver.randomPlayer(random), results);
+        driver.play(200);
+
+        assertEquals(200, results.xWins + results.oWins + results.draws);
+        assertTrue(results.xWins > 0);
+        assertTrue(results.oWins > 0);
+        assertTrue(results.maxNumberOfMoves >= 9 && results.maxNumberOfMoves <= 225);
+        assertEquals(GameStatus.CONTINUE, game.getGameStatus());
+    }
+
+    @Test
+    public void treeAgainstPerfectPlayer() throws TicTacToeException {
+        Game game = new Game(GameBoardSize.SMALL, GameRegime.BATTLE);
+        Results results = new Results();
+        SelfPlayDriver driver = new SelfPlayDriver(game, SelfPlayDriver.treePlayer(),
+                SelfPlayDriver.enginePlayer(new PerfectPlaySolver(GameBoardSize.SMALL)), results);
+        driver.play(1000);
+
+        assertEquals(0, results.xWins);
+        assertEquals(1000, results.oWins + results.draws);
+    }
+
+    @Test
+    public void opening() throws TicTacToeException {
+        Game game = new Game(GameBoardSize.SMALL, GameRegime.BATTLE);
+        Results results = new Results();
+        SelfPlayDriver driver = new SelfPlayDriver(game, SelfPlayDriver.treePlayer(), SelfPlayDriver.treePlayer(), results);
+        driver.playGame(4);
+
+        assertEquals(4, game.getTree().getRoot().getChild(0).getPosition());
+        assertTrue(results.maxNumberOfMoves >= 5);
+    }
+
+    @Test
+    public void noEmptyCellsError() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("There are no empty slots on the game board");
+
+        Game game = new Game(GameBoardSize.SMALL, GameRegime.PERFECT);
+        for(int position = 0; position < 9; position++) {
+            game.getGameBoard().set(position, position % 2 == 0 ? GameFigure.X : GameFigure.O);
+        }
+        SelfPlayDriver.randomPlayer(new Random(1)).makeMove(game, GameFigure.X);
+    }
+
+    private static class Results implements GameResultSink {
+        int xWins;
+        int oWins;
+        int draws;
+        int maxNumberOfMoves;
+
+        @Override
+        public void gameOver(GameStatus status, GameFigure winner, int numberOfMoves) {
+            if(status == GameStatus.DRAW) {
+                assertEquals(GameFigure.EMPTY, winner);
+                draws++;
+            } else if(winner == GameFigure.X) {
+                xWins++;
+            } else {
+                oWins++;
+            }
+            maxNumberOfMoves = Math.max(maxNumberOfMoves, numberOfMoves);
+        }
+    }
+}
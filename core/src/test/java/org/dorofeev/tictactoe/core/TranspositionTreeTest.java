@@ -0,0 +1,158 @@
+package org.dorofeev.tictactoe.core;
+
+import static org.junit.Assert.*;
+
+import org.dorofeev.tictactoe.core.exception.NodeNotFoundException;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.dorofeev.tictactoe.core.exception.UpdateStatusException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-09-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TranspositionTreeTest {
+    @Rule
+    public ExpectedException expectException = ExpectedException.none();
+
+    @Test
+    public void transposedPositionsShareOneNode() throws TicTacToeException, NodeNotFoundException {
+        TranspositionTree tree = new TranspositionTree(9);
+        tree.addNode(0);
+        tree.addNode(4);
+        tree.addNode(8);
+        tree.setCurrentStatus(NodeStatus.DRAW);
+        tree.moveToRoot();
+
+        tree.addNode(8);
+        tree.addNode(4);
+        assertEquals(1, tree.getCurrentChildrenNumber());
+        assertEquals(NodeStatus.DRAW, tree.getChildStatus(0));
+        tree.moveToChild(0);
+        assertEquals(NodeStatus.DRAW, tree.getCurrentStatus());
+        assertEquals(1, tree.getNumberOfNodes(3));
+        assertEquals(3, tree.getNumberOfNodes());
+    }
+
+    @Test
+    public void occupiedPositionError() throws TicTacToeException {
+        TranspositionTree tree = new TranspositionTree(9);
+        tree.addNode(0);
+
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("Position 0 is already occupied");
+
+        tree.addNode(0);
+    }
+
+    @Test
+    public void occupiedPositionIsNotChild() throws TicTacToeException, NodeNotFoundException {
+        TranspositionTree tree = new TranspositionTree(9);
+        tree.addNode(0);
+
+        expectException.expect(NodeNotFoundException.class);
+        expectException.expectMessage("Node with position 0 is not found");
+
+        tree.moveToChild(0);
+    }
+
+    @Test
+    public void updateBranchStatusException() throws UpdateStatusException, TicTacToeException {
+        TranspositionTree tree = new TranspositionTree(2);
+        tree.addNode(0);
+        expectException.expect(UpdateStatusException.class);
+        expectException.expectMessage("The node status is 'unknown'. It should be changed before calling 'UpdateBranchStatus' method");
+
+        tree.updateTreeStatus();
+    }
+
+    @Test
+    public void statusIsPropagatedToEveryParent() throws TicTacToeException, UpdateStatusException, NodeNotFoundException {
+        TranspositionTree tree = new TranspositionTree(3);
+        // branch 2-1, it is not the current branch when the game is over
+        tree.addNode(2);
+        tree.addNode(1);
+        tree.moveToRoot();
+        // branch 0-1-2 ends with the same position as 2-1-0 would
+        tree.addNode(0);
+        tree.addNode(1);
+        tree.addNode(2);
+        assertEquals(3, tree.getTreeDepth());
+
+        tree.setCurrentStatus(NodeStatus.WIN);
+        tree.updateTreeStatus();
+
+        tree.moveToRoot();
+        tree.moveToChild(0);
+        assertEquals(NodeStatus.LOSE, tree.getChildStatus(1));
+        tree.moveToRoot();
+        tree.moveToChild(2);
+        assertEquals(NodeStatus.LOSE, tree.getChildStatus(1));
+        assertEquals(NodeStatus.UNKNOWN, tree.getRootStatus());
+    }
+
+    @Test
+    public void learningRegime() throws TicTacToeException {
+        TranspositionTree tree = new TranspositionTree(GameBoardSize.SMALL.getValue());
+        SelfPlayDriver driver = new SelfPlayDriver(new Game(GameBoardSize.SMALL, GameRegime.LEARNING, tree));
+
+        while(tree.getRootStatus() == NodeStatus.UNKNOWN) {
+            driver.playGame();
+        }
+        System.out.println("..number of games = " + driver.getNumberOfGames());
+        System.out.println("..number of nodes in the tree = " + tree.getNumberOfNodes());
+
+        assertEquals(NodeStatus.DRAW, tree.getRootStatus());
+        // there are 5478 legal positions on the 3x3 board
+        assertTrue(tree.getNumberOfNodes() < 5478);
+        assertEquals(9, tree.getTreeDepth());
+    }
+
+    @Test
+    public void symmetricPositionsShareOneNode() throws TicTacToeException, NodeNotFoundException {
+        TranspositionTree tree = new TranspositionTree(9, true);
+        tree.addNode(0);
+        tree.setCurrentStatus(NodeStatus.DRAW);
+        tree.moveToRoot();
+
+        assertEquals(4, tree.getCurrentChildrenNumber());
+        assertEquals(NodeStatus.DRAW, tree.getChildStatus(8));
+        assertEquals(0, tree.findChildPositionWithStatus(NodeStatus.DRAW));
+        tree.moveToChild(6);
+        assertEquals(NodeStatus.DRAW, tree.getCurrentStatus());
+        assertEquals(1, tree.getNumberOfNodes(1));
+    }
+
+    @Test
+    public void learningRegimeWithSymmetry() throws TicTacToeException {
+        TranspositionTree tree = new TranspositionTree(GameBoardSize.SMALL.getValue(), true);
+        SelfPlayDriver driver = new SelfPlayDriver(new Game(GameBoardSize.SMALL, GameRegime.LEARNING, tree));
+
+        while(tree.getRootStatus() == NodeStatus.UNKNOWN) {
+            driver.playGame();
+        }
+        System.out.println("..number of games = " + driver.getNumberOfGames());
+        System.out.println("..number of nodes in the tree = " + tree.getNumberOfNodes());
+
+        assertEquals(NodeStatus.DRAW, tree.getRootStatus());
+        // there are 765 legal positions on the 3x3 board up to symmetry
+        assertTrue(tree.getNumberOfNodes() < 765);
+    }
+
+    @Test
+    public void tryMoveToChild() throws TicTacToeException {
+        TranspositionTree tree = new TranspositionTree(9);
+        tree.addNode(4);
+        tree.moveToRoot();
+        assertNull(tree.findChildStatus(0));
+        assertFalse(tree.tryMoveToChild(0));
+        assertEquals(NodeStatus.UNKNOWN, tree.findChildStatus(4));
+        assertTrue(tree.tryMoveToChild(4));
+        assertEquals(8, tree.getCurrentMaxChildrenCapacity());
+    }
+}
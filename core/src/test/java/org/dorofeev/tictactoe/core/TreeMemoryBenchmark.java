@@ -0,0 +1,49 @@
+package org.dorofeev.tictactoe.core;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+/**
+ * This class compares the heap used by the tree backends after the same
+ * learning run. Run it as a main with a fixed heap, e.g. -Xmx1g
+ * @author Yury Dorofeev
+ * @since  2016-09-12
+ */
+public class TreeMemoryBenchmark {
+    private static int MAX_NUMBER_OF_GAMES_FOR_BATTLE_3X3 = 39000;
+
+    public static void main(String[] args) throws TicTacToeException {
+        GameBoardSize boardSize = GameBoardSize.SMALL;
+
+        long baseline = usedMemory();
+        Tree tree = new Tree(boardSize.getValue());
+        new SelfPlayDriver(new Game(boardSize, GameRegime.BATTLE, tree)).play(MAX_NUMBER_OF_GAMES_FOR_BATTLE_3X3);
+        long treeMemory = usedMemory() - baseline;
+        print("Tree", tree, treeMemory);
+        tree = null;
+
+        baseline = usedMemory();
+        CompactTree compactTree = new CompactTree(boardSize.getValue());
+        new SelfPlayDriver(new Game(boardSize, GameRegime.BATTLE, compactTree)).play(MAX_NUMBER_OF_GAMES_FOR_BATTLE_3X3);
+        long compactTreeMemory = usedMemory() - baseline;
+        print("CompactTree", compactTree, compactTreeMemory);
+
+        System.out.println("..memory saving = " + (treeMemory / Math.max(1, compactTreeMemory)) + "x");
+    }
+
+    private static void print(String name, GameTree tree, long memory) {
+        long numberOfNodes = 0;
+        for(int level = 1; level <= tree.getTreeDepth(); level++) {
+            numberOfNodes += tree.getNumberOfNodes(level);
+        }
+        System.out.println(".." + name + ": nodes = " + numberOfNodes + ", heap = " + memory / 1024 + " KB"
+                + ", bytes per node = " + memory / Math.max(1, numberOfNodes));
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,167 @@
+package org.dorofeev.tictactoe.core;
+
+import static org.junit.Assert.*;
+
+import org.dorofeev.tictactoe.core.exception.NodeNotFoundException;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-09-26
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TreeSnapshotTest {
+    @Rule
+    public ExpectedException expectException = ExpectedException.none();
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writeAndMap() throws TicTacToeException, IOException {
+        Tree tree = new Tree(GameBoardSize.SMALL.getValue());
+        new LearningEngine(4).learn(tree, GameRegime.BATTLE, 39000);
+        Path file = folder.newFile().toPath();
+
+        int numberOfRecords = TreeSnapshot.write(tree, file);
+        assertEquals(TreeSnapshot.headerSize(9) + numberOfRecords * TreeSnapshot.RECORD_SIZE, Files.size(file));
+
+        MappedTree mappedTree = TreeSnapshot.map(file);
+        assertEquals(numberOfRecords, mappedTree.getNumberOfRecords());
+        assertEquals(tree.getNumberOfNodes(), mappedTree.getNumberOfNodes());
+        assertEquals(tree.getNumberOfNodes(1), mappedTree.getNumberOfNodes(1));
+        assertEquals(tree.getTreeDepth(), mappedTree.getTreeDepth());
+        assertEquals(NodeStatus.DRAW, mappedTree.getRootStatus());
+        assertSameTree(tree, mappedTree.newCursor());
+
+        // the computer plays on the snapshot by the learned statuses
+        Game game = new Game(GameBoardSize.SMALL, GameRegime.BATTLE, mappedTree);
+        game.makeNewMove(GameFigure.X, 0);
+        assertEquals(4, game.makeNewMove(GameFigure.O));
+    }
+
+    @Test
+    public void copyToConcurrentTree() throws TicTacToeException, IOException {
+        Tree tree = new Tree(GameBoardSize.SMALL.getValue());
+        new LearningEngine(2).learn(tree, GameRegime.LEARNING, 2000);
+        Path file = folder.newFile().toPath();
+        TreeSnapshot.write(tree, file);
+
+        ConcurrentTree concurrentTree = ConcurrentTree.copyOf(TreeSnapshot.map(file));
+        assertEquals(tree.getNumberOfNodes(), concurrentTree.getNumberOfNodes());
+        assertSameTree(tree, concurrentTree.newCursor());
+    }
+
+    @Test
+    public void snapshotIsReadOnly() throws TicTacToeException, IOException {
+        Path file = folder.newFile().toPath();
+        TreeSnapshot.write(new Tree(2), file);
+        MappedTree tree = TreeSnapshot.map(file);
+
+        tree.addNode(0);
+        assertEquals(NodeStatus.UNKNOWN, tree.getCurrentStatus());
+        assertEquals(0, tree.getCurrentChildrenNumber());
+        assertEquals(1, tree.getCurrentMaxChildrenCapacity());
+        tree.setCurrentStatus(NodeStatus.WIN);
+        tree.updateTreeStatus();
+        tree.moveToRoot();
+
+        assertEquals(0, tree.getNumberOfNodes());
+        assertEquals(NodeStatus.UNKNOWN, tree.getRootStatus());
+        assertFalse(tree.tryMoveToChild(0));
+    }
+
+    @Test
+    public void snapshotIsFullError() throws TicTacToeException, IOException {
+        Path file = folder.newFile().toPath();
+        TreeSnapshot.write(new Tree(2), file);
+        MappedTree tree = TreeSnapshot.map(file);
+        tree.addNode(0);
+        tree.addNode(1);
+
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("The children collection is full");
+
+        tree.addNode(0);
+    }
+
+    @Test
+    public void playGamesOnSnapshot() throws TicTacToeException, IOException {
+        Tree tree = new Tree(GameBoardSize.SMALL.getValue());
+        new LearningEngine(2).learn(tree, GameRegime.LEARNING, 500);
+        Path file = folder.newFile().toPath();
+        TreeSnapshot.write(tree, file);
+        MappedTree mappedTree = TreeSnapshot.map(file);
+        long numberOfNodes = mappedTree.getNumberOfNodes();
+
+        // the random X leaves the snapshot, the games still end
+        Game game = new Game(GameBoardSize.SMALL, GameRegime.BATTLE, mappedTree);
+        SelfPlayDriver driver = new SelfPlayDriver(game, SelfPlayDriver.randomPlayer(new Random(7)),
+                SelfPlayDriver.treePlayer(), GameResultSink.NONE);
+        assertEquals(200L, driver.play(200));
+
+        assertEquals(numberOfNodes, mappedTree.getNumberOfNodes());
+        assertSameTree(tree, mappedTree);
+    }
+
+    @Test
+    public void notASnapshotError() throws TicTacToeException, IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("is not a tree snapshot");
+
+        TreeSnapshot.map(file);
+    }
+
+    private static void assertSameTree(GameTree expected, GameTree actual) throws TicTacToeException {
+        expected.moveToRoot();
+        actual.moveToRoot();
+        assertSameChildren(expected, actual);
+    }
+
+    private static void assertSameChildren(GameTree expected, GameTree actual) throws TicTacToeException {
+        assertEquals(expected.getCurrentStatus(), actual.getCurrentStatus());
+        assertEquals(expected.getCurrentChildrenNumber(), actual.getCurrentChildrenNumber());
+        for(int position = 0; position < expected.getRootMaxChildrenCapacity(); position++) {
+            try {
+                expected.moveToChild(position);
+            } catch (NodeNotFoundException e) {
+                continue;
+            }
+            try {
+                actual.moveToChild(position);
+            } catch (NodeNotFoundException e) {
+                fail(e.getMessage());
+            }
+            assertSameChildren(expected, actual);
+            expected.moveToParent();
+            actual.moveToParent();
+        }
+    }
+
+    @Test
+    public void tryMoveToChild() throws TicTacToeException, IOException {
+        Tree sourceTree = new Tree(9);
+        sourceTree.addNode(4);
+        Path file = folder.newFile().toPath();
+        TreeSnapshot.write(sourceTree, file);
+        MappedTree tree = TreeSnapshot.map(file);
+        assertNull(tree.findChildStatus(0));
+        assertFalse(tree.tryMoveToChild(0));
+        assertEquals(NodeStatus.UNKNOWN, tree.findChildStatus(4));
+        assertTrue(tree.tryMoveToChild(4));
+        assertEquals(8, tree.getCurrentMaxChildrenCapacity());
+    }
+}
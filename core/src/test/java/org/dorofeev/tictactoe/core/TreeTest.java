@@ -206,4 +206,151 @@ public class TreeTest {
         assertTrue(tree.getCurrentNode().equals(tree.getRoot()));
     }
 
+
+    @Test
+    public void weightCountsVisits() throws TicTacToeException, NodeNotFoundException {
+        Tree tree = new Tree(2);
+        tree.addNode(0);
+        assertEquals(1, tree.getCurrentNode().getWeight());
+        tree.moveToRoot();
+        tree.moveToChild(0);
+        assertEquals(2, tree.getCurrentNode().getWeight());
+        assertEquals(1, tree.getNumberOfStoredNodes());
+    }
+
+    @Test
+    public void compactKeepsBestPlay() throws TicTacToeException {
+        Tree tree = new Tree(GameBoardSize.SMALL.getValue());
+        new LearningEngine(1).learn(tree, GameRegime.BATTLE, 39000);
+        long storedNodes = tree.getNumberOfStoredNodes();
+        assertEquals(tree.getNumberOfNodes() + tree.getNumberOfNodes(1), storedNodes);
+
+        long removed = tree.compact();
+        assertTrue(removed > 0);
+        assertEquals(storedNodes - removed, tree.getNumberOfStoredNodes());
+        assertEquals(tree.getNumberOfNodes() + tree.getNumberOfNodes(1), tree.getNumberOfStoredNodes());
+        assertEquals(NodeStatus.DRAW, tree.getRootStatus());
+        assertEquals(0, tree.compact());
+        tree.verifyCounters();
+
+        // the compacted tree still draws with the perfect player on both sides
+        PerfectPlaySolver solver = new PerfectPlaySolver(GameBoardSize.SMALL);
+        Game game = new Game(GameBoardSize.SMALL, GameRegime.BATTLE, tree);
+        GamePlayer solverPlayer = SelfPlayDriver.enginePlayer(solver);
+        assertEquals(GameStatus.DRAW, new SelfPlayDriver(game, solverPlayer, SelfPlayDriver.treePlayer(),
+                GameResultSink.NONE).playGame());
+        assertEquals(GameStatus.DRAW, new SelfPlayDriver(game, SelfPlayDriver.treePlayer(), solverPlayer,
+                GameResultSink.NONE).playGame());
+        assertEquals(storedNodes - removed, tree.getNumberOfStoredNodes());
+    }
+
+    @Test
+    public void nodeBudgetIsKept() throws TicTacToeException {
+        final Tree tree = new Tree(GameBoardSize.SMALL.getValue());
+        tree.setMaxNumberOfStoredNodes(5000);
+        GamePlayer player = new GamePlayer() {
+            @Override
+            public int makeMove(Game game, GameFigure figure) throws TicTacToeException {
+                int position = game.makeNewMove(figure);
+                assertTrue(tree.getNumberOfStoredNodes() <= 5000);
+                return position;
+            }
+        };
+        Game game = new Game(GameBoardSize.SMALL, GameRegime.BATTLE, tree);
+        new SelfPlayDriver(game, player, player, GameResultSink.NONE).play(5000);
+        assertEquals(tree.getNumberOfNodes() + tree.getNumberOfNodes(1), tree.getNumberOfStoredNodes());
+        tree.verifyCounters();
+    }
+
+    @Test
+    public void trimBacksOffOverBudget() throws TicTacToeException {
+        Tree tree = new Tree(30);
+        tree.setMaxNumberOfStoredNodes(20);
+        // the branch of the Current node can not be evicted
+        for(int position = 0; position < 30; position++) {
+            tree.addNode(position);
+        }
+        assertEquals(30, tree.getNumberOfStoredNodes());
+        assertEquals(5, tree.getNumberOfTrims());
+
+        tree.moveToRoot();
+        tree.addNode(1);
+        assertEquals(6, tree.getNumberOfTrims());
+        assertEquals(18, tree.getNumberOfStoredNodes());
+        tree.addNode(2);
+        assertEquals(6, tree.getNumberOfTrims());
+        tree.verifyCounters();
+    }
+
+    @Test
+    public void invalidNodeBudget() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("max number of nodes is < 0");
+
+        new Tree(2).setMaxNumberOfStoredNodes(-1);
+    }
+
+    @Test
+    public void liveCounters() throws TicTacToeException, UpdateStatusException {
+        Tree tree = new Tree(3);
+        tree.addNode(0);
+        tree.addNode(1);
+        tree.addNode(2);
+        tree.setCurrentStatus(NodeStatus.WIN);
+        tree.updateTreeStatus();
+        tree.moveToRoot();
+        tree.addNode(1);
+
+        assertEquals(4, tree.getNumberOfStoredNodes());
+        assertEquals(2, tree.getNumberOfNodes(1));
+        assertEquals(1, tree.getNumberOfNodes(2));
+        assertEquals(1, tree.getNumberOfNodes(3));
+        assertEquals(0, tree.getNumberOfNodes(4));
+        assertEquals(2, tree.getNumberOfNodes());
+        assertEquals(3, tree.getTreeDepth());
+        // 2 wins, so 1 loses, 0 has an unknown child
+        assertEquals(1, tree.getNumberOfNodes(NodeStatus.WIN));
+        assertEquals(1, tree.getNumberOfNodes(NodeStatus.LOSE));
+        assertEquals(2, tree.getNumberOfNodes(NodeStatus.UNKNOWN));
+        tree.verifyCounters();
+    }
+
+    @Test
+    public void countersAfterLearning() throws TicTacToeException {
+        Tree tree = new Tree(GameBoardSize.SMALL.getValue());
+        new SelfPlayDriver(new Game(GameBoardSize.SMALL, GameRegime.LEARNING, tree)).play(1000);
+        tree.verifyCounters();
+        long numberOfNodes = 0;
+        for(NodeStatus status : NodeStatus.values()) {
+            numberOfNodes += tree.getNumberOfNodes(status);
+        }
+        assertEquals(tree.getNumberOfStoredNodes(), numberOfNodes);
+    }
+
+    @Test
+    public void verifyCountersFindsDirectChanges() throws TicTacToeException {
+        Tree tree = new Tree(2);
+        tree.addNode(0);
+        tree.getCurrentNode().setStatus(NodeStatus.DRAW);
+        tree.recount();
+        assertEquals(1, tree.getNumberOfNodes(NodeStatus.DRAW));
+        tree.getCurrentNode().setStatus(NodeStatus.WIN);
+
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("The numbers of nodes per status are");
+
+        tree.verifyCounters();
+    }
+
+    @Test
+    public void tryMoveToChild() throws TicTacToeException {
+        Tree tree = new Tree(9);
+        tree.addNode(4);
+        tree.moveToRoot();
+        assertNull(tree.findChildStatus(0));
+        assertFalse(tree.tryMoveToChild(0));
+        assertEquals(NodeStatus.UNKNOWN, tree.findChildStatus(4));
+        assertTrue(tree.tryMoveToChild(4));
+        assertEquals(8, tree.getCurrentMaxChildrenCapacity());
+    }
 }
@@ -1,18 +1,30 @@
 package org.dorofeev.tictactoe.server.controller;
 
-import org.dorofeev.tictactoe.core.Game;
-import org.dorofeev.tictactoe.core.GameBoardSize;
-import org.dorofeev.tictactoe.core.GameRegime;
-
 import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.dorofeev.tictactoe.server.model.BatchMoveRequest;
+import org.dorofeev.tictactoe.server.model.BatchMoveResponse;
 import org.dorofeev.tictactoe.server.model.GameStatus;
 import org.dorofeev.tictactoe.server.model.GameResponse;
 import org.dorofeev.tictactoe.server.model.MakeMoveRequest;
+import org.dorofeev.tictactoe.server.model.NewGameResponse;
+import org.dorofeev.tictactoe.server.model.PlayMoveRequest;
+import org.dorofeev.tictactoe.server.model.PlayMoveResponse;
+import org.dorofeev.tictactoe.server.model.TrainingJobResponse;
+import org.dorofeev.tictactoe.server.service.GameService;
+import org.dorofeev.tictactoe.server.service.TrainingJob;
+import org.dorofeev.tictactoe.server.service.TrainingService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
-// TODO:  session mechanism need to be added ! Each user should play in his own session. A session stores game object.
-// A session is deleted after expiration time.
+import java.util.ArrayList;
+import java.util.List;
+
 /**
+ * Each player plays in his own session, the game ID returned by
+ * /startNewGame should be sent with every move. /playMove makes the move of
+ * the player and the reply of the computer in one call, /playMoves does it
+ * for many games at once. Bots can play the moves in the compact binary
+ * format of {@link ControllerGameBinary} instead of JSON
  * @author Yury Dorofeev
  * @since 02/08/16
  */
@@ -20,12 +32,28 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping(value = "/tictactoe")
 public class ControllerGame {
     private static final int MAX_NUMBER_OF_GAMES = 39000;
-    private Game game;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private final GameService gameService;
+    private final TrainingService trainingService;
+
+    @Autowired
+    public ControllerGame(GameService gameService, TrainingService trainingService) {
+        this.gameService = gameService;
+        this.trainingService = trainingService;
+    }
+
+    @RequestMapping(value = "/startNewGame", method = RequestMethod.POST, produces = "application/json")
+    public @ResponseBody
+    NewGameResponse startNewGame() throws TicTacToeException {
+        String gameId = gameService.startNewGame();
+        System.out.println("..new game started: " + gameId);
+        return new NewGameResponse(gameId);
+    }
 
-    @RequestMapping(value = "/startNewGame", method = RequestMethod.POST)
-    public void startNewGame() throws TicTacToeException {
-        game = new Game(GameBoardSize.SMALL, GameRegime.BATTLE);
-        System.out.println("..new game started");
+    @RequestMapping(value = "/gameStatus/{gameId}", method = RequestMethod.GET, produces = "application/json")
+    public @ResponseBody
+    GameResponse getGameStatus(@PathVariable String gameId) throws TicTacToeException {
+        return new GameResponse(mapGameStatus(gameService.getGameStatus(gameId)), null);
     }
 
     @RequestMapping(value = "/makeNewMoveWithPosition", method = RequestMethod.POST, produces = "application/json")
@@ -40,12 +68,11 @@ public class ControllerGame {
         if(request.getPosition() == null) {
             throw new TicTacToeException("position parameter is empty");
         }
-        if(game == null) {
-            startNewGame();
-        }
-        game.makeNewMove(mapGameFigure(request.getFigure()), Integer.valueOf(request.getPosition()));
-        System.out.println("..new move is made for " + request.getFigure() + " at position " + request.getPosition());
-        return getGameStatusResponse(Integer.valueOf(request.getPosition()));
+        int position = Integer.valueOf(request.getPosition());
+        org.dorofeev.tictactoe.core.GameStatus status =
+                gameService.makeNewMove(request.getGameId(), mapGameFigure(request.getFigure()), position);
+        System.out.println("..new move is made for " + request.getFigure() + " at position " + position);
+        return mapGameStatusResponse(status, position);
     }
 
     @RequestMapping(value = "/makeNewMove", method = RequestMethod.POST, produces = "application/json")
@@ -57,26 +84,77 @@ public class ControllerGame {
         if(request.getFigure() == null) {
             throw new TicTacToeException("figure parameter is empty");
         }
-        if(game == null) {
-            startNewGame();
+        GameService.MoveResult result = gameService.makeNewMove(request.getGameId(), mapGameFigure(request.getFigure()));
+        System.out.println("..new move is made for " + request.getFigure() + " at position " + result.getPosition());
+        return mapGameStatusResponse(result.getStatus(), result.getPosition());
+    }
+
+    @RequestMapping(value = "/playMove", method = RequestMethod.POST, produces = "application/json")
+    public @ResponseBody
+    PlayMoveResponse playMove(@RequestBody PlayMoveRequest request) throws TicTacToeException {
+        if(request == null) {
+            throw new TicTacToeException("request is empty");
         }
-        int position = game.makeNewMove(mapGameFigure(request.getFigure()));
-        System.out.println("..new move is made for " + request.getFigure() + " at position " + position);
-        return getGameStatusResponse(position);
+        return play(request);
     }
 
-    @RequestMapping(value = "/makeComputerSmart", method = RequestMethod.POST)
-    public void makeSmart() throws TicTacToeException {
-        int numberOfGames = 0;
-        if(game == null) {
-            startNewGame();
+    /**
+     * A failed move does not fail the batch, whatever the failure is, its result has the error
+     */
+    @RequestMapping(value = "/playMoves", method = RequestMethod.POST, produces = "application/json")
+    public @ResponseBody
+    BatchMoveResponse playMoves(@RequestBody BatchMoveRequest request) throws TicTacToeException {
+        if(request == null || request.getMoves() == null) {
+            throw new TicTacToeException("moves parameter is empty");
         }
-        System.out.println("..learning regime");
-        while (numberOfGames < MAX_NUMBER_OF_GAMES) {
-            if (playNewGame(game, org.dorofeev.tictactoe.core.GameFigure.X)) {
-                numberOfGames++;
+        if(request.getMoves().size() > MAX_BATCH_SIZE) {
+            throw new TicTacToeException("The batch has more than " + MAX_BATCH_SIZE + " moves");
+        }
+        List<PlayMoveResponse> results = new ArrayList<>(request.getMoves().size());
+        for(PlayMoveRequest move : request.getMoves()) {
+            try {
+                if(move == null) {
+                    throw new TicTacToeException("request is empty");
+                }
+                results.add(play(move));
+            } catch (TicTacToeException e) {
+                results.add(PlayMoveResponse.failed(move == null ? null : move.getGameId(), e.getMessage()));
+            } catch (RuntimeException e) {
+                System.out.println("..move of the batch failed: " + e);
+                results.add(PlayMoveResponse.failed(move == null ? null : move.getGameId(), e.toString()));
             }
         }
+        System.out.println("..batch of " + results.size() + " moves is played");
+        return new BatchMoveResponse(results);
+    }
+
+    /**
+     * Starts a training job in the background, see {@link ControllerTraining} for its progress
+     */
+    @RequestMapping(value = "/makeComputerSmart", method = RequestMethod.POST, produces = "application/json")
+    public @ResponseBody
+    TrainingJobResponse makeSmart() throws TicTacToeException {
+        TrainingJob job = trainingService.submit(MAX_NUMBER_OF_GAMES, 0);
+        System.out.println("..learning regime, training job: " + job.getJobId());
+        return new TrainingJobResponse(job.getJobId(), job.getState().name(), job.getGamesPlayed(),
+                job.getGamesPerSecond(), trainingService.getNumberOfNodes(), job.getError());
+    }
+
+    @RequestMapping(value = "/saveSnapshot", method = RequestMethod.POST)
+    public void saveSnapshot() throws TicTacToeException {
+        int numberOfNodes = gameService.saveSnapshot();
+        System.out.println("..snapshot saved, number of nodes = " + numberOfNodes);
+    }
+
+    private PlayMoveResponse play(PlayMoveRequest request) throws TicTacToeException {
+        if(request.getFigure() == null) {
+            throw new TicTacToeException("figure parameter is empty");
+        }
+        GameService.PlayResult result =
+                gameService.playMove(request.getGameId(), mapGameFigure(request.getFigure()), request.getPosition());
+        GameService.MoveResult reply = result.getReply();
+        return new PlayMoveResponse(request.getGameId(), mapGameStatus(result.getStatus()),
+                reply == null ? null : mapGameStatusResponse(reply.getStatus(), reply.getPosition()));
     }
 
     private org.dorofeev.tictactoe.core.GameFigure mapGameFigure(final String figure) {
@@ -102,26 +180,4 @@ public class ControllerGame {
         }
         throw new TicTacToeException("Status not found");
     }
-
-    private GameResponse getGameStatusResponse(int position) throws TicTacToeException {
-        org.dorofeev.tictactoe.core.GameStatus status = game.getGameStatus();
-        if(status != org.dorofeev.tictactoe.core.GameStatus.CONTINUE) {
-            game.gameOver(status);
-            System.out.println("..game is over");
-        }
-        return mapGameStatusResponse(status, position);
-    }
-
-    private boolean playNewGame(Game game, org.dorofeev.tictactoe.core.GameFigure figure) throws TicTacToeException {
-        org.dorofeev.tictactoe.core.GameStatus status = game.getGameStatus();
-        if(status == org.dorofeev.tictactoe.core.GameStatus.CONTINUE) {
-            game.makeNewMove(figure);
-            return playNewGame(game, figure == org.dorofeev.tictactoe.core.GameFigure.X ? org.dorofeev.tictactoe.core.GameFigure.O : org.dorofeev.tictactoe.core.GameFigure.X);
-        } else {
-            game.gameOver(status);
-            return true;
-        }
-    }
-
 }
-
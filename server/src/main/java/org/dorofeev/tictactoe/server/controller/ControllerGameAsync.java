@@ -0,0 +1,98 @@
+package org.dorofeev.tictactoe.server.controller;
+
+import org.dorofeev.tictactoe.server.model.BatchMoveRequest;
+import org.dorofeev.tictactoe.server.model.BatchMoveResponse;
+import org.dorofeev.tictactoe.server.model.GameResponse;
+import org.dorofeev.tictactoe.server.model.MakeMoveRequest;
+import org.dorofeev.tictactoe.server.model.NewGameResponse;
+import org.dorofeev.tictactoe.server.model.PlayMoveRequest;
+import org.dorofeev.tictactoe.server.model.PlayMoveResponse;
+import org.dorofeev.tictactoe.server.service.ComputeExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The game endpoints of {@link ControllerGame} served asynchronously under
+ * /tictactoe/async. The servlet thread returns as soon as the request is
+ * handed over to the {@link ComputeExecutor}, the response is written when
+ * the move is made, so the number of servlet threads does not limit the
+ * number of open games. The requests and the responses are the same as
+ * the ones of {@link ControllerGame}
+ * @author Yury Dorofeev
+ * @since 11/10/16
+ */
+@RestController
+@RequestMapping(value = "/tictactoe/async")
+public class ControllerGameAsync {
+    private final ControllerGame controllerGame;
+    private final ComputeExecutor computeExecutor;
+
+    @Autowired
+    public ControllerGameAsync(ControllerGame controllerGame, ComputeExecutor computeExecutor) {
+        this.controllerGame = controllerGame;
+        this.computeExecutor = computeExecutor;
+    }
+
+    @RequestMapping(value = "/startNewGame", method = RequestMethod.POST, produces = "application/json")
+    public CompletableFuture<NewGameResponse> startNewGame() {
+        return computeExecutor.submit(new Callable<NewGameResponse>() {
+            @Override
+            public NewGameResponse call() throws Exception {
+                return controllerGame.startNewGame();
+            }
+        });
+    }
+
+    @RequestMapping(value = "/gameStatus/{gameId}", method = RequestMethod.GET, produces = "application/json")
+    public CompletableFuture<GameResponse> getGameStatus(@PathVariable final String gameId) {
+        return computeExecutor.submit(new Callable<GameResponse>() {
+            @Override
+            public GameResponse call() throws Exception {
+                return controllerGame.getGameStatus(gameId);
+            }
+        });
+    }
+
+    @RequestMapping(value = "/makeNewMoveWithPosition", method = RequestMethod.POST, produces = "application/json")
+    public CompletableFuture<GameResponse> makeNewMoveWithPosition(@RequestBody final MakeMoveRequest request) {
+        return computeExecutor.submit(new Callable<GameResponse>() {
+            @Override
+            public GameResponse call() throws Exception {
+                return controllerGame.makeNewMoveWithPosition(request);
+            }
+        });
+    }
+
+    @RequestMapping(value = "/makeNewMove", method = RequestMethod.POST, produces = "application/json")
+    public CompletableFuture<GameResponse> makeNewMove(@RequestBody final MakeMoveRequest request) {
+        return computeExecutor.submit(new Callable<GameResponse>() {
+            @Override
+            public GameResponse call() throws Exception {
+                return controllerGame.makeNewMove(request);
+            }
+        });
+    }
+
+    @RequestMapping(value = "/playMove", method = RequestMethod.POST, produces = "application/json")
+    public CompletableFuture<PlayMoveResponse> playMove(@RequestBody final PlayMoveRequest request) {
+        return computeExecutor.submit(new Callable<PlayMoveResponse>() {
+            @Override
+            public PlayMoveResponse call() throws Exception {
+                return controllerGame.playMove(request);
+            }
+        });
+    }
+
+    @RequestMapping(value = "/playMoves", method = RequestMethod.POST, produces = "application/json")
+    public CompletableFuture<BatchMoveResponse> playMoves(@RequestBody final BatchMoveRequest request) {
+        return computeExecutor.submit(new Callable<BatchMoveResponse>() {
+            @Override
+            public BatchMoveResponse call() throws Exception {
+                return controllerGame.playMoves(request);
+            }
+        });
+    }
+}
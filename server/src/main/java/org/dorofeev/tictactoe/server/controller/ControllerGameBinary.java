@@ -0,0 +1,113 @@
+package org.dorofeev.tictactoe.server.controller;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.dorofeev.tictactoe.server.model.BinaryMoveError;
+import org.dorofeev.tictactoe.server.model.BinaryMoveRequest;
+import org.dorofeev.tictactoe.server.service.ComputeExecutor;
+import org.dorofeev.tictactoe.server.service.GameService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The move endpoints of {@link ControllerGame} and {@link ControllerGameAsync}
+ * for the requests sent in the binary format of {@link MoveMessageConverter}.
+ * The moves go to the {@link GameService} as they are decoded and the results
+ * are written as they come back, the errors of these endpoints are binary too:
+ * a bad request or a failed move is 400, an unexpected failure is 500
+ * @author Yury Dorofeev
+ * @since 14/10/16
+ */
+@RestController
+@RequestMapping(value = "/tictactoe")
+public class ControllerGameBinary {
+    private final GameService gameService;
+    private final ComputeExecutor computeExecutor;
+
+    @Autowired
+    public ControllerGameBinary(GameService gameService, ComputeExecutor computeExecutor) {
+        this.gameService = gameService;
+        this.computeExecutor = computeExecutor;
+    }
+
+    @RequestMapping(value = "/makeNewMoveWithPosition", method = RequestMethod.POST,
+            consumes = MoveMessageConverter.MEDIA_TYPE_VALUE, produces = MoveMessageConverter.MEDIA_TYPE_VALUE)
+    public GameService.MoveResult makeNewMoveWithPosition(@RequestBody BinaryMoveRequest request) throws TicTacToeException {
+        int position = getPosition(request);
+        return new GameService.MoveResult(position,
+                gameService.makeNewMove(request.getGameId(), request.getFigure(), position));
+    }
+
+    @RequestMapping(value = "/makeNewMove", method = RequestMethod.POST,
+            consumes = MoveMessageConverter.MEDIA_TYPE_VALUE, produces = MoveMessageConverter.MEDIA_TYPE_VALUE)
+    public GameService.MoveResult makeNewMove(@RequestBody BinaryMoveRequest request) throws TicTacToeException {
+        return gameService.makeNewMove(request.getGameId(), request.getFigure());
+    }
+
+    @RequestMapping(value = "/playMove", method = RequestMethod.POST,
+            consumes = MoveMessageConverter.MEDIA_TYPE_VALUE, produces = MoveMessageConverter.MEDIA_TYPE_VALUE)
+    public GameService.PlayResult playMove(@RequestBody BinaryMoveRequest request) throws TicTacToeException {
+        return gameService.playMove(request.getGameId(), request.getFigure(), getPosition(request));
+    }
+
+    @RequestMapping(value = "/async/makeNewMoveWithPosition", method = RequestMethod.POST,
+            consumes = MoveMessageConverter.MEDIA_TYPE_VALUE, produces = MoveMessageConverter.MEDIA_TYPE_VALUE)
+    public CompletableFuture<GameService.MoveResult> makeNewMoveWithPositionAsync(@RequestBody final BinaryMoveRequest request) {
+        return computeExecutor.submit(new Callable<GameService.MoveResult>() {
+            @Override
+            public GameService.MoveResult call() throws Exception {
+                return makeNewMoveWithPosition(request);
+            }
+        });
+    }
+
+    @RequestMapping(value = "/async/makeNewMove", method = RequestMethod.POST,
+            consumes = MoveMessageConverter.MEDIA_TYPE_VALUE, produces = MoveMessageConverter.MEDIA_TYPE_VALUE)
+    public CompletableFuture<GameService.MoveResult> makeNewMoveAsync(@RequestBody final BinaryMoveRequest request) {
+        return computeExecutor.submit(new Callable<GameService.MoveResult>() {
+            @Override
+            public GameService.MoveResult call() throws Exception {
+                return makeNewMove(request);
+            }
+        });
+    }
+
+    @RequestMapping(value = "/async/playMove", method = RequestMethod.POST,
+            consumes = MoveMessageConverter.MEDIA_TYPE_VALUE, produces = MoveMessageConverter.MEDIA_TYPE_VALUE)
+    public CompletableFuture<GameService.PlayResult> playMoveAsync(@RequestBody final BinaryMoveRequest request) {
+        return computeExecutor.submit(new Callable<GameService.PlayResult>() {
+            @Override
+            public GameService.PlayResult call() throws Exception {
+                return playMove(request);
+            }
+        });
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<BinaryMoveError> handleBadMove(HttpMessageNotReadableException e) {
+        return new ResponseEntity<>(new BinaryMoveError(e.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(TicTacToeException.class)
+    public ResponseEntity<BinaryMoveError> handleFailedMove(TicTacToeException e) {
+        return new ResponseEntity<>(new BinaryMoveError(e.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<BinaryMoveError> handleError(Exception e) {
+        System.out.println("..binary move failed: " + e.getMessage());
+        return new ResponseEntity<>(new BinaryMoveError(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private static int getPosition(BinaryMoveRequest request) throws TicTacToeException {
+        if(request.getPosition() == BinaryMoveRequest.NO_POSITION) {
+            throw new TicTacToeException("position parameter is empty");
+        }
+        return request.getPosition();
+    }
+}
@@ -0,0 +1,89 @@
+package org.dorofeev.tictactoe.server.controller;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.dorofeev.tictactoe.server.model.TrainingJobRequest;
+import org.dorofeev.tictactoe.server.model.TrainingJobResponse;
+import org.dorofeev.tictactoe.server.service.TrainingJob;
+import org.dorofeev.tictactoe.server.service.TrainingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Training jobs run in the background, /jobs returns the job ID at once,
+ * the progress is polled with /jobs/{jobId}
+ * @author Yury Dorofeev
+ * @since 09/10/16
+ */
+@RestController
+@RequestMapping(value = "/tictactoe/training")
+public class ControllerTraining {
+    private final TrainingService trainingService;
+
+    @Autowired
+    public ControllerTraining(TrainingService trainingService) {
+        this.trainingService = trainingService;
+    }
+
+    @RequestMapping(value = "/jobs", method = RequestMethod.POST, produces = "application/json")
+    public @ResponseBody
+    TrainingJobResponse submit(@RequestBody TrainingJobRequest request) throws TicTacToeException {
+        if(request == null) {
+            throw new TicTacToeException("request is empty");
+        }
+        TrainingJob job = trainingService.submit(request.getNumberOfGames(), request.getMaxTime());
+        System.out.println("..training job submitted: " + job.getJobId());
+        return mapJob(job);
+    }
+
+    @RequestMapping(value = "/jobs", method = RequestMethod.GET, produces = "application/json")
+    public @ResponseBody
+    List<TrainingJobResponse> getJobs() {
+        List<TrainingJobResponse> responses = new ArrayList<>();
+        for(TrainingJob job : trainingService.getJobs()) {
+            responses.add(mapJob(job));
+        }
+        return responses;
+    }
+
+    @RequestMapping(value = "/jobs/{jobId}", method = RequestMethod.GET, produces = "application/json")
+    public @ResponseBody
+    TrainingJobResponse getJob(@PathVariable String jobId) throws TicTacToeException {
+        return mapJob(trainingService.getJob(jobId));
+    }
+
+    @RequestMapping(value = "/jobs/{jobId}/pause", method = RequestMethod.POST, produces = "application/json")
+    public @ResponseBody
+    TrainingJobResponse pause(@PathVariable String jobId) throws TicTacToeException {
+        TrainingJob job = trainingService.getJob(jobId);
+        if(!job.pause()) {
+            throw new TicTacToeException("Training job " + jobId + " is already finished");
+        }
+        return mapJob(job);
+    }
+
+    @RequestMapping(value = "/jobs/{jobId}/resume", method = RequestMethod.POST, produces = "application/json")
+    public @ResponseBody
+    TrainingJobResponse resume(@PathVariable String jobId) throws TicTacToeException {
+        TrainingJob job = trainingService.getJob(jobId);
+        if(!job.resume()) {
+            throw new TicTacToeException("Training job " + jobId + " is already finished");
+        }
+        return mapJob(job);
+    }
+
+    @RequestMapping(value = "/jobs/{jobId}/cancel", method = RequestMethod.POST, produces = "application/json")
+    public @ResponseBody
+    TrainingJobResponse cancel(@PathVariable String jobId) throws TicTacToeException {
+        TrainingJob job = trainingService.getJob(jobId);
+        job.cancel();
+        return mapJob(job);
+    }
+
+    private TrainingJobResponse mapJob(TrainingJob job) {
+        return new TrainingJobResponse(job.getJobId(), job.getState().name(), job.getGamesPlayed(),
+                job.getGamesPerSecond(), trainingService.getNumberOfNodes(), job.getError());
+    }
+}
@@ -0,0 +1,133 @@
+package org.dorofeev.tictactoe.server.controller;
+
+import org.dorofeev.tictactoe.core.GameFigure;
+import org.dorofeev.tictactoe.core.GameStatus;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.dorofeev.tictactoe.server.service.GameService;
+
+import javax.websocket.CloseReason;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.MessageHandler;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * GameSocket is a WebSocket channel of one game, it replaces the POST per
+ * move. The frames are short text lines, no JSON:
+ * <pre>
+ * from the server, once the socket is open:  GAME gameId
+ * from the player, the move and the reply:   X 4
+ * from the player, the computer moves:       O
+ * from the server, every move made:          X 4 CONTINUE
+ *                                            O 0 WIN
+ * from the server, if a frame fails:         ERROR message
+ * </pre>
+ * Any failure of a frame is sent back as ERROR, the socket stays open
+ * The socket starts a new game, or continues the one given by the gameId
+ * parameter of the socket URL. As with the POSTs, the game starts again
+ * when it is over
+ * @author Yury Dorofeev
+ * @since 12/10/16
+ */
+public class GameSocket extends Endpoint {
+    public static final String PATH = "/tictactoe/ws/game";
+
+    private final GameService gameService;
+
+    public GameSocket(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    @Override
+    public void onOpen(final Session session, EndpointConfig config) {
+        final String gameId;
+        try {
+            gameId = openGame(session);
+        } catch (TicTacToeException e) {
+            close(session, e.getMessage());
+            return;
+        } catch (RuntimeException e) {
+            System.out.println("..socket game is not opened: " + e);
+            close(session, e.toString());
+            return;
+        }
+        session.addMessageHandler(new MessageHandler.Whole<String>() {
+            @Override
+            public void onMessage(String frame) {
+                try {
+                    play(session, gameId, frame);
+                } catch (TicTacToeException | NumberFormatException e) {
+                    send(session, "ERROR " + e.getMessage());
+                } catch (RuntimeException e) {
+                    System.out.println("..socket move failed: " + e);
+                    send(session, "ERROR " + e);
+                }
+            }
+        });
+        send(session, "GAME " + gameId);
+    }
+
+    private String openGame(Session session) throws TicTacToeException {
+        List<String> gameIds = session.getRequestParameterMap().get("gameId");
+        if(gameIds == null || gameIds.isEmpty()) {
+            String gameId = gameService.startNewGame();
+            System.out.println("..new game started on the socket: " + gameId);
+            return gameId;
+        }
+        String gameId = gameIds.get(0);
+        gameService.getGameStatus(gameId);  // the game must exist
+        return gameId;
+    }
+
+    private void play(Session session, String gameId, String frame) throws TicTacToeException {
+        String[] parts = frame.trim().split(" +");
+        GameFigure figure = parseFigure(parts[0]);
+        if(parts.length == 1) {
+            GameService.MoveResult result = gameService.makeNewMove(gameId, figure);
+            send(session, move(figure, result.getPosition(), result.getStatus()));
+            return;
+        }
+        int position = Integer.parseInt(parts[1]);
+        GameService.PlayResult result = gameService.playMove(gameId, figure, position);
+        send(session, move(figure, position, result.getStatus()));
+        GameService.MoveResult reply = result.getReply();
+        if(reply != null) {
+            send(session, move(figure == GameFigure.X ? GameFigure.O : GameFigure.X, reply.getPosition(), reply.getStatus()));
+        }
+    }
+
+    private static GameFigure parseFigure(String figure) throws TicTacToeException {
+        if(figure.equalsIgnoreCase("X")) {
+            return GameFigure.X;
+        }
+        if(figure.equalsIgnoreCase("O")) {
+            return GameFigure.O;
+        }
+        throw new TicTacToeException("figure parameter is invalid: " + figure);
+    }
+
+    private static String move(GameFigure figure, int position, GameStatus status) {
+        return figure + " " + position + " " + status;
+    }
+
+    /**
+     * The frames of one session are handled one by one, so the blocking send does not overlap
+     */
+    private static void send(Session session, String frame) {
+        try {
+            session.getBasicRemote().sendText(frame);
+        } catch (IOException e) {
+            System.out.println("..socket frame is not sent: " + e.getMessage());
+        }
+    }
+
+    private static void close(Session session, String message) {
+        try {
+            session.close(new CloseReason(CloseReason.CloseCodes.CANNOT_ACCEPT, message));
+        } catch (IOException e) {
+            System.out.println("..socket is not closed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.dorofeev.tictactoe.server.controller;
+
+import org.dorofeev.tictactoe.server.service.GameService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.ServletContextAware;
+
+import javax.servlet.ServletContext;
+import javax.websocket.DeploymentException;
+import javax.websocket.server.ServerContainer;
+import javax.websocket.server.ServerEndpointConfig;
+
+/**
+ * Registers the {@link GameSocket} in the WebSocket container of the
+ * embedded Tomcat (JSR-356), every socket gets its own endpoint instance
+ * @author Yury Dorofeev
+ * @since 12/10/16
+ */
+@Component
+public class GameSocketRegistrar implements ServletContextAware {
+    private final GameService gameService;
+
+    @Autowired
+    public GameSocketRegistrar(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    @Override
+    public void setServletContext(ServletContext servletContext) {
+        ServerContainer container = (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName());
+        if(container == null) {
+            System.out.println("..WebSocket is not supported, the game socket is not registered");
+            return;
+        }
+        ServerEndpointConfig config = ServerEndpointConfig.Builder.create(GameSocket.class, GameSocket.PATH)
+                .configurator(new ServerEndpointConfig.Configurator() {
+                    @Override
+                    public <T> T getEndpointInstance(Class<T> endpointClass) {
+                        return endpointClass.cast(new GameSocket(gameService));
+                    }
+                })
+                .build();
+        try {
+            container.addEndpoint(config);
+        } catch (DeploymentException e) {
+            throw new IllegalStateException("The game socket is not registered: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.dorofeev.tictactoe.server.controller;
+
+import org.dorofeev.tictactoe.core.GameFigure;
+import org.dorofeev.tictactoe.core.GameStatus;
+import org.dorofeev.tictactoe.server.model.BinaryMoveError;
+import org.dorofeev.tictactoe.server.model.BinaryMoveRequest;
+import org.dorofeev.tictactoe.server.service.GameService;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary encoding of the moves for bots, used by
+ * {@link ControllerGameBinary} with the {@link #MEDIA_TYPE} content type.
+ * Every field is one byte, the game ID is the rest of the request in ASCII:
+ * <pre>
+ * BinaryMoveRequest: figure, position, gameId
+ * MoveResult:        status, position
+ * PlayResult:        status, reply status, reply position
+ * BinaryMoveError:   {@link #NONE}, message in UTF-8
+ * </pre>
+ * The figure is 0 for X and 1 for O, the status is 0 for WIN, 1 for DRAW and
+ * 2 for CONTINUE, {@link #NONE} is a missing value. The bytes are read into
+ * the core types and written from them, no strings on the way. A position
+ * takes one byte, so the format serves the boards of up to 255 cells
+ * @author Yury Dorofeev
+ * @since 13/10/16
+ */
+@Component
+public class MoveMessageConverter extends AbstractHttpMessageConverter<Object> {
+    public static final String MEDIA_TYPE_VALUE = "application/x-tictactoe-move";
+    public static final MediaType MEDIA_TYPE = MediaType.valueOf(MEDIA_TYPE_VALUE);
+    public static final int NONE = 0xFF;
+    private static final GameFigure[] FIGURES = {GameFigure.X, GameFigure.O};
+
+    public MoveMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return isRequest(clazz) || isResponse(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return isRequest(clazz) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return isResponse(clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        byte[] body = StreamUtils.copyToByteArray(inputMessage.getBody());
+        if(body.length < 2) {
+            throw new HttpMessageNotReadableException("The move has " + body.length + " bytes, at least 2 expected");
+        }
+        int figure = body[0] & 0xFF;
+        if(figure >= FIGURES.length) {
+            throw new HttpMessageNotReadableException("Unknown figure " + figure);
+        }
+        int position = body[1] & 0xFF;
+        String gameId = body.length == 2 ? null : new String(body, 2, body.length - 2, StandardCharsets.US_ASCII);
+        return new BinaryMoveRequest(gameId, FIGURES[figure], position == NONE ? BinaryMoveRequest.NO_POSITION : position);
+    }
+
+    @Override
+    protected void writeInternal(Object object, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(encode(object));
+    }
+
+    private static byte[] encode(Object object) {
+        if(object instanceof GameService.MoveResult) {
+            GameService.MoveResult result = (GameService.MoveResult) object;
+            return new byte[] {encodeStatus(result.getStatus()), encodePosition(result.getPosition())};
+        }
+        if(object instanceof GameService.PlayResult) {
+            GameService.PlayResult result = (GameService.PlayResult) object;
+            GameService.MoveResult reply = result.getReply();
+            return new byte[] {encodeStatus(result.getStatus()),
+                    reply == null ? (byte) NONE : encodeStatus(reply.getStatus()),
+                    reply == null ? (byte) NONE : encodePosition(reply.getPosition())};
+        }
+        byte[] message = String.valueOf(((BinaryMoveError) object).getMessage()).getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[1 + message.length];
+        bytes[0] = (byte) NONE;
+        System.arraycopy(message, 0, bytes, 1, message.length);
+        return bytes;
+    }
+
+    private static byte encodePosition(int position) {
+        if(position < 0 || position >= NONE) {
+            throw new HttpMessageNotWritableException("The position " + position + " does not fit the binary format");
+        }
+        return (byte) position;
+    }
+
+    private static byte encodeStatus(GameStatus status) {
+        switch (status) {
+            case WIN:
+                return 0;
+            case DRAW:
+                return 1;
+            case CONTINUE:
+                return 2;
+        }
+        return (byte) NONE;
+    }
+
+    private static boolean isRequest(Class<?> clazz) {
+        return clazz == BinaryMoveRequest.class;
+    }
+
+    private static boolean isResponse(Class<?> clazz) {
+        return clazz == GameService.MoveResult.class || clazz == GameService.PlayResult.class
+                || clazz == BinaryMoveError.class;
+    }
+}
@@ -0,0 +1,26 @@
+package org.dorofeev.tictactoe.server.model;
+
+import java.util.List;
+
+/**
+ * Moves of many games in one request
+ * @author Yury Dorofeev
+ * @since 09/10/16
+ */
+public class BatchMoveRequest {
+    private List<PlayMoveRequest> moves;
+
+    public BatchMoveRequest() {}
+
+    public BatchMoveRequest(List<PlayMoveRequest> moves) {
+        this.moves = moves;
+    }
+
+    public List<PlayMoveRequest> getMoves() {
+        return moves;
+    }
+
+    public void setMoves(List<PlayMoveRequest> moves) {
+        this.moves = moves;
+    }
+}
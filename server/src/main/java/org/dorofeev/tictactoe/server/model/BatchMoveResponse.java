@@ -0,0 +1,22 @@
+package org.dorofeev.tictactoe.server.model;
+
+import java.util.List;
+
+/**
+ * The results in the order of the moves of the {@link BatchMoveRequest}
+ * @author Yury Dorofeev
+ * @since 09/10/16
+ */
+public class BatchMoveResponse {
+    private List<PlayMoveResponse> results;
+
+    public BatchMoveResponse() {}
+
+    public BatchMoveResponse(List<PlayMoveResponse> results) {
+        this.results = results;
+    }
+
+    public List<PlayMoveResponse> getResults() {
+        return results;
+    }
+}
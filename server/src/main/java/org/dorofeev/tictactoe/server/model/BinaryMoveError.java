@@ -0,0 +1,23 @@
+package org.dorofeev.tictactoe.server.model;
+
+/**
+ * The error of a move sent in the binary format
+ * @author Yury Dorofeev
+ * @since 14/10/16
+ */
+public class BinaryMoveError {
+    private final String message;
+
+    public BinaryMoveError(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "message: " + message;
+    }
+}
@@ -0,0 +1,42 @@
+package org.dorofeev.tictactoe.server.model;
+
+import org.dorofeev.tictactoe.core.GameFigure;
+
+/**
+ * The move of the binary format, decoded straight into the core types
+ * @author Yury Dorofeev
+ * @since 14/10/16
+ */
+public class BinaryMoveRequest {
+    public static final int NO_POSITION = -1;
+
+    private final String gameId;
+    private final GameFigure figure;
+    private final int position;
+
+    public BinaryMoveRequest(String gameId, GameFigure figure, int position) {
+        this.gameId = gameId;
+        this.figure = figure;
+        this.position = position;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public GameFigure getFigure() {
+        return figure;
+    }
+
+    /**
+     * @return the position or {@link #NO_POSITION} if the computer chooses it
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return "gameId: " + gameId + ", figure: " + figure + ", position: " + position;
+    }
+}
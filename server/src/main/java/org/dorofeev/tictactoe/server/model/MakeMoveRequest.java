@@ -4,9 +4,18 @@ package org.dorofeev.tictactoe.server.model;
  * Created by yury on 03/08/16.
  */
 public class MakeMoveRequest {
+    private String gameId;
     private String figure;
     private String position;
 
+    public String getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(String gameId) {
+        this.gameId = gameId;
+    }
+
     public String getFigure() {
         return figure;
     }
@@ -0,0 +1,24 @@
+package org.dorofeev.tictactoe.server.model;
+
+/**
+ * @author Yury Dorofeev
+ * @since 25/09/16
+ */
+public class NewGameResponse {
+    private String gameId;
+
+    public NewGameResponse() {}
+
+    public NewGameResponse(String gameId) {
+        this.gameId = gameId;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    @Override
+    public String toString() {
+        return "gameId: " + gameId;
+    }
+}
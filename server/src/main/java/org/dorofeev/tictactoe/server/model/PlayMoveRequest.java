@@ -0,0 +1,44 @@
+package org.dorofeev.tictactoe.server.model;
+
+/**
+ * The move of the player, the computer replies with the other figure
+ * @author Yury Dorofeev
+ * @since 09/10/16
+ */
+public class PlayMoveRequest {
+    private String gameId;
+    private String figure;
+    private int position;
+
+    public PlayMoveRequest() {}
+
+    public PlayMoveRequest(String gameId, String figure, int position) {
+        this.gameId = gameId;
+        this.figure = figure;
+        this.position = position;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(String gameId) {
+        this.gameId = gameId;
+    }
+
+    public String getFigure() {
+        return figure;
+    }
+
+    public void setFigure(String figure) {
+        this.figure = figure;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+}
@@ -0,0 +1,50 @@
+package org.dorofeev.tictactoe.server.model;
+
+/**
+ * The status after the move of the player and the reply of the computer,
+ * the reply is null if the move ended the game. In a batch the failed
+ * move has only the error
+ * @author Yury Dorofeev
+ * @since 09/10/16
+ */
+public class PlayMoveResponse {
+    private String gameId;
+    private String status;
+    private GameResponse reply;
+    private String error;
+
+    public PlayMoveResponse() {}
+
+    public PlayMoveResponse(String gameId, String status, GameResponse reply) {
+        this.gameId = gameId;
+        this.status = status;
+        this.reply = reply;
+    }
+
+    public static PlayMoveResponse failed(String gameId, String error) {
+        PlayMoveResponse response = new PlayMoveResponse(gameId, null, null);
+        response.error = error;
+        return response;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public GameResponse getReply() {
+        return reply;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "gameId: " + gameId + ", status: " + status + ", reply: " + reply + ", error: " + error;
+    }
+}
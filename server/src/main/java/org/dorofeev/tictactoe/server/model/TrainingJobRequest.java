@@ -0,0 +1,35 @@
+package org.dorofeev.tictactoe.server.model;
+
+/**
+ * Budget of the training job: max number of games, max time (ms) or both,
+ * 0 - no limit
+ * @author Yury Dorofeev
+ * @since 09/10/16
+ */
+public class TrainingJobRequest {
+    private int numberOfGames;
+    private long maxTime;
+
+    public TrainingJobRequest() {}
+
+    public TrainingJobRequest(int numberOfGames, long maxTime) {
+        this.numberOfGames = numberOfGames;
+        this.maxTime = maxTime;
+    }
+
+    public int getNumberOfGames() {
+        return numberOfGames;
+    }
+
+    public void setNumberOfGames(int numberOfGames) {
+        this.numberOfGames = numberOfGames;
+    }
+
+    public long getMaxTime() {
+        return maxTime;
+    }
+
+    public void setMaxTime(long maxTime) {
+        this.maxTime = maxTime;
+    }
+}
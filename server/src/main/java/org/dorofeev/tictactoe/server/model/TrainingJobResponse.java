@@ -0,0 +1,60 @@
+package org.dorofeev.tictactoe.server.model;
+
+/**
+ * Progress of the training job
+ * @author Yury Dorofeev
+ * @since 09/10/16
+ */
+public class TrainingJobResponse {
+    private String jobId;
+    private String state;
+    private long gamesPlayed;
+    private double gamesPerSecond;
+    private long numberOfNodes;
+    private String error;
+
+    public TrainingJobResponse() {}
+
+    public TrainingJobResponse(String jobId, String state, long gamesPlayed, double gamesPerSecond,
+                               long numberOfNodes, String error) {
+        this.jobId = jobId;
+        this.state = state;
+        this.gamesPlayed = gamesPlayed;
+        this.gamesPerSecond = gamesPerSecond;
+        this.numberOfNodes = numberOfNodes;
+        this.error = error;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public double getGamesPerSecond() {
+        return gamesPerSecond;
+    }
+
+    /**
+     * @return number of nodes of the shared tree now
+     */
+    public long getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "jobId: " + jobId + ", state: " + state + ", games: " + gamesPlayed
+                + ", games/sec: " + gamesPerSecond + ", nodes: " + numberOfNodes;
+    }
+}
@@ -0,0 +1,83 @@
+package org.dorofeev.tictactoe.server.service;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ComputeExecutor is the bounded pool of the async endpoints. The servlet
+ * thread only hands the request over and is free again, the moves are made
+ * by a few compute threads. When the queue is full the task fails at once
+ * instead of piling up
+ * @author Yury Dorofeev
+ * @version 2016-10-11
+ */
+@Component
+public class ComputeExecutor {
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public ComputeExecutor(@Value("${tictactoe.compute.threads:0}") int threads,
+                           @Value("${tictactoe.compute.queue-size:1000}") int queueSize) throws TicTacToeException {
+        if(queueSize < 1) {
+            throw new TicTacToeException("queue size is < 1");
+        }
+        int numberOfThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(numberOfThreads, numberOfThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize), new ComputeThreadFactory());
+    }
+
+    /**
+     * @return future of the task result, it fails with the exception of the
+     * task or with TicTacToeException if the pool is busy
+     */
+    public <T> CompletableFuture<T> submit(final Callable<T> task) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        future.complete(task.call());
+                    } catch (Exception e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new TicTacToeException("The server is busy, try again later"));
+        }
+        return future;
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static class ComputeThreadFactory implements ThreadFactory {
+        private final AtomicInteger number = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "compute-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package org.dorofeev.tictactoe.server.service;
+
+import org.dorofeev.tictactoe.core.ConcurrentTree;
+import org.dorofeev.tictactoe.core.Game;
+import org.dorofeev.tictactoe.core.GameBoard;
+import org.dorofeev.tictactoe.core.GameBoardSize;
+import org.dorofeev.tictactoe.core.GameFigure;
+import org.dorofeev.tictactoe.core.GameRegime;
+import org.dorofeev.tictactoe.core.GameStatus;
+import org.dorofeev.tictactoe.core.LearningEngine;
+import org.dorofeev.tictactoe.core.LearningListener;
+import org.dorofeev.tictactoe.core.MappedTree;
+import org.dorofeev.tictactoe.core.MctsEngine;
+import org.dorofeev.tictactoe.core.ParallelMctsEngine;
+import org.dorofeev.tictactoe.core.TreeSnapshot;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * GameService plays the games of all the players. Every player gets a
+ * session with its own game, all the games share one {@link ConcurrentTree},
+ * so the computer learns from every game and can be trained while it plays.
+ * With the engine type {@value #PARALLEL_MCTS} the computer moves by one shared
+ * {@link ParallelMctsEngine} instead of the tree, its search threads are
+ * stopped when the service is destroyed
+ * @author Yury Dorofeev
+ * @version 2016-09-25
+ */
+@Service
+public class GameService {
+    private static final GameBoardSize BOARD_SIZE = GameBoardSize.SMALL;
+    static final String TREE = "tree";
+    static final String PARALLEL_MCTS = "parallel-mcts";
+
+    private final ConcurrentTree tree;
+    private final GameSessionStore sessions;
+    private final int learningThreads;
+    private final Path snapshotFile;
+    private final ParallelMctsEngine moveEngine;  // null if the computer moves by the tree
+
+    @Autowired
+    public GameService(@Value("${tictactoe.session.max-size}") int maxSessions,
+                       @Value("${tictactoe.session.idle-timeout}") long idleTimeout,
+                       @Value("${tictactoe.session.concurrency-level}") int concurrencyLevel,
+                       @Value("${tictactoe.learning.threads:0}") int learningThreads,
+                       @Value("${tictactoe.snapshot.file:}") String snapshotFile,
+                       @Value("${tictactoe.engine.type:tree}") String engineType,
+                       @Value("${tictactoe.engine.threads:0}") int engineThreads,
+                       @Value("${tictactoe.engine.max-time:100}") long engineMaxTime) throws TicTacToeException {
+        this.snapshotFile = snapshotFile.isEmpty() ? null : Paths.get(snapshotFile);
+        this.moveEngine = createMoveEngine(engineType, engineThreads, engineMaxTime);
+        this.tree = loadTree(this.snapshotFile);
+        this.sessions = new GameSessionStore(maxSessions, idleTimeout, concurrencyLevel, Clock.systemUTC());
+        this.learningThreads = learningThreads > 0 ? learningThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @return ID of the new game
+     */
+    public String startNewGame() throws TicTacToeException {
+        String gameId = UUID.randomUUID().toString();
+        Game game = moveEngine == null ? new Game(BOARD_SIZE, GameRegime.BATTLE, tree.newCursor())
+                : new Game(BOARD_SIZE, moveEngine);
+        sessions.put(new GameSession(gameId, game));
+        return gameId;
+    }
+
+    /**
+     * Makes the move at the given position. The figures move in turns, the
+     * first move of a game can be made by either of them
+     * @return status of the game after the move, the game starts again when it is over
+     * @throws TicTacToeException if the game is not found or the move is invalid
+     */
+    public GameStatus makeNewMove(String gameId, GameFigure figure, int position) throws TicTacToeException {
+        GameSession session = getSession(gameId);
+        synchronized (session) {
+            makeMove(session, figure, position);
+            return finishIfOver(session);
+        }
+    }
+
+    /**
+     * Lets the computer make the move
+     * @return the position of the move and the status of the game after it
+     * @throws TicTacToeException if the game is not found or it is not the turn of the figure
+     */
+    public MoveResult makeNewMove(String gameId, GameFigure figure) throws TicTacToeException {
+        GameSession session = getSession(gameId);
+        synchronized (session) {
+            int position = makeMove(session, figure);
+            return new MoveResult(position, finishIfOver(session));
+        }
+    }
+
+    /**
+     * @return status of the game, the result of the finished game until the next move
+     * @throws TicTacToeException if the game is not found
+     */
+    public GameStatus getGameStatus(String gameId) throws TicTacToeException {
+        GameSession session = getSession(gameId);
+        synchronized (session) {
+            GameStatus finishedStatus = session.getFinishedStatus();
+            return finishedStatus != null ? finishedStatus : session.getGame().getGameStatus();
+        }
+    }
+
+    /**
+     * Makes the move at the given position and lets the computer reply with
+     * the other figure, both under one lock of the session
+     * @return the status after the move and the reply, the reply is null if the move ended the game
+     * @throws TicTacToeException if the game is not found or the move is invalid
+     */
+    public PlayResult playMove(String gameId, GameFigure figure, int position) throws TicTacToeException {
+        GameSession session = getSession(gameId);
+        synchronized (session) {
+            makeMove(session, figure, position);
+            GameStatus status = finishIfOver(session);
+            if(status != GameStatus.CONTINUE) {
+                return new PlayResult(status, null);
+            }
+            GameFigure replyFigure = figure == GameFigure.X ? GameFigure.O : GameFigure.X;
+            int replyPosition = makeMove(session, replyFigure);
+            return new PlayResult(status, new MoveResult(replyPosition, finishIfOver(session)));
+        }
+    }
+
+    /**
+     * Trains the shared tree by self-play, the games of the players go on
+     * meanwhile. The listener can pause or stop the training
+     * @return number of games played
+     */
+    public int learn(int numberOfGames, LearningListener listener) throws TicTacToeException {
+        return new LearningEngine(learningThreads).learn(tree, GameRegime.BATTLE, numberOfGames, listener);
+    }
+
+    /**
+     * @return number of nodes of the shared tree
+     */
+    public long getNumberOfNodes() {
+        return tree.getNumberOfNodes();
+    }
+
+    /**
+     * Writes the learned tree to the snapshot file
+     * @return number of the written nodes
+     * @throws TicTacToeException if the snapshot file is not configured or can not be written
+     */
+    public int saveSnapshot() throws TicTacToeException {
+        if(snapshotFile == null) {
+            throw new TicTacToeException("The snapshot file is not configured");
+        }
+        return TreeSnapshot.write(tree.newCursor(), snapshotFile);
+    }
+
+    /**
+     * Saves the snapshot if it is configured and stops the search threads of the move engine
+     */
+    @PreDestroy
+    public void shutdown() throws TicTacToeException {
+        try {
+            if(snapshotFile != null) {
+                System.out.println("..snapshot saved, number of nodes = " + saveSnapshot());
+            }
+        } finally {
+            if(moveEngine != null) {
+                moveEngine.shutdown();
+            }
+        }
+    }
+
+    public int getNumberOfSessions() {
+        return sessions.size();
+    }
+
+    @Scheduled(fixedDelayString = "${tictactoe.session.cleanup-interval}")
+    public void evictExpiredSessions() {
+        int evicted = sessions.evictExpired();
+        if(evicted > 0) {
+            System.out.println("..expired sessions removed: " + evicted);
+        }
+    }
+
+    private static ParallelMctsEngine createMoveEngine(String engineType, int threads, long maxTime)
+            throws TicTacToeException {
+        switch (engineType) {
+            case TREE:
+                return null;
+            case PARALLEL_MCTS:
+                return new ParallelMctsEngine(BOARD_SIZE, threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                        MctsEngine.DEFAULT_MAX_NODES, MctsEngine.DEFAULT_MAX_ITERATIONS, maxTime, new Random());
+            default:
+                throw new TicTacToeException("Unknown engine type: " + engineType);
+        }
+    }
+
+    /**
+     * The snapshot is mapped and copied into the shared tree, the players
+     * extend the tree, so it can not stay read-only
+     */
+    private static ConcurrentTree loadTree(Path snapshotFile) throws TicTacToeException {
+        if(snapshotFile == null || !Files.exists(snapshotFile)) {
+            return new ConcurrentTree(BOARD_SIZE.getValue());
+        }
+        MappedTree snapshot = TreeSnapshot.map(snapshotFile);
+        if(snapshot.getRootMaxChildrenCapacity() != BOARD_SIZE.getValue()) {
+            throw new TicTacToeException("The snapshot does not match the board size " + BOARD_SIZE);
+        }
+        System.out.println("..snapshot loaded, number of nodes = " + snapshot.getNumberOfRecords());
+        return ConcurrentTree.copyOf(snapshot);
+    }
+
+    GameSession getSession(String gameId) throws TicTacToeException {
+        if(gameId == null) {
+            throw new TicTacToeException("gameId parameter is empty");
+        }
+        GameSession session = sessions.get(gameId);
+        if(session == null) {
+            throw new TicTacToeException("Game " + gameId + " is not found or expired");
+        }
+        return session;
+    }
+
+    /**
+     * The move is checked before the game and the shared tree are touched
+     */
+    private static void makeMove(GameSession session, GameFigure figure, int position) throws TicTacToeException {
+        checkTurn(session, figure);
+        GameBoard board = session.getGame().getGameBoard();
+        if(position < 0 || position >= board.getSize()) {
+            throw new TicTacToeException("Invalid position: " + position);
+        }
+        if(board.get(position) != GameFigure.EMPTY) {
+            throw new TicTacToeException("The position " + position + " is already taken");
+        }
+        session.getGame().makeNewMove(figure, position);
+        session.setLastFigure(figure);
+        session.setFinishedStatus(null);
+    }
+
+    private static int makeMove(GameSession session, GameFigure figure) throws TicTacToeException {
+        checkTurn(session, figure);
+        int position = session.getGame().makeNewMove(figure);
+        session.setLastFigure(figure);
+        session.setFinishedStatus(null);
+        return position;
+    }
+
+    private static void checkTurn(GameSession session, GameFigure figure) throws TicTacToeException {
+        if(figure == null || figure == GameFigure.EMPTY) {
+            throw new TicTacToeException("Invalid figure: " + figure);
+        }
+        if(figure == session.getLastFigure()) {
+            throw new TicTacToeException("It is not the turn of " + figure);
+        }
+    }
+
+    private static GameStatus finishIfOver(GameSession session) throws TicTacToeException {
+        Game game = session.getGame();
+        GameStatus status = game.getGameStatus();
+        if(status != GameStatus.CONTINUE) {
+            game.gameOver(status);
+            session.setLastFigure(GameFigure.EMPTY);
+            session.setFinishedStatus(status);
+            System.out.println("..game is over");
+        }
+        return status;
+    }
+
+    public static class MoveResult {
+        private final int position;
+        private final GameStatus status;
+
+        public MoveResult(int position, GameStatus status) {
+            this.position = position;
+            this.status = status;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        public GameStatus getStatus() {
+            return status;
+        }
+    }
+
+    public static class PlayResult {
+        private final GameStatus status;
+        private final MoveResult reply;
+
+        public PlayResult(GameStatus status, MoveResult reply) {
+            this.status = status;
+            this.reply = reply;
+        }
+
+        public GameStatus getStatus() {
+            return status;
+        }
+
+        public MoveResult getReply() {
+            return reply;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.dorofeev.tictactoe.server.service;
+
+import org.dorofeev.tictactoe.core.Game;
+import org.dorofeev.tictactoe.core.GameFigure;
+import org.dorofeev.tictactoe.core.GameStatus;
+
+/**
+ * GameSession is the game of one player. It keeps only the game board and the
+ * cursor of the shared tree (both inside the {@link Game}), the tree itself
+ * is shared by all the sessions
+ * @author Yury Dorofeev
+ * @version 2016-09-25
+ */
+public class GameSession {
+    private final String gameId;
+    private final Game game;
+    private GameFigure lastFigure = GameFigure.EMPTY;  // guarded by the session
+    private GameStatus finishedStatus;                 // guarded by the session
+    private volatile long lastAccessTime;
+
+    public GameSession(String gameId, Game game) {
+        this.gameId = gameId;
+        this.game = game;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    /**
+     * The game is not thread-safe, synchronize on the session to use it
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * @return figure of the last move, EMPTY before the first move of the game
+     */
+    GameFigure getLastFigure() {
+        return lastFigure;
+    }
+
+    void setLastFigure(GameFigure lastFigure) {
+        this.lastFigure = lastFigure;
+    }
+
+    /**
+     * The game starts again as soon as it is over, its result is kept until the next move
+     * @return status of the last finished game or null if a move was made after it
+     */
+    GameStatus getFinishedStatus() {
+        return finishedStatus;
+    }
+
+    void setFinishedStatus(GameStatus finishedStatus) {
+        this.finishedStatus = finishedStatus;
+    }
+
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    void setLastAccessTime(long lastAccessTime) {
+        this.lastAccessTime = lastAccessTime;
+    }
+}
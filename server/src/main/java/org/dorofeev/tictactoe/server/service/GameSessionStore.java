@@ -0,0 +1,137 @@
+package org.dorofeev.tictactoe.server.service;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GameSessionStore keeps the game sessions in memory. The store is split into
+ * segments by the hash of the game ID, every segment is an access-ordered map
+ * with its own lock, so the players do not wait for each other. When a
+ * segment is full the least recently used session is evicted, the sessions
+ * which were not used for the idle timeout are expired
+ * @author Yury Dorofeev
+ * @version 2016-09-25
+ */
+public class GameSessionStore {
+    private final Segment[] segments;
+    private final long idleTimeout;
+    private final Clock clock;
+
+    /**
+     * @param maxSize max number of sessions
+     * @param idleTimeout idle time (ms) after which a session is expired
+     * @param concurrencyLevel number of segments
+     * @param clock source of the access time
+     * @throws TicTacToeException if the size or the concurrency level is < 1
+     */
+    public GameSessionStore(int maxSize, long idleTimeout, int concurrencyLevel, Clock clock) throws TicTacToeException {
+        if(maxSize < 1) {
+            throw new TicTacToeException("max size is < 1");
+        }
+        if(concurrencyLevel < 1) {
+            throw new TicTacToeException("concurrency level is < 1");
+        }
+        int numberOfSegments = Math.min(concurrencyLevel, maxSize);
+        segments = new Segment[numberOfSegments];
+        for(int i = 0; i < numberOfSegments; i++) {
+            // the first segments take the remainder, so the sizes sum up to maxSize
+            segments[i] = new Segment(maxSize / numberOfSegments + (i < maxSize % numberOfSegments ? 1 : 0));
+        }
+        this.idleTimeout = idleTimeout;
+        this.clock = clock;
+    }
+
+    public void put(GameSession session) {
+        Segment segment = segmentFor(session.getGameId());
+        session.setLastAccessTime(clock.millis());
+        synchronized (segment) {
+            segment.put(session.getGameId(), session);
+        }
+    }
+
+    /**
+     * @return the session with the given ID or null if it is not found or expired
+     */
+    public GameSession get(String gameId) {
+        Segment segment = segmentFor(gameId);
+        long now = clock.millis();
+        synchronized (segment) {
+            GameSession session = segment.get(gameId);
+            if(session == null) {
+                return null;
+            }
+            if(isExpired(session, now)) {
+                segment.remove(gameId);
+                return null;
+            }
+            session.setLastAccessTime(now);
+            return session;
+        }
+    }
+
+    public GameSession remove(String gameId) {
+        Segment segment = segmentFor(gameId);
+        synchronized (segment) {
+            return segment.remove(gameId);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for(Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all the expired sessions
+     * @return number of removed sessions
+     */
+    public int evictExpired() {
+        long now = clock.millis();
+        int evicted = 0;
+        for(Segment segment : segments) {
+            synchronized (segment) {
+                // sessions are in the access order, the expired ones are at the beginning
+                Iterator<GameSession> iterator = segment.values().iterator();
+                while(iterator.hasNext() && isExpired(iterator.next(), now)) {
+                    iterator.remove();
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    private boolean isExpired(GameSession session, long now) {
+        return now - session.getLastAccessTime() >= idleTimeout;
+    }
+
+    private Segment segmentFor(String gameId) {
+        int hash = gameId.hashCode();
+        hash ^= hash >>> 16;
+        return segments[(hash & Integer.MAX_VALUE) % segments.length];
+    }
+
+    private static class Segment extends LinkedHashMap<String, GameSession> {
+        private static final long serialVersionUID = 1L;
+        private final int maxSize;
+
+        Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, GameSession> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package org.dorofeev.tictactoe.server.service;
+
+import org.dorofeev.tictactoe.core.LearningListener;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TrainingJob is one run of self-play learning in the background. The job
+ * has a budget of games, of time (ms) or both, it can be paused, resumed and
+ * cancelled between the games. The time of the pauses is not counted
+ * @author Yury Dorofeev
+ * @version 2016-10-09
+ */
+public class TrainingJob implements LearningListener {
+    public enum State {
+        QUEUED,
+        RUNNING,
+        PAUSED,
+        DONE,
+        CANCELLED,
+        FAILED
+    }
+
+    private final String jobId;
+    private final int numberOfGames;
+    private final long maxTime;
+    private final Clock clock;
+    private final AtomicLong gamesPlayed = new AtomicLong();
+
+    private volatile boolean paused;
+    private volatile boolean cancelled;
+    private volatile State finalState;
+    private volatile String error;
+    private volatile long deadline = Long.MAX_VALUE;
+    private long startTime = -1;
+    private long endTime = -1;
+    private long pauseTime = -1;
+    private long pausedTime;
+
+    /**
+     * @param numberOfGames max number of games
+     * @param maxTime max learning time (ms), 0 - no limit
+     */
+    public TrainingJob(String jobId, int numberOfGames, long maxTime, Clock clock) {
+        this.jobId = jobId;
+        this.numberOfGames = numberOfGames;
+        this.maxTime = maxTime;
+        this.clock = clock;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public int getNumberOfGames() {
+        return numberOfGames;
+    }
+
+    public long getMaxTime() {
+        return maxTime;
+    }
+
+    public long getGamesPlayed() {
+        return gamesPlayed.get();
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public synchronized State getState() {
+        if(finalState != null) {
+            return finalState;
+        }
+        if(paused) {
+            return State.PAUSED;
+        }
+        return startTime < 0 ? State.QUEUED : State.RUNNING;
+    }
+
+    public boolean isFinished() {
+        return finalState != null;
+    }
+
+    /**
+     * @return learning time (ms) without the pauses
+     */
+    public synchronized long getActiveTime() {
+        if(startTime < 0) {
+            return 0;
+        }
+        long now = endTime < 0 ? clock.millis() : endTime;
+        long paused = pauseTime < 0 ? pausedTime : pausedTime + now - pauseTime;
+        return now - startTime - paused;
+    }
+
+    public double getGamesPerSecond() {
+        long activeTime = getActiveTime();
+        return activeTime == 0 ? 0 : getGamesPlayed() * 1000.0 / activeTime;
+    }
+
+    /**
+     * @return false if the job is already finished
+     */
+    public synchronized boolean pause() {
+        if(isFinished()) {
+            return false;
+        }
+        if(!paused) {
+            paused = true;
+            if(startTime >= 0) {
+                pauseTime = clock.millis();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return false if the job is already finished
+     */
+    public synchronized boolean resume() {
+        if(isFinished()) {
+            return false;
+        }
+        if(paused) {
+            paused = false;
+            if(pauseTime >= 0) {
+                long pause = clock.millis() - pauseTime;
+                pausedTime += pause;
+                pauseTime = -1;
+                if(deadline != Long.MAX_VALUE) {
+                    deadline += pause;
+                }
+            }
+            notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * The job stops before the next game
+     * @return false if the job is already finished
+     */
+    public synchronized boolean cancel() {
+        if(isFinished()) {
+            return false;
+        }
+        cancelled = true;
+        notifyAll();
+        return true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    synchronized void started() {
+        startTime = clock.millis();
+        if(maxTime > 0) {
+            deadline = startTime + maxTime;
+        }
+        if(paused) {
+            pauseTime = startTime;
+        }
+    }
+
+    synchronized void finished(String error) {
+        if(pauseTime >= 0) {
+            pausedTime += clock.millis() - pauseTime;
+            pauseTime = -1;
+        }
+        paused = false;
+        endTime = clock.millis();
+        this.error = error;
+        // a cancelled job can also be interrupted, e.g. on shutdown
+        if(cancelled) {
+            finalState = State.CANCELLED;
+        } else {
+            finalState = error != null ? State.FAILED : State.DONE;
+        }
+    }
+
+    /**
+     * The workers take the lock only while the job is paused or cancelled
+     */
+    @Override
+    public boolean beforeGame() throws InterruptedException {
+        if(paused || cancelled) {
+            synchronized (this) {
+                while(paused && !cancelled) {
+                    wait();
+                }
+            }
+        }
+        return !cancelled && clock.millis() < deadline;
+    }
+
+    @Override
+    public void gamePlayed() {
+        gamesPlayed.incrementAndGet();
+    }
+}
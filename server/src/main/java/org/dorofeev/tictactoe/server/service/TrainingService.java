@@ -0,0 +1,158 @@
+package org.dorofeev.tictactoe.server.service;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TrainingService runs the training jobs on its own executor, so the
+ * learning never takes the threads serving the players. The jobs are kept
+ * in the order of submitting, the oldest finished jobs are removed when
+ * there are too many of them
+ * @author Yury Dorofeev
+ * @version 2016-10-09
+ */
+@Service
+public class TrainingService {
+    private final GameService gameService;
+    private final ExecutorService executor;
+    private final int maxJobs;
+    private final Clock clock;
+    private final Map<String, TrainingJob> jobs = new LinkedHashMap<>();
+
+    @Autowired
+    public TrainingService(GameService gameService,
+                           @Value("${tictactoe.training.threads:1}") int threads,
+                           @Value("${tictactoe.training.max-jobs:100}") int maxJobs) throws TicTacToeException {
+        this(gameService, threads, maxJobs, Clock.systemUTC());
+    }
+
+    public TrainingService(GameService gameService, int threads, int maxJobs, Clock clock) throws TicTacToeException {
+        if(threads < 1) {
+            throw new TicTacToeException("number of threads is < 1");
+        }
+        if(maxJobs < 1) {
+            throw new TicTacToeException("max number of jobs is < 1");
+        }
+        this.gameService = gameService;
+        this.executor = Executors.newFixedThreadPool(threads, new TrainingThreadFactory());
+        this.maxJobs = maxJobs;
+        this.clock = clock;
+    }
+
+    /**
+     * @param numberOfGames max number of games, 0 - no limit
+     * @param maxTime max learning time (ms), 0 - no limit
+     * @return the queued job
+     * @throws TicTacToeException if the job has no budget or there are too many running jobs
+     */
+    public TrainingJob submit(int numberOfGames, long maxTime) throws TicTacToeException {
+        if(numberOfGames < 0 || maxTime < 0) {
+            throw new TicTacToeException("The budget of the training job is < 0");
+        }
+        if(numberOfGames == 0 && maxTime == 0) {
+            throw new TicTacToeException("The training job needs a number of games or a time budget");
+        }
+        final TrainingJob job = new TrainingJob(UUID.randomUUID().toString(),
+                numberOfGames == 0 ? Integer.MAX_VALUE : numberOfGames, maxTime, clock);
+        synchronized (jobs) {
+            removeFinishedJobs();
+            if(jobs.size() >= maxJobs) {
+                throw new TicTacToeException("There are " + jobs.size() + " training jobs, wait for them to finish");
+            }
+            jobs.put(job.getJobId(), job);
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                runJob(job);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * @throws TicTacToeException if the job is not found
+     */
+    public TrainingJob getJob(String jobId) throws TicTacToeException {
+        TrainingJob job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if(job == null) {
+            throw new TicTacToeException("Training job " + jobId + " is not found");
+        }
+        return job;
+    }
+
+    public List<TrainingJob> getJobs() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+
+    public long getNumberOfNodes() {
+        return gameService.getNumberOfNodes();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for(TrainingJob job : getJobs()) {
+            job.cancel();
+        }
+        executor.shutdownNow();
+    }
+
+    private void runJob(TrainingJob job) {
+        if(job.isCancelled()) {
+            job.finished(null);
+            return;
+        }
+        job.started();
+        System.out.println("..training job started: " + job.getJobId());
+        String error = null;
+        try {
+            gameService.learn(job.getNumberOfGames(), job);
+        } catch (TicTacToeException | RuntimeException e) {
+            error = e.getMessage() == null ? e.toString() : e.getMessage();
+        }
+        job.finished(error);
+        System.out.println("..training job " + job.getJobId() + " is " + job.getState()
+                + ", number of games = " + job.getGamesPlayed() + (error == null ? "" : ", error: " + error));
+    }
+
+    private void removeFinishedJobs() {
+        Collection<TrainingJob> values = jobs.values();
+        for(Iterator<TrainingJob> iterator = values.iterator(); iterator.hasNext() && jobs.size() >= maxJobs; ) {
+            if(iterator.next().isFinished()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static class TrainingThreadFactory implements ThreadFactory {
+        private final AtomicInteger number = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "training-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
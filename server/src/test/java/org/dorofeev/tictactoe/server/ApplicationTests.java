@@ -1,14 +1,43 @@
 package org.dorofeev.tictactoe.server;
 
+import org.dorofeev.tictactoe.server.controller.MoveMessageConverter;
+import org.dorofeev.tictactoe.server.model.BatchMoveRequest;
+import org.dorofeev.tictactoe.server.model.BatchMoveResponse;
 import org.dorofeev.tictactoe.server.model.GameResponse;
 import org.dorofeev.tictactoe.server.model.GameStatus;
 import org.dorofeev.tictactoe.server.model.MakeMoveRequest;
+import org.dorofeev.tictactoe.server.model.NewGameResponse;
+import org.dorofeev.tictactoe.server.model.PlayMoveRequest;
+import org.dorofeev.tictactoe.server.model.PlayMoveResponse;
+import org.dorofeev.tictactoe.server.model.TrainingJobRequest;
+import org.dorofeev.tictactoe.server.model.TrainingJobResponse;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.embedded.LocalServerPort;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
+import javax.websocket.ClientEndpointConfig;
+import javax.websocket.ContainerProvider;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.MessageHandler;
+import javax.websocket.Session;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.*;
 
 
@@ -19,21 +48,27 @@ public class ApplicationTests {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @LocalServerPort
+    private int port;
+
     @Test
     public void testStartNewGame() {
-        String response = restTemplate.postForObject("/startNewGame", null, String.class);
-        assertThat(response).isNull();
+        NewGameResponse first = restTemplate.postForObject("/tictactoe/startNewGame", null, NewGameResponse.class);
+        NewGameResponse second = restTemplate.postForObject("/tictactoe/startNewGame", null, NewGameResponse.class);
+        assertThat(first.getGameId()).isNotEmpty();
+        assertThat(second.getGameId()).isNotEqualTo(first.getGameId());
     }
 
     @Test
     public void testMakeNewMoveWithPositionPostRequestOk() {
-        restTemplate.postForObject("/startNewGame", null, String.class);
+        NewGameResponse game = restTemplate.postForObject("/tictactoe/startNewGame", null, NewGameResponse.class);
 
         MakeMoveRequest request = new MakeMoveRequest();
+        request.setGameId(game.getGameId());
         request.setFigure("X");
         request.setPosition("0");
 
-        GameResponse response = restTemplate.postForObject("/makeNewMoveWithPosition", request, GameResponse.class);
+        GameResponse response = restTemplate.postForObject("/tictactoe/makeNewMoveWithPosition", request, GameResponse.class);
         assertThat(response)
                 .extracting("status")
                 .contains(GameStatus.CONTINUE.name());
@@ -43,28 +78,36 @@ public class ApplicationTests {
     public void testMakeNewMoveWithPositionPostRequestError() {
         MakeMoveRequest request = null;
 
-        String response = restTemplate.postForObject("/makeNewMoveWithPosition", request, String.class);
+        String response = restTemplate.postForObject("/tictactoe/makeNewMoveWithPosition", request, String.class);
         assertThat(response)
                 .contains("Unsupported Media Type")
                 .contains("415")
                 .contains("error");
         request = new MakeMoveRequest();
-        response = restTemplate.postForObject("/makeNewMoveWithPosition", request, String.class);
+        response = restTemplate.postForObject("/tictactoe/makeNewMoveWithPosition", request, String.class);
         assertThat(response)
                 .contains("Internal Server Error")
                 .contains("500")
                 .contains("figure parameter is empty")
                 .contains("error");
+        request.setFigure("X");
+        request.setPosition("0");
+        request.setGameId("unknown");
+        response = restTemplate.postForObject("/tictactoe/makeNewMoveWithPosition", request, String.class);
+        assertThat(response)
+                .contains("500")
+                .contains("Game unknown is not found or expired");
     }
 
     @Test
     public void testMakeNewMovePostRequestOk() {
-        restTemplate.postForObject("/startNewGame", null, String.class);
+        NewGameResponse game = restTemplate.postForObject("/tictactoe/startNewGame", null, NewGameResponse.class);
 
         MakeMoveRequest request = new MakeMoveRequest();
+        request.setGameId(game.getGameId());
         request.setFigure("O");
 
-        GameResponse response = restTemplate.postForObject("/makeNewMove", request, GameResponse.class);
+        GameResponse response = restTemplate.postForObject("/tictactoe/makeNewMove", request, GameResponse.class);
         assertThat(response)
                 .extracting("status")
                 .contains(GameStatus.CONTINUE.name());
@@ -73,10 +116,280 @@ public class ApplicationTests {
                 .contains("0");
     }
 
+    @Test
+    public void testPlayMove() {
+        NewGameResponse game = restTemplate.postForObject("/tictactoe/startNewGame", null, NewGameResponse.class);
+
+        PlayMoveRequest request = new PlayMoveRequest(game.getGameId(), "X", 4);
+        PlayMoveResponse response = restTemplate.postForObject("/tictactoe/playMove", request, PlayMoveResponse.class);
+        assertThat(response.getStatus()).isEqualTo(GameStatus.CONTINUE.name());
+        assertThat(response.getReply().getStatus()).isEqualTo(GameStatus.CONTINUE.name());
+        assertThat(response.getReply().getPosition()).isNotEqualTo("4");
+        assertThat(response.getError()).isNull();
+    }
+
+    @Test
+    public void testPlayMoves() {
+        NewGameResponse first = restTemplate.postForObject("/tictactoe/startNewGame", null, NewGameResponse.class);
+        NewGameResponse second = restTemplate.postForObject("/tictactoe/startNewGame", null, NewGameResponse.class);
+
+        BatchMoveRequest request = new BatchMoveRequest(Arrays.asList(
+                new PlayMoveRequest(first.getGameId(), "X", 0),
+                new PlayMoveRequest("unknown", "X", 0),
+                new PlayMoveRequest(second.getGameId(), "X", 99),
+                new PlayMoveRequest(second.getGameId(), "O", 8)));
+        BatchMoveResponse response = restTemplate.postForObject("/tictactoe/playMoves", request, BatchMoveResponse.class);
+        assertThat(response.getResults()).hasSize(4);
+        assertThat(response.getResults().get(0).getGameId()).isEqualTo(first.getGameId());
+        assertThat(response.getResults().get(0).getReply()).isNotNull();
+        assertThat(response.getResults().get(1).getError()).isEqualTo("Game unknown is not found or expired");
+        assertThat(response.getResults().get(2).getError()).isEqualTo("Invalid position: 99");
+        assertThat(response.getResults().get(3).getStatus()).isEqualTo(GameStatus.CONTINUE.name());
+        assertThat(response.getResults().get(3).getReply().getPosition()).isNotEqualTo("8");
+    }
+
+    @Test
+    public void testBinaryMoves() {
+        NewGameResponse game = restTemplate.postForObject("/tictactoe/startNewGame", null, NewGameResponse.class);
+        byte[] gameId = game.getGameId().getBytes(StandardCharsets.US_ASCII);
+
+        // X at 4, the computer replies with O
+        ResponseEntity<byte[]> played = postBinary("/tictactoe/playMove", move(0, 4, gameId));
+        assertThat(played.getHeaders().getContentType()).isEqualTo(MoveMessageConverter.MEDIA_TYPE);
+        byte[] body = played.getBody();
+        assertThat(body[0]).isEqualTo((byte) GameStatus.CONTINUE.ordinal());
+        assertThat(body[1]).isEqualTo((byte) GameStatus.CONTINUE.ordinal());
+        assertThat(body).hasSize(3);
+        assertThat(body[2]).isNotEqualTo((byte) 4);
+
+        int position = body[2] == 0 ? 8 : 0;
+        body = postBinary("/tictactoe/makeNewMoveWithPosition", move(0, position, gameId)).getBody();
+        assertThat(body).containsExactly((byte) GameStatus.CONTINUE.ordinal(), (byte) position);
+
+        body = postBinary("/tictactoe/async/makeNewMove", move(1, MoveMessageConverter.NONE, gameId)).getBody();
+        assertThat(body).hasSize(2);
+        assertThat(body[1]).isNotEqualTo((byte) MoveMessageConverter.NONE);
+
+        // X plays the first empty cell until the game is over
+        boolean[] taken = new boolean[9];
+        taken[4] = true;
+        taken[played.getBody()[2]] = true;
+        taken[position] = true;
+        taken[body[1]] = true;
+        byte status = body[0];
+        while(status == (byte) GameStatus.CONTINUE.ordinal()) {
+            position = 0;
+            while(taken[position]) {
+                position++;
+            }
+            taken[position] = true;
+            body = postBinary("/tictactoe/playMove", move(0, position, gameId)).getBody();
+            status = body[0];
+            if(status == (byte) GameStatus.CONTINUE.ordinal()) {
+                status = body[1];
+                taken[body[2]] = true;
+            }
+        }
+
+        // JSON stays the default, the result is kept until the next move
+        GameResponse response = restTemplate.getForObject("/tictactoe/gameStatus/" + game.getGameId(), GameResponse.class);
+        assertThat(response.getStatus()).isEqualTo(GameStatus.values()[status].name());
+        assertThat(response.getStatus()).isNotEqualTo(GameStatus.CONTINUE.name());
+    }
+
+    @Test
+    public void testBinaryMoveError() {
+        ResponseEntity<byte[]> response = postBinary("/tictactoe/playMove", new byte[] {0});
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MoveMessageConverter.MEDIA_TYPE);
+        assertThat(response.getBody()[0]).isEqualTo((byte) MoveMessageConverter.NONE);
+        response = postBinary("/tictactoe/playMove", move(2, 0, new byte[0]));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        response = postBinary("/tictactoe/async/playMove", move(0, 0, "unknown".getBytes(StandardCharsets.US_ASCII)));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        byte[] body = response.getBody();
+        assertThat(body[0]).isEqualTo((byte) MoveMessageConverter.NONE);
+        assertThat(new String(body, 1, body.length - 1, StandardCharsets.UTF_8))
+                .isEqualTo("Game unknown is not found or expired");
+        response = postBinary("/tictactoe/makeNewMoveWithPosition", move(0, MoveMessageConverter.NONE, new byte[0]));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        body = response.getBody();
+        assertThat(new String(body, 1, body.length - 1, StandardCharsets.UTF_8)).isEqualTo("position parameter is empty");
+    }
+
+    @Test
+    public void testJsonErrorWithAnyAccept() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(MediaType.ALL));
+        ResponseEntity<String> response = restTemplate.exchange("/tictactoe/gameStatus/unknown", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(response.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(response.getBody()).contains("Game unknown is not found or expired");
+
+        MakeMoveRequest request = new MakeMoveRequest();
+        request.setGameId("unknown");
+        request.setFigure("X");
+        response = restTemplate.exchange("/tictactoe/makeNewMove", HttpMethod.POST,
+                new HttpEntity<>(request, headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(response.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(response.getBody()).contains("Game unknown is not found or expired");
+    }
+
+    private static byte[] move(int figure, int position, byte[] gameId) {
+        byte[] move = new byte[2 + gameId.length];
+        move[0] = (byte) figure;
+        move[1] = (byte) position;
+        System.arraycopy(gameId, 0, move, 2, gameId.length);
+        return move;
+    }
+
+    private ResponseEntity<byte[]> postBinary(String url, byte[] move) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MoveMessageConverter.MEDIA_TYPE);
+        headers.setAccept(Collections.singletonList(MoveMessageConverter.MEDIA_TYPE));
+        return restTemplate.postForEntity(url, new HttpEntity<>(move, headers), byte[].class);
+    }
+
+    @Test
+    public void testAsyncGame() {
+        NewGameResponse game = restTemplate.postForObject("/tictactoe/async/startNewGame", null, NewGameResponse.class);
+        assertThat(game.getGameId()).isNotEmpty();
+
+        MakeMoveRequest request = new MakeMoveRequest();
+        request.setGameId(game.getGameId());
+        request.setFigure("X");
+        request.setPosition("4");
+        GameResponse response = restTemplate.postForObject("/tictactoe/async/makeNewMoveWithPosition", request, GameResponse.class);
+        assertThat(response.getStatus()).isEqualTo(GameStatus.CONTINUE.name());
+
+        request.setFigure("O");
+        response = restTemplate.postForObject("/tictactoe/async/makeNewMove", request, GameResponse.class);
+        assertThat(response.getPosition()).isNotEqualTo("4");
+
+        PlayMoveResponse played = restTemplate.postForObject("/tictactoe/async/playMove",
+                new PlayMoveRequest(game.getGameId(), "X", Integer.valueOf(response.getPosition()) == 0 ? 8 : 0),
+                PlayMoveResponse.class);
+        assertThat(played.getStatus()).isEqualTo(GameStatus.CONTINUE.name());
+
+        response = restTemplate.getForObject("/tictactoe/async/gameStatus/" + game.getGameId(), GameResponse.class);
+        assertThat(response.getStatus()).isEqualTo(GameStatus.CONTINUE.name());
+    }
+
+    @Test
+    public void testAsyncGameError() {
+        String response = restTemplate.getForObject("/tictactoe/async/gameStatus/unknown", String.class);
+        assertThat(response)
+                .contains("500")
+                .contains("Game unknown is not found or expired");
+        response = restTemplate.getForObject("/tictactoe/gameStatus/unknown", String.class);
+        assertThat(response)
+                .contains("500")
+                .contains("Game unknown is not found or expired");
+    }
+
+    @Test
+    public void testGameSocket() throws Exception {
+        final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        Session session = connectGameSocket("", frames);
+        try {
+            String gameId = frames.poll(5, TimeUnit.SECONDS);
+            assertThat(gameId).startsWith("GAME ");
+
+            session.getBasicRemote().sendText("X 4");
+            assertThat(frames.poll(5, TimeUnit.SECONDS)).isEqualTo("X 4 CONTINUE");
+            String reply = frames.poll(5, TimeUnit.SECONDS);
+            assertThat(reply).startsWith("O ").endsWith(" CONTINUE");
+
+            session.getBasicRemote().sendText("X a");
+            assertThat(frames.poll(5, TimeUnit.SECONDS)).startsWith("ERROR ");
+            session.getBasicRemote().sendText("Z 1");
+            assertThat(frames.poll(5, TimeUnit.SECONDS)).isEqualTo("ERROR figure parameter is invalid: Z");
+
+            GameResponse status = restTemplate.getForObject("/tictactoe/gameStatus/" + gameId.substring(5), GameResponse.class);
+            assertThat(status.getStatus()).isEqualTo(GameStatus.CONTINUE.name());
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    public void testGameSocketUnknownGame() throws Exception {
+        final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        Session session = connectGameSocket("?gameId=unknown", frames);
+        for(int i = 0; i < 100 && session.isOpen(); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(session.isOpen()).isFalse();
+        assertThat(frames).isEmpty();
+    }
+
+    private Session connectGameSocket(String query, final BlockingQueue<String> frames) throws Exception {
+        return ContainerProvider.getWebSocketContainer().connectToServer(new Endpoint() {
+            @Override
+            public void onOpen(Session session, EndpointConfig config) {
+                session.addMessageHandler(new MessageHandler.Whole<String>() {
+                    @Override
+                    public void onMessage(String frame) {
+                        frames.add(frame);
+                    }
+                });
+            }
+        }, ClientEndpointConfig.Builder.create().build(), URI.create("ws://localhost:" + port + "/tictactoe/ws/game" + query));
+    }
+
     @Test
     public void testMakeSmart() {
-        String response = restTemplate.postForObject("/makeComputerSmart", null, String.class);
-        assertThat(response).isNull();
+        TrainingJobResponse response = restTemplate.postForObject("/tictactoe/makeComputerSmart", null, TrainingJobResponse.class);
+        assertThat(response.getJobId()).isNotEmpty();
+        restTemplate.postForObject("/tictactoe/training/jobs/" + response.getJobId() + "/cancel", null, TrainingJobResponse.class);
+    }
+
+    @Test
+    public void testTrainingJob() throws InterruptedException {
+        TrainingJobResponse job = restTemplate.postForObject("/tictactoe/training/jobs",
+                new TrainingJobRequest(200, 0), TrainingJobResponse.class);
+        assertThat(job.getJobId()).isNotEmpty();
+
+        TrainingJobResponse progress = job;
+        for(int i = 0; i < 600 && !progress.getState().equals("DONE"); i++) {
+            Thread.sleep(50);
+            progress = restTemplate.getForObject("/tictactoe/training/jobs/" + job.getJobId(), TrainingJobResponse.class);
+        }
+        assertThat(progress.getState()).isEqualTo("DONE");
+        assertThat(progress.getGamesPlayed()).isEqualTo(200);
+        assertThat(progress.getNumberOfNodes()).isGreaterThan(0);
+
+        String response = restTemplate.postForObject("/tictactoe/training/jobs/" + job.getJobId() + "/pause", null, String.class);
+        assertThat(response)
+                .contains("500")
+                .contains("is already finished");
+    }
+
+    @Test
+    public void testTrainingJobCancel() {
+        TrainingJobResponse job = restTemplate.postForObject("/tictactoe/training/jobs",
+                new TrainingJobRequest(0, 60000), TrainingJobResponse.class);
+        TrainingJobResponse paused = restTemplate.postForObject("/tictactoe/training/jobs/" + job.getJobId() + "/pause",
+                null, TrainingJobResponse.class);
+        assertThat(paused.getState()).isIn("PAUSED", "DONE");
+        restTemplate.postForObject("/tictactoe/training/jobs/" + job.getJobId() + "/cancel", null, TrainingJobResponse.class);
+
+        String response = restTemplate.getForObject("/tictactoe/training/jobs/unknown", String.class);
+        assertThat(response)
+                .contains("500")
+                .contains("Training job unknown is not found");
+        response = restTemplate.postForObject("/tictactoe/training/jobs", new TrainingJobRequest(), String.class);
+        assertThat(response)
+                .contains("The training job needs a number of games or a time budget");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSaveSnapshotNotConfigured() {
+        String response = restTemplate.postForObject("/tictactoe/saveSnapshot", null, String.class);
+        assertThat(response)
+                .contains("500")
+                .contains("The snapshot file is not configured");
+    }
+}
@@ -0,0 +1,45 @@
+package org.dorofeev.tictactoe.server.controller;
+
+import org.dorofeev.tictactoe.core.GameFigure;
+import org.dorofeev.tictactoe.core.GameStatus;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.dorofeev.tictactoe.server.model.BatchMoveRequest;
+import org.dorofeev.tictactoe.server.model.BatchMoveResponse;
+import org.dorofeev.tictactoe.server.model.PlayMoveRequest;
+import org.dorofeev.tictactoe.server.service.GameService;
+import org.dorofeev.tictactoe.server.service.TrainingService;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Yury Dorofeev
+ * @since 15/10/16
+ */
+public class ControllerGameTest {
+
+    @Test
+    public void unexpectedErrorDoesNotFailBatch() throws TicTacToeException {
+        GameService gameService = mock(GameService.class);
+        GameService.PlayResult played = new GameService.PlayResult(GameStatus.CONTINUE,
+                new GameService.MoveResult(0, GameStatus.CONTINUE));
+        when(gameService.playMove("1", GameFigure.X, 4)).thenReturn(played);
+        when(gameService.playMove("2", GameFigure.X, 4)).thenThrow(new IllegalStateException("broken"));
+        when(gameService.playMove("3", GameFigure.X, 4)).thenReturn(played);
+        ControllerGame controller = new ControllerGame(gameService, mock(TrainingService.class));
+
+        BatchMoveResponse response = controller.playMoves(new BatchMoveRequest(Arrays.asList(
+                new PlayMoveRequest("1", "X", 4),
+                new PlayMoveRequest("2", "X", 4),
+                new PlayMoveRequest("3", "X", 4))));
+        assertEquals(3, response.getResults().size());
+        assertNull(response.getResults().get(0).getError());
+        assertEquals("2", response.getResults().get(1).getGameId());
+        assertEquals("java.lang.IllegalStateException: broken", response.getResults().get(1).getError());
+        assertNull(response.getResults().get(2).getError());
+        assertEquals("0", response.getResults().get(2).getReply().getPosition());
+    }
+}
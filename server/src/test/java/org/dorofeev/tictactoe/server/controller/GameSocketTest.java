@@ -0,0 +1,45 @@
+package org.dorofeev.tictactoe.server.controller;
+
+import org.dorofeev.tictactoe.core.GameFigure;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.dorofeev.tictactoe.server.service.GameService;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.websocket.CloseReason;
+import javax.websocket.MessageHandler;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Yury Dorofeev
+ * @since 15/10/16
+ */
+public class GameSocketTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void unexpectedErrorIsSentBack() throws TicTacToeException, IOException {
+        GameService gameService = mock(GameService.class);
+        when(gameService.startNewGame()).thenReturn("1");
+        when(gameService.playMove("1", GameFigure.X, 4)).thenThrow(new IllegalStateException("broken"));
+        Session session = mock(Session.class);
+        RemoteEndpoint.Basic remote = mock(RemoteEndpoint.Basic.class);
+        when(session.getBasicRemote()).thenReturn(remote);
+        when(session.getRequestParameterMap()).thenReturn(Collections.<String, List<String>>emptyMap());
+
+        new GameSocket(gameService).onOpen(session, null);
+        ArgumentCaptor<MessageHandler> handler = ArgumentCaptor.forClass(MessageHandler.class);
+        verify(session).addMessageHandler(handler.capture());
+        ((MessageHandler.Whole<String>) handler.getValue()).onMessage("X 4");
+
+        verify(remote).sendText("GAME 1");
+        verify(remote).sendText("ERROR java.lang.IllegalStateException: broken");
+        verify(session, never()).close(any(CloseReason.class));
+    }
+}
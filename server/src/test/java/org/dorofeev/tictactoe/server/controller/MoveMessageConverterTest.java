@@ -0,0 +1,32 @@
+package org.dorofeev.tictactoe.server.controller;
+
+import org.dorofeev.tictactoe.core.GameStatus;
+import org.dorofeev.tictactoe.server.service.GameService;
+import org.junit.Test;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @since 15/10/16
+ */
+public class MoveMessageConverterTest {
+    private final MoveMessageConverter converter = new MoveMessageConverter();
+
+    @Test
+    public void writeMoveResult() throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(new GameService.MoveResult(254, GameStatus.DRAW), MoveMessageConverter.MEDIA_TYPE, message);
+        assertArrayEquals(new byte[] {1, (byte) 254}, message.getBodyAsBytes());
+    }
+
+    @Test(expected = HttpMessageNotWritableException.class)
+    public void positionDoesNotFitError() throws IOException {
+        converter.write(new GameService.MoveResult(MoveMessageConverter.NONE, GameStatus.CONTINUE),
+                MoveMessageConverter.MEDIA_TYPE, new MockHttpOutputMessage());
+    }
+}
@@ -0,0 +1,97 @@
+package org.dorofeev.tictactoe.server.service;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-10-11
+ */
+public class ComputeExecutorTest {
+    @Rule
+    public ExpectedException expectException = ExpectedException.none();
+
+    @Test
+    public void result() throws Exception {
+        ComputeExecutor executor = new ComputeExecutor(1, 1);
+        try {
+            assertEquals("done", executor.submit(new Callable<String>() {
+                @Override
+                public String call() {
+                    return "done";
+                }
+            }).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void exceptionOfTheTask() throws Exception {
+        ComputeExecutor executor = new ComputeExecutor(1, 1);
+        try {
+            executor.submit(new Callable<String>() {
+                @Override
+                public String call() throws TicTacToeException {
+                    throw new TicTacToeException("Game 1 is not found or expired");
+                }
+            }).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TicTacToeException);
+            assertEquals("Game 1 is not found or expired", e.getCause().getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void busy() throws Exception {
+        ComputeExecutor executor = new ComputeExecutor(1, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Callable<String> blocked = new Callable<String>() {
+            @Override
+            public String call() throws InterruptedException {
+                release.await();
+                return "done";
+            }
+        };
+        try {
+            CompletableFuture<String> running = executor.submit(blocked);
+            CompletableFuture<String> queued = executor.submit(blocked);
+            while(executor.getQueueSize() == 0 && !running.isDone()) {
+                Thread.sleep(1);
+            }
+            CompletableFuture<String> rejected = executor.submit(blocked);
+            assertTrue(rejected.isCompletedExceptionally());
+            try {
+                rejected.get();
+                fail();
+            } catch (ExecutionException e) {
+                assertEquals("The server is busy, try again later", e.getCause().getMessage());
+            }
+            release.countDown();
+            assertEquals("done", running.get());
+            assertEquals("done", queued.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void queueSizeError() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("queue size is < 1");
+
+        new ComputeExecutor(1, 0);
+    }
+}
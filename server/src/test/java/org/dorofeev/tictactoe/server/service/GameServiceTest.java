@@ -0,0 +1,129 @@
+package org.dorofeev.tictactoe.server.service;
+
+import org.dorofeev.tictactoe.core.GameBoard;
+import org.dorofeev.tictactoe.core.GameFigure;
+import org.dorofeev.tictactoe.core.GameStatus;
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-10-15
+ */
+public class GameServiceTest {
+
+    @Test
+    public void parallelMctsEngine() throws TicTacToeException {
+        GameService gameService = newGameService(GameService.PARALLEL_MCTS);
+        String gameId = gameService.startNewGame();
+        assertEquals(GameStatus.CONTINUE, gameService.makeNewMove(gameId, GameFigure.X, 4));
+        GameService.MoveResult reply = gameService.makeNewMove(gameId, GameFigure.O);
+        assertNotEquals(4, reply.getPosition());
+        assertEquals(GameStatus.CONTINUE, reply.getStatus());
+        // the computer does not learn the games of the engine
+        assertEquals(0, gameService.getNumberOfNodes());
+
+        gameService.shutdown();
+        try {
+            gameService.makeNewMove(gameId, GameFigure.X);
+            fail("the engine is not shut down");
+        } catch (TicTacToeException e) {
+            assertEquals("The engine is shut down", e.getMessage());
+        }
+    }
+
+    @Test
+    public void treeEngine() throws TicTacToeException {
+        GameService gameService = newGameService(GameService.TREE);
+        String gameId = gameService.startNewGame();
+        gameService.makeNewMove(gameId, GameFigure.X, 4);
+        gameService.makeNewMove(gameId, GameFigure.O);
+        assertEquals(1, gameService.getNumberOfNodes());
+        gameService.shutdown();
+    }
+
+    @Test
+    public void occupiedPositionIsRejected() throws TicTacToeException {
+        GameService gameService = newGameService(GameService.TREE);
+        String gameId = gameService.startNewGame();
+        gameService.makeNewMove(gameId, GameFigure.X, 4);
+        int position = gameService.makeNewMove(gameId, GameFigure.O).getPosition();
+        GameBoard board = gameService.getSession(gameId).getGame().getGameBoard();
+        GameFigure[] figures = figures(board);
+        long numberOfNodes = gameService.getNumberOfNodes();
+
+        assertMoveError("The position " + position + " is already taken", gameService, gameId, GameFigure.X, position);
+        assertMoveError("The position 4 is already taken", gameService, gameId, GameFigure.X, 4);
+        assertArrayEquals(figures, figures(board));
+        assertEquals(numberOfNodes, gameService.getNumberOfNodes());
+        gameService.shutdown();
+    }
+
+    @Test
+    public void invalidMovesAreRejected() throws TicTacToeException {
+        GameService gameService = newGameService(GameService.TREE);
+        String gameId = gameService.startNewGame();
+        assertMoveError("Invalid position: 9", gameService, gameId, GameFigure.X, 9);
+        assertMoveError("Invalid position: -1", gameService, gameId, GameFigure.X, -1);
+        assertMoveError("Invalid figure: EMPTY", gameService, gameId, GameFigure.EMPTY, 0);
+        gameService.makeNewMove(gameId, GameFigure.X, 4);
+        assertMoveError("It is not the turn of X", gameService, gameId, GameFigure.X, 0);
+        try {
+            gameService.playMove(gameId, GameFigure.X, 0);
+            fail("X moved twice");
+        } catch (TicTacToeException e) {
+            assertEquals("It is not the turn of X", e.getMessage());
+        }
+        assertArrayEquals(new GameFigure[] {GameFigure.EMPTY, GameFigure.EMPTY, GameFigure.EMPTY,
+                GameFigure.EMPTY, GameFigure.X, GameFigure.EMPTY, GameFigure.EMPTY, GameFigure.EMPTY, GameFigure.EMPTY},
+                figures(gameService.getSession(gameId).getGame().getGameBoard()));
+        gameService.shutdown();
+    }
+
+    @Test
+    public void finishedGameStatus() throws TicTacToeException {
+        GameService gameService = newGameService(GameService.TREE);
+        String gameId = gameService.startNewGame();
+        for(int position = 0; position < 2; position++) {
+            gameService.makeNewMove(gameId, GameFigure.X, position);
+            gameService.makeNewMove(gameId, GameFigure.O, position + 3);
+        }
+        assertEquals(GameStatus.WIN, gameService.makeNewMove(gameId, GameFigure.X, 2));
+        assertEquals(GameStatus.WIN, gameService.getGameStatus(gameId));
+        assertEquals(GameStatus.WIN, gameService.getGameStatus(gameId));
+
+        // the next game
+        gameService.makeNewMove(gameId, GameFigure.O, 4);
+        assertEquals(GameStatus.CONTINUE, gameService.getGameStatus(gameId));
+        gameService.shutdown();
+    }
+
+    @Test(expected = TicTacToeException.class)
+    public void unknownEngineError() throws TicTacToeException {
+        newGameService("minimax");
+    }
+
+    private static void assertMoveError(String message, GameService gameService, String gameId, GameFigure figure,
+                                        int position) {
+        try {
+            gameService.makeNewMove(gameId, figure, position);
+            fail("the move is made: " + figure + " " + position);
+        } catch (TicTacToeException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+    private static GameFigure[] figures(GameBoard board) {
+        GameFigure[] figures = new GameFigure[board.getSize()];
+        for(int position = 0; position < figures.length; position++) {
+            figures[position] = board.get(position);
+        }
+        return figures;
+    }
+
+    private static GameService newGameService(String engineType) throws TicTacToeException {
+        return new GameService(100, 60000, 4, 1, "", engineType, 2, 20);
+    }
+}
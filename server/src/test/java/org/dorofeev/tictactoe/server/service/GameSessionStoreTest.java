@@ -0,0 +1,91 @@
+package org.dorofeev.tictactoe.server.service;
+
+import org.dorofeev.tictactoe.core.exception.TicTacToeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-09-25
+ */
+public class GameSessionStoreTest {
+    @Rule
+    public ExpectedException expectException = ExpectedException.none();
+
+    private final ManualClock clock = new ManualClock();
+
+    @Test
+    public void putAndGet() throws TicTacToeException {
+        GameSessionStore store = new GameSessionStore(10, 1000, 4, clock);
+        GameSession session = new GameSession("1", null);
+        store.put(session);
+        assertSame(session, store.get("1"));
+        assertNull(store.get("2"));
+        assertEquals(1, store.size());
+        assertSame(session, store.remove("1"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedIsEvicted() throws TicTacToeException {
+        GameSessionStore store = new GameSessionStore(2, 1000, 1, clock);
+        store.put(new GameSession("1", null));
+        store.put(new GameSession("2", null));
+        store.get("1");
+        store.put(new GameSession("3", null));
+
+        assertEquals(2, store.size());
+        assertNotNull(store.get("1"));
+        assertNull(store.get("2"));
+        assertNotNull(store.get("3"));
+    }
+
+    @Test
+    public void sizeIsBounded() throws TicTacToeException {
+        GameSessionStore store = new GameSessionStore(100, 1000, 16, clock);
+        for(int i = 0; i < 10000; i++) {
+            store.put(new GameSession(String.valueOf(i), null));
+        }
+        assertTrue(store.size() <= 100);
+    }
+
+    @Test
+    public void idleSessionExpires() throws TicTacToeException {
+        GameSessionStore store = new GameSessionStore(10, 1000, 1, clock);
+        store.put(new GameSession("1", null));
+        clock.advance(600);
+        store.put(new GameSession("2", null));
+        assertNotNull(store.get("1"));
+
+        clock.advance(600);
+        assertNotNull(store.get("1"));
+        clock.advance(1000);
+        assertNull(store.get("1"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void evictExpired() throws TicTacToeException {
+        GameSessionStore store = new GameSessionStore(10, 1000, 2, clock);
+        store.put(new GameSession("1", null));
+        store.put(new GameSession("2", null));
+        clock.advance(500);
+        store.put(new GameSession("3", null));
+        clock.advance(500);
+
+        assertEquals(2, store.evictExpired());
+        assertEquals(1, store.size());
+        assertNotNull(store.get("3"));
+    }
+
+    @Test
+    public void maxSizeError() throws TicTacToeException {
+        expectException.expect(TicTacToeException.class);
+        expectException.expectMessage("max size is < 1");
+
+        new GameSessionStore(0, 1000, 1, clock);
+    }
+}
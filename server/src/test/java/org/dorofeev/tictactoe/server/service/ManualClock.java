@@ -0,0 +1,39 @@
+package org.dorofeev.tictactoe.server.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Clock of the tests, the time goes on only by {@link #advance(long)}
+ * @author Yury Dorofeev
+ * @version 2016-10-09
+ */
+class ManualClock extends Clock {
+    private long millis;
+
+    void advance(long delta) {
+        millis += delta;
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+}
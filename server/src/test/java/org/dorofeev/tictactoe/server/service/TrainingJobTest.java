@@ -0,0 +1,94 @@
+package org.dorofeev.tictactoe.server.service;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Yury Dorofeev
+ * @version 2016-10-09
+ */
+public class TrainingJobTest {
+    private final ManualClock clock = new ManualClock();
+
+    @Test
+    public void lifecycle() throws InterruptedException {
+        TrainingJob job = new TrainingJob("1", 100, 0, clock);
+        assertEquals(TrainingJob.State.QUEUED, job.getState());
+
+        job.started();
+        assertEquals(TrainingJob.State.RUNNING, job.getState());
+        assertTrue(job.beforeGame());
+        job.gamePlayed();
+        clock.advance(500);
+        assertEquals(1, job.getGamesPlayed());
+        assertEquals(2.0, job.getGamesPerSecond(), 0.001);
+
+        job.finished(null);
+        assertEquals(TrainingJob.State.DONE, job.getState());
+        assertFalse(job.pause());
+        assertFalse(job.cancel());
+    }
+
+    @Test
+    public void timeBudgetWithoutPauses() throws InterruptedException {
+        TrainingJob job = new TrainingJob("1", 100, 1000, clock);
+        job.started();
+        clock.advance(600);
+        assertTrue(job.pause());
+        assertEquals(TrainingJob.State.PAUSED, job.getState());
+        clock.advance(5000);
+        assertTrue(job.resume());
+        assertEquals(600, job.getActiveTime());
+        assertTrue(job.beforeGame());
+
+        clock.advance(400);
+        assertFalse(job.beforeGame());
+    }
+
+    @Test
+    public void cancelReleasesPausedWorker() throws InterruptedException {
+        final TrainingJob job = new TrainingJob("1", 100, 0, clock);
+        job.started();
+        job.pause();
+        final boolean[] allowed = {true};
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    allowed[0] = job.beforeGame();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        worker.start();
+        worker.join(100);
+        assertTrue(worker.isAlive());
+
+        job.cancel();
+        worker.join(5000);
+        assertFalse(worker.isAlive());
+        assertFalse(allowed[0]);
+        job.finished(null);
+        assertEquals(TrainingJob.State.CANCELLED, job.getState());
+    }
+
+    @Test
+    public void failed() {
+        TrainingJob job = new TrainingJob("1", 100, 0, clock);
+        job.started();
+        job.finished("Learning failed");
+        assertEquals(TrainingJob.State.FAILED, job.getState());
+        assertEquals("Learning failed", job.getError());
+    }
+
+    @Test
+    public void cancelledAndInterrupted() {
+        TrainingJob job = new TrainingJob("1", 100, 0, clock);
+        job.started();
+        job.cancel();
+        job.finished("Learning is interrupted");
+        assertEquals(TrainingJob.State.CANCELLED, job.getState());
+    }
+}